@@ -33,6 +33,10 @@ import org.apache.webbeans.event.EventContextImpl;
 import org.apache.webbeans.logger.WebBeansLoggerFacade;
 import org.apache.webbeans.spi.TransactionService;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -41,13 +45,45 @@ public final class TransactionalEventNotifier
 {
     private static final Logger logger = WebBeansLoggerFacade.getLogger(TransactionalEventNotifier.class);
 
+    /**
+     * The initial capacity of the delivery list of a transaction.
+     */
+    private static final int INITIAL_QUEUE_SIZE = 32;
+
+    /**
+     * One batch of observer deliveries per active transaction.
+     * The entry gets removed once the transaction completed.
+     */
+    private static final Map<Transaction, TransactionalEventBatch> BATCHES = new ConcurrentHashMap<>();
+
     private TransactionalEventNotifier()
     {
         // utility class ct
     }
 
     /**
-     * This will get called by the EJB integration code
+     * This will get called by the EJB integration code.
+     *
+     * @deprecated looks up the TransactionService of the current WebBeansContext for each event.
+     *             TransactionService implementations should use
+     *             {@link #registerTransactionSynchronization(TransactionService, TransactionPhase, ObserverMethod, Object, EventMetadata)}
+     *             and pass themselves.
+     */
+    @Deprecated
+    public static void registerTransactionSynchronization(TransactionPhase phase, ObserverMethod<? super Object> observer, Object event, EventMetadata metadata) throws Exception
+    {
+        registerTransactionSynchronization(WebBeansContext.currentInstance().getService(TransactionService.class),
+                                           phase, observer, event, metadata);
+    }
+
+    /**
+     * This will get called by the EJB integration code, usually from
+     * {@link TransactionService#registerTransactionSynchronization(TransactionPhase, ObserverMethod, Object, EventMetadata)}
+     * with the TransactionService itself.
+     *
+     * All deliveries of a transaction get collected in a single Synchronization.
+     * The deliveries get dispatched in the order they got registered, like with
+     * one Synchronization per delivery.
      *
      * Since registration of the event can blow up if the tx is not active we have a matrix of assumed behaviour
      *
@@ -65,103 +101,59 @@ public final class TransactionalEventNotifier
      * For AFTER_SUCCESS we copmletely skip the event. It will not get invoked at all because the transaction
      * will not succeed.
      */
-    public static void registerTransactionSynchronization(TransactionPhase phase, ObserverMethod<? super Object> observer, Object event, EventMetadata metadata) throws Exception
+    public static void registerTransactionSynchronization(TransactionService transactionService, TransactionPhase phase,
+                                                          ObserverMethod<? super Object> observer, Object event, EventMetadata metadata)
+        throws Exception
     {
-        TransactionService transactionService = WebBeansContext.currentInstance().getService(TransactionService.class);
-        
         Transaction transaction = null;
         if(transactionService != null)
         {
             transaction = transactionService.getTransaction();
         }
         
-        if(transaction != null)
-        {
-            if (phase == TransactionPhase.AFTER_COMPLETION)
-            {
-                registerEvent(transaction, new AfterCompletion(observer, event, metadata), true);
-            }
-            else if (phase == TransactionPhase.AFTER_SUCCESS)
-            {
-                if (transaction.getStatus() == Status.STATUS_NO_TRANSACTION)
-                {
-                    // the AFTER_SUCCESS observers only get invoked if the TX succeeds or if there is no transaction
-                    new AfterCompletionSuccess(observer, event, metadata).notifyObserver();
-                }
-                else
-                {
-                    registerEvent(transaction, new AfterCompletionSuccess(observer, event, metadata), false);
-                }
-            }
-            else if (phase == TransactionPhase.AFTER_FAILURE)
-            {
-                registerEvent(transaction, new AfterCompletionFailure(observer, event, metadata), true);
-            }
-            else if (phase == TransactionPhase.BEFORE_COMPLETION)
-            {
-                registerEvent(transaction, new BeforeCompletion(observer, event, metadata), true);
-            }
-            else
-            {
-                throw new IllegalStateException(WebBeansLoggerFacade.getTokenString(OWBLogConst.EXCEPT_0007) + phase);
-            }            
-        }
-        else
+        if(transaction == null)
         {
             observer.notify(new EventContextImpl(event, metadata));
+            return;
         }
-    }
 
-    private static void registerEvent(Transaction transaction, AbstractSynchronization synchronization, boolean immediateOnError)
-        throws SystemException
-    {
-        try
+        if (phase != TransactionPhase.AFTER_COMPLETION && phase != TransactionPhase.AFTER_SUCCESS
+            && phase != TransactionPhase.AFTER_FAILURE && phase != TransactionPhase.BEFORE_COMPLETION)
         {
-            transaction.registerSynchronization(synchronization);
+            throw new IllegalStateException(WebBeansLoggerFacade.getTokenString(OWBLogConst.EXCEPT_0007) + phase);
         }
-        catch (RollbackException re)
+
+        ObserverDelivery delivery = new ObserverDelivery(phase, observer, event, metadata);
+        if (phase == TransactionPhase.AFTER_SUCCESS && transaction.getStatus() == Status.STATUS_NO_TRANSACTION)
         {
-            if (immediateOnError)
-            {
-                synchronization.notifyObserver();
-            }
+            // the AFTER_SUCCESS observers only get invoked if the TX succeeds or if there is no transaction
+            delivery.notifyObserver();
+            return;
         }
-        catch (IllegalStateException ise)
+
+        TransactionalEventBatch batch = BATCHES.computeIfAbsent(transaction, TransactionalEventBatch::new);
+        if (!batch.add(delivery) && phase != TransactionPhase.AFTER_SUCCESS)
         {
-            if (immediateOnError)
-            {
-                synchronization.notifyObserver();
-            }
+            delivery.notifyObserver();
         }
     }
 
-    private static class AbstractSynchronization<T> implements Synchronization
+    private static final class ObserverDelivery
     {
-
-        private final ObserverMethod<T> observer;
-        private final T event;
+        private final TransactionPhase phase;
+        private final ObserverMethod<Object> observer;
+        private final Object event;
         private final EventMetadata metadata;
 
-        public AbstractSynchronization(ObserverMethod<T> observer, T event, EventMetadata metadata)
+        private ObserverDelivery(TransactionPhase phase, ObserverMethod<? super Object> observer, Object event, EventMetadata metadata)
         {
-            this.observer = observer;
+            this.phase = phase;
+            this.observer = (ObserverMethod<Object>) observer;
             this.event = event;
             this.metadata = metadata;
         }
 
-        @Override
-        public void beforeCompletion()
-        {
-            // Do nothing
-        }
-
-        @Override
-        public void afterCompletion(int i)
-        {
-            //Do nothing
-        }
-
-        public void notifyObserver()
+        private void notifyObserver()
         {
             try
             {
@@ -174,66 +166,113 @@ public final class TransactionalEventNotifier
         }
     }
 
-    private static final class BeforeCompletion extends AbstractSynchronization
+    /**
+     * The single Synchronization of a transaction.
+     * It gets registered at the transaction together with the first delivery.
+     * Deliveries which get added while the batch gets dispatched are dispatched in the same run.
+     */
+    private static final class TransactionalEventBatch implements Synchronization
     {
-        private BeforeCompletion(ObserverMethod observer, Object event, EventMetadata metadata)
-        {
-            super(observer, event, metadata);
-        }
+        private final Transaction transaction;
 
-        @Override
-        public void beforeCompletion()
-        {
-            notifyObserver();
-        }
-    }
+        /**
+         * All deliveries in registration order.
+         */
+        private List<ObserverDelivery> deliveries = new ArrayList<>(INITIAL_QUEUE_SIZE);
 
-    private static final class AfterCompletion extends AbstractSynchronization
-    {
-        private AfterCompletion(ObserverMethod observer, Object event, EventMetadata metadata)
-        {
-            super(observer, event, metadata);
-        }
+        /**
+         * The position of the next delivery to check for BEFORE_COMPLETION.
+         */
+        private int beforeCompletionPosition;
 
-        @Override
-        public void afterCompletion(int i)
+        private boolean registered;
+
+        /**
+         * Set once the transaction completed or the Synchronization could not be registered.
+         * Later deliveries cannot be queued anymore.
+         */
+        private boolean completed;
+
+        private TransactionalEventBatch(Transaction transaction)
         {
-            notifyObserver();
+            this.transaction = transaction;
         }
-    }
 
-    private static final class AfterCompletionSuccess extends AbstractSynchronization
-    {
-        private AfterCompletionSuccess(ObserverMethod observer, Object event, EventMetadata metadata)
+        /**
+         * @return {@code false} if the delivery cannot be queued anymore
+         */
+        private synchronized boolean add(ObserverDelivery delivery) throws SystemException
         {
-            super(observer, event, metadata);
+            if (completed)
+            {
+                return false;
+            }
+
+            if (!registered)
+            {
+                try
+                {
+                    transaction.registerSynchronization(this);
+                }
+                catch (RollbackException | IllegalStateException e)
+                {
+                    completed = true;
+                    BATCHES.remove(transaction, this);
+                    return false;
+                }
+                registered = true;
+            }
+
+            deliveries.add(delivery);
+            return true;
         }
 
         @Override
-        public void afterCompletion(int i)
+        public void beforeCompletion()
         {
-            if (i == Status.STATUS_COMMITTED)
+            ObserverDelivery delivery;
+            while ((delivery = nextBeforeCompletion()) != null)
             {
-                notifyObserver();
+                delivery.notifyObserver();
             }
         }
-    }
 
-    private static final class AfterCompletionFailure extends AbstractSynchronization
-    {
-        private AfterCompletionFailure(ObserverMethod observer, Object event, EventMetadata metadata)
+        @Override
+        public void afterCompletion(int status)
         {
-            super(observer, event, metadata);
+            BATCHES.remove(transaction, this);
+
+            List<ObserverDelivery> completion;
+            synchronized (this)
+            {
+                completed = true;
+                completion = deliveries;
+                deliveries = null;
+            }
+
+            TransactionPhase outcome = status == Status.STATUS_COMMITTED
+                ? TransactionPhase.AFTER_SUCCESS
+                : TransactionPhase.AFTER_FAILURE;
+            for (ObserverDelivery delivery : completion)
+            {
+                if (delivery.phase == TransactionPhase.AFTER_COMPLETION || delivery.phase == outcome)
+                {
+                    delivery.notifyObserver();
+                }
+            }
         }
 
-        @Override
-        public void afterCompletion(int i)
+        private synchronized ObserverDelivery nextBeforeCompletion()
         {
-            if (i != Status.STATUS_COMMITTED)
+            while (deliveries != null && beforeCompletionPosition < deliveries.size())
             {
-                notifyObserver();
+                ObserverDelivery delivery = deliveries.get(beforeCompletionPosition++);
+                if (delivery.phase == TransactionPhase.BEFORE_COMPLETION)
+                {
+                    return delivery;
+                }
             }
+            return null;
         }
     }
-    
 }
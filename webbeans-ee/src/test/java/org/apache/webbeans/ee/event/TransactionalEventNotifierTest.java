@@ -0,0 +1,348 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.ee.event;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.event.Reception;
+import javax.enterprise.event.TransactionPhase;
+import javax.enterprise.inject.spi.ObserverMethod;
+import javax.transaction.RollbackException;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+import javax.transaction.UserTransaction;
+import javax.transaction.xa.XAResource;
+
+import org.apache.webbeans.spi.TransactionService;
+import org.junit.Test;
+
+public class TransactionalEventNotifierTest
+{
+    private final List<String> notified = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testNoTransaction() throws Exception
+    {
+        register(new FakeTransactionService(null), TransactionPhase.AFTER_SUCCESS, "success");
+
+        assertEquals(asList("success"), notified);
+    }
+
+    @Test
+    public void testRegistrationOrderOnCommit() throws Exception
+    {
+        FakeTransaction transaction = new FakeTransaction();
+        registerAllPhases(new FakeTransactionService(transaction));
+
+        assertTrue(notified.isEmpty());
+        assertEquals(1, transaction.synchronizations.size());
+
+        transaction.complete(Status.STATUS_COMMITTED);
+        assertEquals(asList("before", "success-1", "completion", "success-2"), notified);
+    }
+
+    @Test
+    public void testRegistrationOrderOnRollback() throws Exception
+    {
+        FakeTransaction transaction = new FakeTransaction();
+        registerAllPhases(new FakeTransactionService(transaction));
+
+        transaction.complete(Status.STATUS_ROLLEDBACK);
+        assertEquals(asList("before", "failure", "completion"), notified);
+    }
+
+    @Test
+    public void testDeliveriesAddedDuringBeforeCompletion() throws Exception
+    {
+        FakeTransaction transaction = new FakeTransaction();
+        FakeTransactionService transactionService = new FakeTransactionService(transaction);
+        TransactionalEventNotifier.registerTransactionSynchronization(transactionService, TransactionPhase.BEFORE_COMPLETION,
+            new RecordingObserver("before-1")
+            {
+                @Override
+                public void notify(Object event)
+                {
+                    super.notify(event);
+                    try
+                    {
+                        register(transactionService, TransactionPhase.BEFORE_COMPLETION, "before-2");
+                        register(transactionService, TransactionPhase.AFTER_SUCCESS, "success");
+                    }
+                    catch (Exception e)
+                    {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }, "event", null);
+
+        transaction.complete(Status.STATUS_COMMITTED);
+        assertEquals(asList("before-1", "before-2", "success"), notified);
+        assertEquals(1, transaction.synchronizations.size());
+    }
+
+    @Test
+    public void testRollbackOnly() throws Exception
+    {
+        FakeTransaction transaction = new FakeTransaction();
+        transaction.rollbackOnly = true;
+        registerAllPhases(new FakeTransactionService(transaction));
+
+        // AFTER_SUCCESS gets skipped, all others get notified immediately
+        assertEquals(asList("failure", "completion", "before"), notified);
+        assertTrue(transaction.synchronizations.isEmpty());
+    }
+
+    @Test
+    public void testCompletedTransaction() throws Exception
+    {
+        FakeTransaction transaction = new FakeTransaction();
+        FakeTransactionService transactionService = new FakeTransactionService(transaction);
+        register(transactionService, TransactionPhase.AFTER_SUCCESS, "success-1");
+        transaction.complete(Status.STATUS_COMMITTED);
+
+        transaction.rollbackOnly = true;
+        register(transactionService, TransactionPhase.AFTER_COMPLETION, "completion");
+        register(transactionService, TransactionPhase.AFTER_SUCCESS, "success-2");
+
+        assertEquals(asList("success-1", "completion"), notified);
+    }
+
+    @Test
+    public void testConcurrentRegistration() throws Exception
+    {
+        FakeTransaction transaction = new FakeTransaction();
+        FakeTransactionService transactionService = new FakeTransactionService(transaction);
+
+        int threads = 8;
+        int perThread = 100;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++)
+            {
+                futures.add(executor.submit(() ->
+                {
+                    start.await();
+                    for (int j = 0; j < perThread; j++)
+                    {
+                        register(transactionService, TransactionPhase.AFTER_SUCCESS, "success");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures)
+            {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, transaction.synchronizations.size());
+        transaction.complete(Status.STATUS_COMMITTED);
+        assertEquals(threads * perThread, notified.size());
+    }
+
+    private void registerAllPhases(TransactionService transactionService) throws Exception
+    {
+        register(transactionService, TransactionPhase.AFTER_SUCCESS, "success-1");
+        register(transactionService, TransactionPhase.AFTER_FAILURE, "failure");
+        register(transactionService, TransactionPhase.AFTER_COMPLETION, "completion");
+        register(transactionService, TransactionPhase.BEFORE_COMPLETION, "before");
+        register(transactionService, TransactionPhase.AFTER_SUCCESS, "success-2");
+    }
+
+    private void register(TransactionService transactionService, TransactionPhase phase, String name) throws Exception
+    {
+        TransactionalEventNotifier.registerTransactionSynchronization(transactionService, phase, new RecordingObserver(name), "event", null);
+    }
+
+    private class RecordingObserver implements ObserverMethod<Object>
+    {
+        private final String name;
+
+        private RecordingObserver(String name)
+        {
+            this.name = name;
+        }
+
+        @Override
+        public Class<?> getBeanClass()
+        {
+            return TransactionalEventNotifierTest.class;
+        }
+
+        @Override
+        public Type getObservedType()
+        {
+            return Object.class;
+        }
+
+        @Override
+        public Set<Annotation> getObservedQualifiers()
+        {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Reception getReception()
+        {
+            return Reception.ALWAYS;
+        }
+
+        @Override
+        public TransactionPhase getTransactionPhase()
+        {
+            return TransactionPhase.IN_PROGRESS;
+        }
+
+        @Override
+        public void notify(Object event)
+        {
+            notified.add(name);
+        }
+    }
+
+    private static class FakeTransactionService implements TransactionService
+    {
+        private final Transaction transaction;
+
+        private FakeTransactionService(Transaction transaction)
+        {
+            this.transaction = transaction;
+        }
+
+        @Override
+        public TransactionManager getTransactionManager()
+        {
+            return null;
+        }
+
+        @Override
+        public Transaction getTransaction()
+        {
+            return transaction;
+        }
+
+        @Override
+        public UserTransaction getUserTransaction()
+        {
+            return null;
+        }
+
+        @Override
+        public void registerTransactionSynchronization(TransactionPhase phase, ObserverMethod<? super Object> observer, Object event)
+            throws Exception
+        {
+            TransactionalEventNotifier.registerTransactionSynchronization(this, phase, observer, event, null);
+        }
+    }
+
+    private static class FakeTransaction implements Transaction
+    {
+        private final List<Synchronization> synchronizations = new CopyOnWriteArrayList<>();
+        private volatile int status = Status.STATUS_ACTIVE;
+        private volatile boolean rollbackOnly;
+
+        private void complete(int finalStatus)
+        {
+            for (Synchronization synchronization : synchronizations)
+            {
+                synchronization.beforeCompletion();
+            }
+            status = finalStatus;
+            for (Synchronization synchronization : synchronizations)
+            {
+                synchronization.afterCompletion(finalStatus);
+            }
+        }
+
+        @Override
+        public void registerSynchronization(Synchronization synchronization) throws RollbackException
+        {
+            if (rollbackOnly)
+            {
+                throw new RollbackException();
+            }
+            if (status != Status.STATUS_ACTIVE)
+            {
+                throw new IllegalStateException("transaction completed");
+            }
+            synchronizations.add(synchronization);
+        }
+
+        @Override
+        public int getStatus()
+        {
+            return status;
+        }
+
+        @Override
+        public void commit()
+        {
+            complete(Status.STATUS_COMMITTED);
+        }
+
+        @Override
+        public void rollback()
+        {
+            complete(Status.STATUS_ROLLEDBACK);
+        }
+
+        @Override
+        public void setRollbackOnly()
+        {
+            rollbackOnly = true;
+        }
+
+        @Override
+        public boolean delistResource(XAResource xaResource, int flag)
+        {
+            return false;
+        }
+
+        @Override
+        public boolean enlistResource(XAResource xaResource)
+        {
+            return false;
+        }
+    }
+}
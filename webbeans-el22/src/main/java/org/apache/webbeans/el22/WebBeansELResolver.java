@@ -18,6 +18,7 @@
  */
 package org.apache.webbeans.el22;
 
+import org.apache.webbeans.component.EnterpriseBeanMarker;
 import org.apache.webbeans.component.OwbBean;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.container.BeanManagerImpl;
@@ -28,10 +29,15 @@ import javax.el.ELException;
 import javax.el.ELResolver;
 import javax.enterprise.context.Dependent;
 import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.AmbiguousResolutionException;
 import javax.enterprise.inject.spi.Bean;
 import java.beans.FeatureDescriptor;
 import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -55,6 +61,12 @@ public class WebBeansELResolver extends ELResolver
 {
     private WebBeansContext webBeansContext;
 
+    /**
+     * All named beans by their name.
+     * This gets built once the deployment finished as no beans get added afterwards.
+     */
+    private volatile Map<String, NamedBean> namedBeans;
+
     public WebBeansELResolver()
     {
         webBeansContext = WebBeansContext.getInstance();
@@ -105,6 +117,22 @@ public class WebBeansELResolver extends ELResolver
         //Name of the bean
         String beanName = (String) property;
 
+        Map<String, NamedBean> beansByName = getNamedBeans(beanManager);
+        if (beansByName != null)
+        {
+            NamedBean namedBean = beansByName.get(beanName);
+            if (namedBean == null)
+            {
+                // not a CDI bean, e.g. a JSF implicit object
+                return null;
+            }
+            if (namedBean.bean != null)
+            {
+                return getNamedBeanInstance(beanManager, context, namedBean);
+            }
+            // ambiguous name, let the standard resolution report it
+        }
+
         //Local store, create if not exist
         ELContextStore elContextStore = ELContextStore.getInstance(true);
 
@@ -139,6 +167,79 @@ public class WebBeansELResolver extends ELResolver
         return contextualInstance;
     }
 
+    private Object getNamedBeanInstance(BeanManagerImpl beanManager, ELContext context, NamedBean namedBean)
+    {
+        if (namedBean.normalScoped)
+        {
+            // the proxy stays valid for the whole application
+            Object reference = namedBean.reference;
+            if (reference == null)
+            {
+                Bean<?> bean = namedBean.bean;
+                reference = beanManager.getReference(bean, Object.class, beanManager.createCreationalContext(bean));
+                namedBean.reference = reference;
+            }
+            if (reference != null)
+            {
+                context.setPropertyResolved(true);
+            }
+            return reference;
+        }
+
+        ELContextStore elContextStore = ELContextStore.getInstance(true);
+        if (namedBean.dependent)
+        {
+            return getDependentContextualInstance(beanManager, elContextStore, context, namedBean.bean);
+        }
+
+        // other pseudo-scopes
+        Object contextualInstance = elContextStore.findBeanByName(namedBean.bean.getName());
+        if (contextualInstance != null)
+        {
+            context.setPropertyResolved(true);
+            return contextualInstance;
+        }
+        return getNormalScopedContextualInstance(beanManager, elContextStore, context, namedBean.bean, namedBean.bean.getName());
+    }
+
+    /**
+     * @return the table of named beans or {@code null} if the deployment is not finished yet
+     */
+    private Map<String, NamedBean> getNamedBeans(BeanManagerImpl beanManager)
+    {
+        Map<String, NamedBean> beansByName = namedBeans;
+        if (beansByName == null && beanManager.isAfterDeploymentValidationFired())
+        {
+            Map<String, Set<Bean<?>>> beansPerName = new HashMap<>();
+            for (Bean<?> bean : beanManager.getBeans())
+            {
+                if (bean.getName() != null)
+                {
+                    beansPerName.computeIfAbsent(bean.getName(), n -> new HashSet<>()).add(bean);
+                }
+            }
+
+            beansByName = new HashMap<>(beansPerName.size() * 2);
+            for (Map.Entry<String, Set<Bean<?>>> beans : beansPerName.entrySet())
+            {
+                Bean<?> bean;
+                try
+                {
+                    bean = beanManager.resolve(beans.getValue());
+                }
+                catch (AmbiguousResolutionException e)
+                {
+                    bean = null;
+                }
+                beansByName.put(beans.getKey(), new NamedBean(beanManager, bean));
+            }
+
+            beansByName = Collections.unmodifiableMap(beansByName);
+            namedBeans = beansByName;
+        }
+        return beansByName;
+    }
+
     protected Object getNormalScopedContextualInstance(BeanManagerImpl manager, ELContextStore store, ELContext context, Bean<?> bean, String beanName)
     {
         CreationalContext<?> creationalContext = manager.createCreationalContext(bean);
@@ -195,6 +296,29 @@ public class WebBeansELResolver extends ELResolver
         return Object.class;
     }
 
+    private static final class NamedBean
+    {
+        /**
+         * The resolved bean or {@code null} if the name is ambiguous.
+         */
+        private final Bean<?> bean;
+        private final boolean normalScoped;
+        private final boolean dependent;
+
+        /**
+         * The cached proxy of a normal-scoped bean.
+         */
+        private volatile Object reference;
+
+        private NamedBean(BeanManagerImpl beanManager, Bean<?> bean)
+        {
+            this.bean = bean;
+            // EJB proxies get created by the EJB plugin and are not cached by the BeanManager
+            normalScoped = bean != null && beanManager.isNormalScope(bean.getScope()) && !(bean instanceof EnterpriseBeanMarker);
+            dependent = bean != null && bean.getScope().equals(Dependent.class);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */    
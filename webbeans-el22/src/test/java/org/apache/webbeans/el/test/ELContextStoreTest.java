@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.el.test;
+
+import org.apache.webbeans.el.ELContextStore;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ELContextStoreTest
+{
+    @After
+    public void cleanup()
+    {
+        ELContextStore.endRequest();
+    }
+
+    @Test
+    public void testEndRequestRemovesTheStore()
+    {
+        Object instance = new Object();
+
+        ELContextStore store = ELContextStore.getInstance(true);
+        store.addNormalScoped("sampleBean", instance);
+        Assert.assertSame(instance, store.findBeanByName("sampleBean"));
+
+        ELContextStore.endRequest();
+
+        // nothing must stay attached to a pooled request thread
+        Assert.assertNull(ELContextStore.getInstance(false));
+        Assert.assertNull(store.findBeanByName("sampleBean"));
+
+        ELContextStore next = ELContextStore.getInstance(true);
+        Assert.assertNotSame(store, next);
+        Assert.assertNull(next.findBeanByName("sampleBean"));
+    }
+
+    @Test
+    public void testEndRequestWithoutStore()
+    {
+        ELContextStore.endRequest();
+
+        Assert.assertNull(ELContextStore.getInstance(false));
+    }
+}
@@ -77,6 +77,7 @@ import org.apache.webbeans.portable.events.discovery.BeforeBeanDiscoveryImpl;
 import org.apache.webbeans.portable.events.generics.GProcessAnnotatedType;
 import org.apache.webbeans.portable.events.generics.GProcessBean;
 import org.apache.webbeans.portable.events.generics.GProcessManagedBean;
+import org.apache.webbeans.proxy.NormalScopeProxyFactory;
 import org.apache.webbeans.spi.BdaScannerService;
 import org.apache.webbeans.spi.BeanArchiveService;
 import org.apache.webbeans.spi.JNDIService;
@@ -107,6 +108,7 @@ import javax.enterprise.inject.spi.Interceptor;
 import javax.enterprise.inject.spi.ObserverMethod;
 import javax.enterprise.inject.spi.Producer;
 
+import java.io.File;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
@@ -125,6 +127,16 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -327,13 +339,26 @@ public class BeansDeployer
                 
                 validateAlternatives(beanAttributesPerBda);
 
-                validateInjectionPoints();
-                validateDisposeParameters();
+                ValidationCache validationCache = createValidationCache();
+                String validationFingerprint = validationCache == null ? null : validationCache.createFingerprint(webBeansContext);
+                boolean validated = validationFingerprint != null
+                        && !webBeansContext.getOpenWebBeansConfiguration().isForceValidation()
+                        && validationCache.isValidated(validationFingerprint);
+                if (validated)
+                {
+                    logger.info("Deployment " + validationFingerprint + " got validated before, skipping the injection point validation");
+                }
 
-                validateDecoratorDecoratedTypes();
-                validateDecoratorGenericTypes();
+                validateInjectionPoints(!validated);
+                if (!validated)
+                {
+                    validateDisposeParameters();
 
-                validateNames();
+                    validateDecoratorDecoratedTypes();
+                    validateDecoratorGenericTypes();
+
+                    validateNames();
+                }
 
                 if (webBeansContext.getNotificationManager().getObserverMethods().stream()
                         .anyMatch(ObserverMethod::isAsync))
@@ -346,12 +371,20 @@ public class BeansDeployer
                 // fire event
                 fireAfterDeploymentValidationEvent();
 
+                if (validationFingerprint != null && !validated)
+                {
+                    validationCache.markValidated(validationFingerprint);
+                }
+
+                if (webBeansContext.getOpenWebBeansConfiguration().isEagerProxyGeneration())
+                {
+                    generateNormalScopeProxies();
+                }
+
+                new EagerBeanInitializer(webBeansContext).initialize();
 
                 // do some cleanup after the deployment
-                scanner.release();
-                webBeansContext.getAnnotatedElementFactory().clear();
-                webBeansContext.getNotificationManager().clearCaches();
-                webBeansContext.getAnnotationManager().clearCaches();
+                releaseDeploymentMetadata(scanner);
             }
         }
         catch (UnsatisfiedResolutionException e)
@@ -854,6 +887,9 @@ public class BeansDeployer
 
         event.setStarted();
 
+        // extensions might have changed the enabled interceptors or their order
+        interceptorsManager.invalidateResolutionCache();
+
         // we do not need to set back the sortedAlternatives to the AlternativesManager as the API
         // and all layers in between use a mutable List. Not very elegant but spec conform.
 
@@ -879,6 +915,118 @@ public class BeansDeployer
         event.setStarted();
     }
 
+    /**
+     * Drops all the metadata which is only needed during discovery and validation:
+     * the finder, archive and bean classes per bean archive of the ScannerService,
+     * the parsed beans.xml information of the BeanArchiveService
+     * plus the AnnotatedType, observer and annotation caches.
+     */
+    private void releaseDeploymentMetadata(ScannerService scanner)
+    {
+        long start = System.nanoTime();
+        int bdaCount = 0;
+        int classCount = 0;
+        if (scanner instanceof BdaScannerService)
+        {
+            Map<BeanArchiveInformation, Set<Class<?>>> beanClassesPerBda = ((BdaScannerService) scanner).getBeanClassesPerBda();
+            if (beanClassesPerBda != null)
+            {
+                bdaCount = beanClassesPerBda.size();
+                for (Set<Class<?>> beanClasses : beanClassesPerBda.values())
+                {
+                    classCount += beanClasses.size();
+                }
+            }
+        }
+
+        scanner.release();
+        beanArchiveService.release();
+        webBeansContext.getAnnotatedElementFactory().clear();
+        webBeansContext.getNotificationManager().clearCaches();
+        webBeansContext.getAnnotationManager().clearCaches();
+
+        if (logger.isLoggable(Level.INFO) && classCount > 0)
+        {
+            logger.info("Released the deployment metadata of " + classCount + " scanned classes in " + bdaCount +
+                    " bean archives in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        }
+    }
+
+    /**
+     * Generate the proxy classes of all enabled normal-scoped beans in parallel.
+     * Interceptor and decorator proxies got already created while validating the beans.
+     * Failures only get logged as the proxy class will simply get generated lazily on first use.
+     */
+    private void generateNormalScopeProxies()
+    {
+        BeanManagerImpl beanManager = webBeansContext.getBeanManagerImpl();
+        List<Bean<?>> normalScopedBeans = new ArrayList<>();
+        for (Bean<?> bean : beanManager.getBeans())
+        {
+            if (bean instanceof OwbBean && !((OwbBean<?>) bean).isEnabled())
+            {
+                continue;
+            }
+            if (beanManager.isNormalScope(bean.getScope()))
+            {
+                normalScopedBeans.add(bean);
+            }
+        }
+        if (normalScopedBeans.isEmpty())
+        {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        NormalScopeProxyFactory proxyFactory = webBeansContext.getNormalScopeProxyFactory();
+        ClassLoader classLoader = WebBeansUtil.getCurrentClassLoader();
+        AtomicInteger threadCounter = new AtomicInteger();
+        int parallelism = Math.min(normalScopedBeans.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable ->
+        {
+            Thread thread = new Thread(runnable, "OpenWebBeans-ProxyGenerator-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        });
+
+        try
+        {
+            List<Future<?>> generations = new ArrayList<>(normalScopedBeans.size());
+            for (Bean<?> bean : normalScopedBeans)
+            {
+                generations.add(executor.submit(() -> proxyFactory.createProxyClass(bean)));
+            }
+
+            for (int i = 0; i < generations.size(); i++)
+            {
+                try
+                {
+                    generations.get(i).get();
+                }
+                catch (ExecutionException e)
+                {
+                    logger.log(Level.WARNING, "Cannot eagerly generate the proxy for " + normalScopedBeans.get(i) +
+                            ", it will get generated on first use", e.getCause());
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        if (logger.isLoggable(Level.FINE))
+        {
+            logger.fine("Generated " + normalScopedBeans.size() + " normal scope proxies in " +
+                    (System.currentTimeMillis() - start) + " ms");
+        }
+    }
+
     /**
      * Check if all XML configured alternatives end up as alternative beans
      * @param beanAttributesPerBda
@@ -1070,15 +1218,30 @@ public class BeansDeployer
     }
 
 
+    /**
+     * @return the cache for validated deployments or {@code null} if none is configured
+     */
+    private ValidationCache createValidationCache()
+    {
+        String cacheDirectory = webBeansContext.getOpenWebBeansConfiguration().getValidationCacheDirectory();
+        return cacheDirectory != null ? new ValidationCache(new File(cacheDirectory)) : null;
+    }
+
     /**
      * Validate all injection points.
+     *
+     * @param fullValidation {@code false} if the deployment got validated before and
+     *                       only the interceptor stacks of the beans must get defined
      */
-    private void validateInjectionPoints()
+    private void validateInjectionPoints(boolean fullValidation)
     {
         logger.fine("Validation of injection points has started.");
 
-        decoratorsManager.validateDecoratorClasses();
-        interceptorsManager.validateInterceptorClasses();
+        if (fullValidation)
+        {
+            decoratorsManager.validateDecoratorClasses();
+            interceptorsManager.validateInterceptorClasses();
+        }
 
         //Adding decorators to validate
         Set<Decorator<?>> decorators = decoratorsManager.getDecorators();
@@ -1086,7 +1249,7 @@ public class BeansDeployer
         logger.fine("Validation of the decorator's injection points has started.");
         
         //Validate Decorators
-        validate(decorators);
+        validate(decorators, fullValidation);
         
         //Adding interceptors to validate
         List<javax.enterprise.inject.spi.Interceptor<?>> interceptors = interceptorsManager.getCdiInterceptors();
@@ -1094,19 +1257,27 @@ public class BeansDeployer
         logger.fine("Validation of the interceptor's injection points has started.");
         
         //Validate Interceptors
-        validate(interceptors);
+        validate(interceptors, fullValidation);
+
+        if (fullValidation)
+        {
+            webBeansContext.getInterceptorResolutionService().validateSharedInterceptors(interceptors);
+        }
 
         logger.fine("Validation of the beans' injection points has started.");
 
         Set<Bean<?>> beans = webBeansContext.getBeanManagerImpl().getBeans();
         
         //Validate Others
-        validate(beans);
-        
-        logger.fine("Validation of the observer methods' injection points has started.");
-        
-        //Validate Observers
-        validateObservers(webBeansContext.getNotificationManager().getObserverMethods());
+        validate(beans, fullValidation);
+
+        if (fullValidation)
+        {
+            logger.fine("Validation of the observer methods' injection points has started.");
+
+            //Validate Observers
+            validateObservers(webBeansContext.getNotificationManager().getObserverMethods());
+        }
 
         logger.info(OWBLogConst.INFO_0003);
     }
@@ -1115,8 +1286,9 @@ public class BeansDeployer
      * Validates beans.
      * 
      * @param beans deployed beans
+     * @param fullValidation {@code false} to only define the interceptor stacks
      */
-    private <T, B extends Bean<?>> void validate(Collection<B> beans)
+    private <T, B extends Bean<?>> void validate(Collection<B> beans, boolean fullValidation)
     {
         webBeansContext.getBeanManagerImpl().getInjectionResolver().clearCaches();
 
@@ -1184,6 +1356,11 @@ public class BeansDeployer
                         }
                     }
 
+                    if (!fullValidation)
+                    {
+                        continue;
+                    }
+
                     //Bean injection points
                     Set<InjectionPoint> injectionPoints = bean.getInjectionPoints();
 
@@ -1203,7 +1380,10 @@ public class BeansDeployer
 
             }
             //Validate Bean names
-            validateBeanNames(beanNames);
+            if (fullValidation)
+            {
+                validateBeanNames(beanNames);
+            }
 
             //Clear Names
             beanNames.clear();
@@ -1364,20 +1544,7 @@ public class BeansDeployer
                     annotatedType.getJavaClass().getDeclaredMethods();
                     annotatedType.getJavaClass().getDeclaredFields();
 
-                    // Fires ProcessAnnotatedType
-                    if (!annotatedType.getJavaClass().isAnnotation())
-                    {
-                        GProcessAnnotatedType processAnnotatedEvent = webBeansContext.getWebBeansUtil().fireProcessAnnotatedTypeEvent(annotatedType);
-                        if (!processAnnotatedEvent.isVeto())
-                        {
-                            annotatedTypes.add(processAnnotatedEvent.getAnnotatedType());
-                        }
-                        processAnnotatedEvent.setStarted();
-                    }
-                    else
-                    {
-                        annotatedTypes.add(annotatedType);
-                    }
+                    annotatedTypes.add(annotatedType);
                 }
                 catch (NoClassDefFoundError ncdfe)
                 {
@@ -1386,7 +1553,122 @@ public class BeansDeployer
             }
         }
 
-        return annotatedTypes;
+        return fireProcessAnnotatedTypeEvents(annotatedTypes);
+    }
+
+    /**
+     * Fires the ProcessAnnotatedType events for the given types.
+     * If any Extension declared its observers to be thread safe then the events get fired
+     * concurrently, but the order of the returned types stays the same.
+     *
+     * @return the types which did not get vetoed, as modified by the Extensions
+     * @see OpenWebBeansConfiguration#CONCURRENT_PAT_EXTENSIONS
+     */
+    private List<AnnotatedType<?>> fireProcessAnnotatedTypeEvents(List<AnnotatedType<?>> annotatedTypes)
+    {
+        AnnotatedType<?>[] processedTypes = new AnnotatedType<?>[annotatedTypes.size()];
+        int parallelism = Math.min(annotatedTypes.size(), Runtime.getRuntime().availableProcessors());
+        if (parallelism > 1 && webBeansContext.getNotificationManager().isConcurrentProcessAnnotatedType())
+        {
+            ClassLoader classLoader = WebBeansUtil.getCurrentClassLoader();
+            AtomicInteger threadCounter = new AtomicInteger();
+            ForkJoinPool pool = new ForkJoinPool(parallelism, forkJoinPool ->
+            {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("OpenWebBeans-ProcessAnnotatedType-" + threadCounter.incrementAndGet());
+                thread.setContextClassLoader(classLoader);
+                return thread;
+            }, null, false);
+
+            // rethrow the original exception, ForkJoin would wrap it
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            try
+            {
+                pool.submit(() -> IntStream.range(0, processedTypes.length).parallel().forEach(i ->
+                {
+                    if (failure.get() != null)
+                    {
+                        return;
+                    }
+                    try
+                    {
+                        processedTypes[i] = processAnnotatedType(annotatedTypes.get(i));
+                    }
+                    catch (RuntimeException | Error e)
+                    {
+                        failure.compareAndSet(null, e);
+                    }
+                })).get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new WebBeansDeploymentException(e);
+            }
+            catch (ExecutionException e)
+            {
+                failure.compareAndSet(null, e.getCause());
+            }
+            finally
+            {
+                pool.shutdownNow();
+            }
+
+            Throwable throwable = failure.get();
+            if (throwable instanceof RuntimeException)
+            {
+                throw (RuntimeException) throwable;
+            }
+            if (throwable instanceof Error)
+            {
+                throw (Error) throwable;
+            }
+            if (throwable != null)
+            {
+                throw new WebBeansDeploymentException(throwable);
+            }
+        }
+        else
+        {
+            for (int i = 0; i < processedTypes.length; i++)
+            {
+                processedTypes[i] = processAnnotatedType(annotatedTypes.get(i));
+            }
+        }
+
+        List<AnnotatedType<?>> result = new ArrayList<>(processedTypes.length);
+        for (AnnotatedType<?> processedType : processedTypes)
+        {
+            if (processedType != null)
+            {
+                result.add(processedType);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the AnnotatedType after firing ProcessAnnotatedType or {@code null} if it got vetoed
+     */
+    private AnnotatedType<?> processAnnotatedType(AnnotatedType<?> annotatedType)
+    {
+        try
+        {
+            // Fires ProcessAnnotatedType
+            if (!annotatedType.getJavaClass().isAnnotation())
+            {
+                GProcessAnnotatedType processAnnotatedEvent = webBeansContext.getWebBeansUtil().fireProcessAnnotatedTypeEvent(annotatedType);
+                AnnotatedType<?> processedType = processAnnotatedEvent.isVeto() ? null : processAnnotatedEvent.getAnnotatedType();
+                processAnnotatedEvent.setStarted();
+                return processedType;
+            }
+            return annotatedType;
+        }
+        catch (NoClassDefFoundError ncdfe)
+        {
+            logger.info("Skipping deployment of Class " + annotatedType.getJavaClass() + "due to a NoClassDefFoundError: " + ncdfe.getMessage());
+            return null;
+        }
     }
 
     private boolean isEEComponent(Class<?> impl)
@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.config;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.spi.Context;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.InjectionPoint;
+
+import org.apache.webbeans.annotation.Eager;
+import org.apache.webbeans.component.AbstractProducerBean;
+import org.apache.webbeans.component.ManagedBean;
+import org.apache.webbeans.component.OwbBean;
+import org.apache.webbeans.component.ProducerFieldBean;
+import org.apache.webbeans.component.ProducerMethodBean;
+import org.apache.webbeans.container.BeanManagerImpl;
+import org.apache.webbeans.container.InjectionResolver;
+import org.apache.webbeans.exception.WebBeansDeploymentException;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.util.WebBeansUtil;
+
+/**
+ * Creates the instances of &#064;ApplicationScoped beans right after the AfterDeploymentValidation event.
+ *
+ * The beans get created in parallel, but a bean only gets created after all eager beans
+ * it injects, either directly or via &#064;Dependent beans, got created.
+ * Thus initialization logic in &#064;PostConstruct methods finds its dependencies ready.
+ * Cyclic dependencies are legal for normal-scoped beans, such a cycle gets created in any order.
+ *
+ * @see OpenWebBeansConfiguration#EAGER_INITIALIZATION
+ * @see Eager
+ */
+public class EagerBeanInitializer
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(EagerBeanInitializer.class);
+
+    private final WebBeansContext webBeansContext;
+    private final BeanManagerImpl beanManager;
+    private final InjectionResolver injectionResolver;
+    private final long slowThreshold;
+
+    public EagerBeanInitializer(WebBeansContext webBeansContext)
+    {
+        this.webBeansContext = webBeansContext;
+        beanManager = webBeansContext.getBeanManagerImpl();
+        injectionResolver = beanManager.getInjectionResolver();
+        slowThreshold = webBeansContext.getOpenWebBeansConfiguration().getEagerInitializationSlowThreshold();
+    }
+
+    /**
+     * Creates all eager beans and waits until they are ready.
+     *
+     * @throws WebBeansDeploymentException if a bean cannot be created or the configured timeout got exceeded
+     */
+    public void initialize()
+    {
+        Set<Bean<?>> eagerBeans = findEagerBeans();
+        if (eagerBeans.isEmpty())
+        {
+            return;
+        }
+
+        OpenWebBeansConfiguration configuration = webBeansContext.getOpenWebBeansConfiguration();
+        long timeout = configuration.getEagerInitializationTimeout();
+        Context applicationContext = beanManager.getContext(ApplicationScoped.class);
+
+        long start = System.nanoTime();
+        ClassLoader classLoader = WebBeansUtil.getCurrentClassLoader();
+        AtomicInteger threadCounter = new AtomicInteger();
+        int parallelism = Math.min(eagerBeans.size(), configuration.getEagerInitializationParallelism());
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable ->
+        {
+            Thread thread = new Thread(runnable, "OpenWebBeans-EagerInitializer-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        });
+
+        Map<Bean<?>, CompletableFuture<Void>> creations = new LinkedHashMap<>();
+        try
+        {
+            for (Bean<?> bean : eagerBeans)
+            {
+                schedule(bean, eagerBeans, creations, new HashSet<>(), applicationContext, executor);
+            }
+
+            CompletableFuture<Void> all = CompletableFuture.allOf(creations.values().toArray(new CompletableFuture<?>[0]));
+            if (timeout > 0)
+            {
+                all.get(timeout, TimeUnit.MILLISECONDS);
+            }
+            else
+            {
+                all.get();
+            }
+        }
+        catch (TimeoutException e)
+        {
+            String pending = creations.entrySet().stream()
+                .filter(creation -> !creation.getValue().isDone())
+                .map(creation -> creation.getKey().toString())
+                .collect(Collectors.joining(", "));
+            throw new WebBeansDeploymentException("The eager initialization did not finish within " + timeout +
+                " ms, still pending: " + pending);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null)
+            {
+                cause = cause.getCause();
+            }
+            if (cause instanceof WebBeansDeploymentException)
+            {
+                throw (WebBeansDeploymentException) cause;
+            }
+            throw new WebBeansDeploymentException(cause);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new WebBeansDeploymentException("Interrupted during the eager initialization", e);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        if (logger.isLoggable(Level.INFO))
+        {
+            logger.info("Eagerly created " + eagerBeans.size() + " application scoped beans in " +
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        }
+    }
+
+    /**
+     * @return all enabled &#064;ApplicationScoped beans which either got annotated with {@link Eager}
+     *         or all of them if the eager initialization got enabled for the whole application
+     */
+    private Set<Bean<?>> findEagerBeans()
+    {
+        boolean all = webBeansContext.getOpenWebBeansConfiguration().isEagerInitialization();
+        Set<Bean<?>> eagerBeans = Collections.newSetFromMap(new LinkedHashMap<>());
+        for (Bean<?> bean : beanManager.getBeans())
+        {
+            if (bean instanceof OwbBean && !((OwbBean<?>) bean).isEnabled())
+            {
+                continue;
+            }
+
+            boolean annotated = isAnnotatedEager(bean);
+            if (bean.getScope() != ApplicationScoped.class)
+            {
+                if (annotated)
+                {
+                    logger.warning("Ignoring @Eager on " + bean + " as only @ApplicationScoped beans get created eagerly");
+                }
+                continue;
+            }
+
+            if (annotated || all && isApplicationBean(bean))
+            {
+                eagerBeans.add(bean);
+            }
+        }
+        return eagerBeans;
+    }
+
+    private boolean isAnnotatedEager(Bean<?> bean)
+    {
+        if (bean instanceof ManagedBean)
+        {
+            return ((ManagedBean<?>) bean).getAnnotatedType().isAnnotationPresent(Eager.class);
+        }
+
+        AnnotatedElement member = null;
+        if (bean instanceof ProducerMethodBean)
+        {
+            member = ((ProducerMethodBean<?>) bean).getCreatorMethod();
+        }
+        else if (bean instanceof ProducerFieldBean)
+        {
+            member = ((ProducerFieldBean<?>) bean).getCreatorField();
+        }
+        return member != null && member.isAnnotationPresent(Eager.class);
+    }
+
+    private boolean isApplicationBean(Bean<?> bean)
+    {
+        return bean instanceof ManagedBean
+            || bean instanceof ProducerMethodBean
+            || bean instanceof ProducerFieldBean;
+    }
+
+    private CompletableFuture<Void> schedule(Bean<?> bean, Set<Bean<?>> eagerBeans, Map<Bean<?>, CompletableFuture<Void>> creations,
+                                             Set<Bean<?>> path, Context applicationContext, ExecutorService executor)
+    {
+        CompletableFuture<Void> scheduled = creations.get(bean);
+        if (scheduled != null)
+        {
+            return scheduled;
+        }
+
+        path.add(bean);
+        List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+        for (Bean<?> dependency : findEagerDependencies(bean, eagerBeans))
+        {
+            if (path.contains(dependency))
+            {
+                // a cycle, the normal scope proxies break it at runtime
+                continue;
+            }
+            dependencies.add(schedule(dependency, eagerBeans, creations, path, applicationContext, executor));
+        }
+        path.remove(bean);
+
+        scheduled = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+            .thenRunAsync(() -> create(applicationContext, bean), executor);
+        creations.put(bean, scheduled);
+        return scheduled;
+    }
+
+    /**
+     * @return the eager beans which get injected into the given bean,
+     *         either directly or via a chain of pseudo-scoped beans
+     */
+    private Set<Bean<?>> findEagerDependencies(Bean<?> bean, Set<Bean<?>> eagerBeans)
+    {
+        Set<Bean<?>> dependencies = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Bean<?>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectEagerDependencies(bean, eagerBeans, dependencies, visited);
+        dependencies.remove(bean);
+        return dependencies;
+    }
+
+    private void collectEagerDependencies(Bean<?> bean, Set<Bean<?>> eagerBeans, Set<Bean<?>> dependencies, Set<Bean<?>> visited)
+    {
+        if (!visited.add(bean))
+        {
+            return;
+        }
+
+        if (bean instanceof AbstractProducerBean)
+        {
+            Bean<?> owner = ((AbstractProducerBean<?>) bean).getOwnerComponent();
+            if (owner != null)
+            {
+                addDependency(owner, eagerBeans, dependencies, visited);
+            }
+        }
+
+        for (InjectionPoint injectionPoint : bean.getInjectionPoints())
+        {
+            Bean<?> injected;
+            try
+            {
+                injected = injectionResolver.getInjectionPointBean(injectionPoint);
+            }
+            catch (RuntimeException e)
+            {
+                // i.e. dynamic lookups which do not resolve to a single bean
+                continue;
+            }
+            if (injected != null)
+            {
+                addDependency(injected, eagerBeans, dependencies, visited);
+            }
+        }
+    }
+
+    private void addDependency(Bean<?> dependency, Set<Bean<?>> eagerBeans, Set<Bean<?>> dependencies, Set<Bean<?>> visited)
+    {
+        if (eagerBeans.contains(dependency))
+        {
+            dependencies.add(dependency);
+        }
+        else if (!beanManager.isNormalScope(dependency.getScope()))
+        {
+            // pseudo-scoped instances get created together with the injecting bean
+            collectEagerDependencies(dependency, eagerBeans, dependencies, visited);
+        }
+    }
+
+    private <T> void create(Context applicationContext, Bean<T> bean)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            applicationContext.get(bean, beanManager.createCreationalContext(bean));
+        }
+        catch (RuntimeException e)
+        {
+            throw new WebBeansDeploymentException("Cannot eagerly create " + bean, e);
+        }
+
+        long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (duration > slowThreshold)
+        {
+            logger.warning("Eagerly creating " + bean + " took " + duration + " ms");
+        }
+        else if (logger.isLoggable(Level.FINE))
+        {
+            logger.fine("Eagerly created " + bean + " in " + duration + " ms");
+        }
+    }
+}
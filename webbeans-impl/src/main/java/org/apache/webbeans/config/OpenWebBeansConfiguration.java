@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -180,6 +181,14 @@ public class OpenWebBeansConfiguration
      */
     public static final String IGNORED_EXTENSIONS = "org.apache.webbeans.ignoredExtensions";
 
+    /**
+     * A comma-separated list of fully qualified class names of CDI Extensions
+     * whose ProcessAnnotatedType observers are thread safe.
+     * If at least one such Extension is configured, the ProcessAnnotatedType events of the scanned classes
+     * get fired concurrently. Observers of all other Extensions still never get invoked concurrently.
+     */
+    public static final String CONCURRENT_PAT_EXTENSIONS = "org.apache.webbeans.concurrentProcessAnnotatedTypeExtensions";
+
     /**
      * A boolean to enable CDI 1.1 behavior to not scan "extension JARs".
      * "extensions JARs" are JARs, without a beans.xml but with CDI extensions.
@@ -210,6 +219,104 @@ public class OpenWebBeansConfiguration
      */
     public static final String GENERATOR_JAVA_VERSION = "org.apache.webbeans.generator.javaVersion";
 
+    /**
+     * If {@code true} then the proxy classes of all normal-scoped beans will get generated
+     * in parallel right after the AfterDeploymentValidation event.
+     * By default they get generated lazily on the first getReference of the bean.
+     */
+    public static final String PROXY_EAGER_GENERATION = "org.apache.webbeans.proxy.eagerGeneration";
+
+    /**
+     * A directory in which the bytecode of generated proxy classes gets stored.
+     * On subsequent boots the proxy classes will get defined from those bytes
+     * without running the bytecode generator again.
+     * If not set then no proxy bytecode gets cached.
+     */
+    public static final String PROXY_CACHE_DIRECTORY = "org.apache.webbeans.proxy.cacheDirectory";
+
+    /**
+     * A directory into which all generated proxy classes get written using the regular class file layout.
+     * Proxy class names are deterministic, thus proxies which got written at build time and packaged
+     * with the application simply get loaded instead of generated at runtime. The names contain the
+     * OpenWebBeans release and the generator configuration, so proxies of another release are not used.
+     * This is mainly used to generate the proxies ahead of time.
+     */
+    public static final String PROXY_OUTPUT_DIRECTORY = "org.apache.webbeans.proxy.outputDirectory";
+
+    /**
+     * If set to {@code true} then intercepted beans without decorators get instantiated
+     * as generated subclasses which dispatch to the interceptor chain themselves
+     * instead of getting wrapped in a separate delegating proxy instance.
+     * Please note that in this mode invocations of intercepted methods on {@code this}
+     * also get intercepted and the class of the InvocationContext target is the generated subclass.
+     * Serializable beans always use the delegating proxy.
+     */
+    public static final String PROXY_SUBCLASS_INTERCEPTION = "org.apache.webbeans.proxy.subclassInterception";
+
+    /**
+     * If set to {@code true} then the interceptor instances of an intercepted bean
+     * do not get created together with the bean instance but only when the first
+     * interceptor chain which needs them gets invoked.
+     */
+    public static final String LAZY_INTERCEPTOR_INSTANCES = "org.apache.webbeans.intercept.lazyInstances";
+
+    /**
+     * A comma-separated list of fully qualified class names of stateless interceptors.
+     * Instead of a new instance per intercepted bean instance, only a single instance of
+     * those interceptors gets created and shared for the whole application.
+     * Shared interceptors must not inject the InjectionPoint or the &#064;Intercepted Bean.
+     */
+    public static final String SHARED_INTERCEPTORS = "org.apache.webbeans.intercept.sharedInstances";
+
+    /**
+     * A directory in which OpenWebBeans records the fingerprints of successfully validated deployments.
+     * If a deployment with the same classes, beans, beans.xml content and configuration gets booted
+     * again, then the injection point, name and decorator validation gets skipped.
+     * If not set then the deployment always gets fully validated.
+     */
+    public static final String VALIDATION_CACHE_DIRECTORY = "org.apache.webbeans.validation.cacheDirectory";
+
+    /**
+     * If set to {@code true} then a deployment always gets fully validated,
+     * even if it got validated successfully before.
+     * @see #VALIDATION_CACHE_DIRECTORY
+     */
+    public static final String VALIDATION_FORCE = "org.apache.webbeans.validation.force";
+
+    /**
+     * A file in which OpenWebBeans stores the result of the classpath scanning.
+     * If the configuration, the scanned bean archives and the result of the conditional beans.xml
+     * scan excludes did not change since the image got written, then the bean classes get taken from the image and the bytecode scanning gets skipped.
+     * Combined with {@link #PROXY_CACHE_DIRECTORY} and {@link #VALIDATION_CACHE_DIRECTORY}
+     * this considerably shortens the start of short-living processes.
+     * If not set then the classpath always gets scanned.
+     */
+    public static final String BOOT_IMAGE_FILE = "org.apache.webbeans.scanner.bootImage";
+
+    /**
+     * If set to {@code true} then all &#064;ApplicationScoped beans get created right after the
+     * AfterDeploymentValidation event instead of lazily on their first use.
+     * Beans annotated with {@link org.apache.webbeans.annotation.Eager} always get created eagerly.
+     */
+    public static final String EAGER_INITIALIZATION = "org.apache.webbeans.application.eagerInitialization";
+
+    /**
+     * The maximum number of threads which create the eager beans in parallel.
+     * Defaults to the number of available processors.
+     */
+    public static final String EAGER_INITIALIZATION_PARALLELISM = "org.apache.webbeans.application.eagerInitialization.parallelism";
+
+    /**
+     * The time in milliseconds after which the creation of a single eager bean gets logged as slow.
+     */
+    public static final String EAGER_INITIALIZATION_SLOW_THRESHOLD = "org.apache.webbeans.application.eagerInitialization.slowThreshold";
+
+    /**
+     * The time in milliseconds the eager initialization of all beans may take before the deployment fails.
+     * {@code 0} means no limit.
+     */
+    public static final String EAGER_INITIALIZATION_TIMEOUT = "org.apache.webbeans.application.eagerInitialization.timeout";
+
 
     /**Default configuration files*/
     private static final String DEFAULT_CONFIG_PROPERTIES_NAME = "META-INF/openwebbeans/openwebbeans.properties";
@@ -233,6 +340,16 @@ public class OpenWebBeansConfiguration
      */
     private Set<String> ignoredExtensions;
 
+    /**
+     * @see #CONCURRENT_PAT_EXTENSIONS
+     */
+    private Set<String> concurrentPatExtensions;
+
+    /**
+     * @see #SHARED_INTERCEPTORS
+     */
+    private Set<String> sharedInterceptors;
+
     /**
      * @see #SCAN_EXTENSION_JARS
      */
@@ -463,6 +580,27 @@ public class OpenWebBeansConfiguration
         return ignoredExtensions;
     }
 
+    public synchronized Set<String> getConcurrentPatExtensions()
+    {
+        if (concurrentPatExtensions == null)
+        {
+            concurrentPatExtensions = getPropertyList(CONCURRENT_PAT_EXTENSIONS);
+        }
+        return concurrentPatExtensions;
+    }
+
+    /**
+     * @see #SHARED_INTERCEPTORS
+     */
+    public synchronized Set<String> getSharedInterceptors()
+    {
+        if (sharedInterceptors == null)
+        {
+            sharedInterceptors = getPropertyList(SHARED_INTERCEPTORS);
+        }
+        return sharedInterceptors;
+    }
+
     public synchronized boolean getScanExtensionJars()
     {
         if (scanExtensionJars == null)
@@ -561,4 +699,155 @@ public class OpenWebBeansConfiguration
 
         return generatorJavaVersion;
     }
+
+    /**
+     * @see #PROXY_EAGER_GENERATION
+     */
+    public boolean isEagerProxyGeneration()
+    {
+        return "true".equalsIgnoreCase(getProperty(PROXY_EAGER_GENERATION));
+    }
+
+    /**
+     * @see #PROXY_CACHE_DIRECTORY
+     * @return the configured proxy bytecode cache directory or {@code null}
+     */
+    public String getProxyCacheDirectory()
+    {
+        String directory = getProperty(PROXY_CACHE_DIRECTORY);
+        if (directory == null || directory.trim().isEmpty())
+        {
+            return null;
+        }
+        return directory.trim();
+    }
+
+    /**
+     * @see #PROXY_OUTPUT_DIRECTORY
+     * @return the configured proxy output directory or {@code null}
+     */
+    public String getProxyOutputDirectory()
+    {
+        String directory = getProperty(PROXY_OUTPUT_DIRECTORY);
+        if (directory == null || directory.trim().isEmpty())
+        {
+            return null;
+        }
+        return directory.trim();
+    }
+
+    /**
+     * @see #PROXY_SUBCLASS_INTERCEPTION
+     */
+    public boolean isSubclassInterception()
+    {
+        return "true".equalsIgnoreCase(getProperty(PROXY_SUBCLASS_INTERCEPTION));
+    }
+
+    /**
+     * @see #VALIDATION_CACHE_DIRECTORY
+     * @return the configured validation cache directory or {@code null}
+     */
+    public String getValidationCacheDirectory()
+    {
+        String directory = getProperty(VALIDATION_CACHE_DIRECTORY);
+        if (directory == null || directory.trim().isEmpty())
+        {
+            return null;
+        }
+        return directory.trim();
+    }
+
+    /**
+     * @see #VALIDATION_FORCE
+     */
+    public boolean isForceValidation()
+    {
+        return "true".equalsIgnoreCase(getProperty(VALIDATION_FORCE));
+    }
+
+    /**
+     * @see #BOOT_IMAGE_FILE
+     * @return the configured boot image file or {@code null}
+     */
+    public String getBootImageFile()
+    {
+        String file = getProperty(BOOT_IMAGE_FILE);
+        if (file == null || file.trim().isEmpty())
+        {
+            return null;
+        }
+        return file.trim();
+    }
+
+    /**
+     * @see #EAGER_INITIALIZATION
+     */
+    public boolean isEagerInitialization()
+    {
+        return "true".equalsIgnoreCase(getProperty(EAGER_INITIALIZATION));
+    }
+
+    /**
+     * @see #EAGER_INITIALIZATION_PARALLELISM
+     */
+    public int getEagerInitializationParallelism()
+    {
+        int parallelism = getIntProperty(EAGER_INITIALIZATION_PARALLELISM, 0);
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @see #EAGER_INITIALIZATION_SLOW_THRESHOLD
+     */
+    public long getEagerInitializationSlowThreshold()
+    {
+        return getIntProperty(EAGER_INITIALIZATION_SLOW_THRESHOLD, 1000);
+    }
+
+    /**
+     * @see #EAGER_INITIALIZATION_TIMEOUT
+     */
+    public long getEagerInitializationTimeout()
+    {
+        return getIntProperty(EAGER_INITIALIZATION_TIMEOUT, 0);
+    }
+
+    private int getIntProperty(String key, int defaultValue)
+    {
+        String value = getProperty(key);
+        if (value == null || value.trim().isEmpty())
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException e)
+        {
+            throw new WebBeansConfigurationException("Invalid value '" + value + "' for " + key, e);
+        }
+    }
+
+    /**
+     * @return all configured properties, sorted by key
+     */
+    public synchronized Map<String, String> getSortedProperties()
+    {
+        Map<String, String> properties = new TreeMap<>();
+        for (String key : configProperties.stringPropertyNames())
+        {
+            properties.put(key, configProperties.getProperty(key));
+        }
+        return properties;
+    }
+
+    /**
+     * @see #LAZY_INTERCEPTOR_INSTANCES
+     */
+    public boolean isLazyInterceptorInstances()
+    {
+        return "true".equalsIgnoreCase(getProperty(LAZY_INTERCEPTOR_INSTANCES));
+    }
 }
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigInteger;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.enterprise.inject.spi.AnnotatedParameter;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.InjectionPoint;
+import javax.enterprise.inject.spi.ObserverMethod;
+
+import org.apache.webbeans.component.OwbBean;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.BeanArchiveService;
+import org.apache.webbeans.spi.BeanArchiveService.BeanArchiveInformation;
+import org.apache.webbeans.util.ClassUtil;
+
+/**
+ * Records the fingerprints of deployments which got validated successfully.
+ *
+ * The fingerprint is a hash over the configuration, the beans.xml content of all bean archives,
+ * all beans with their injection points, all observer methods and the bytecode of their
+ * classes including all superclasses.
+ * Thus any change of the deployment simply results in a new fingerprint.
+ *
+ * @see OpenWebBeansConfiguration#VALIDATION_CACHE_DIRECTORY
+ */
+public class ValidationCache
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(ValidationCache.class);
+
+    private final File directory;
+
+    public ValidationCache(File directory)
+    {
+        this.directory = directory;
+    }
+
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * @return the fingerprint of the current deployment or {@code null} if the
+     *         bytecode of a class cannot be read and thus the validation must not get cached.
+     */
+    public String createFingerprint(WebBeansContext webBeansContext)
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            return null;
+        }
+
+        for (Map.Entry<String, String> property : webBeansContext.getOpenWebBeansConfiguration().getSortedProperties().entrySet())
+        {
+            update(digest, property.getKey());
+            update(digest, property.getValue());
+        }
+
+        BeanArchiveService beanArchiveService = webBeansContext.getBeanArchiveService();
+        Set<String> beanArchives = new TreeSet<>();
+        for (URL beanArchiveUrl : beanArchiveService.getRegisteredBeanArchives())
+        {
+            beanArchives.add(describe(beanArchiveService.getBeanArchiveInformation(beanArchiveUrl)));
+        }
+        update(digest, beanArchives);
+
+        Map<String, Class<?>> classes = new TreeMap<>();
+        Set<String> beans = new TreeSet<>();
+        for (Bean<?> bean : webBeansContext.getBeanManagerImpl().getBeans())
+        {
+            addHierarchy(classes, bean.getBeanClass());
+            beans.add(describe(bean));
+        }
+        update(digest, beans);
+
+        Set<String> observers = new TreeSet<>();
+        for (ObserverMethod<?> observerMethod : webBeansContext.getNotificationManager().getObserverMethods())
+        {
+            addHierarchy(classes, observerMethod.getBeanClass());
+            observers.add(observerMethod.getBeanClass().getName() + '|' + observerMethod.getObservedType()
+                + '|' + sorted(observerMethod.getObservedQualifiers()) + '|' + observerMethod.getReception()
+                + '|' + observerMethod.getTransactionPhase() + '|' + observerMethod.isAsync());
+        }
+        update(digest, observers);
+
+        for (Class<?> clazz : classes.values())
+        {
+            byte[] classBytes = ClassUtil.readClassBytes(clazz);
+            if (classBytes == null)
+            {
+                logger.fine("Cannot read the bytecode of " + clazz.getName() + ", the deployment will get fully validated");
+                return null;
+            }
+            update(digest, clazz.getName());
+            digest.update(classBytes);
+        }
+
+        return new BigInteger(1, digest.digest()).toString(16);
+    }
+
+    /**
+     * @return {@code true} if the deployment with the given fingerprint got validated successfully before
+     */
+    public boolean isValidated(String fingerprint)
+    {
+        return getFile(fingerprint).isFile();
+    }
+
+    public void markValidated(String fingerprint)
+    {
+        File file = getFile(fingerprint);
+        try
+        {
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory())
+            {
+                throw new IOException("Cannot create directory " + directory);
+            }
+
+            // write to a temporary file first so concurrent boots never see partial content
+            Path tmp = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+            Files.write(tmp, fingerprint.getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.log(Level.WARNING, "Cannot record the validated deployment in " + file, e);
+        }
+    }
+
+    private File getFile(String fingerprint)
+    {
+        return new File(directory, fingerprint + ".validated");
+    }
+
+    /**
+     * Adds the class and all its superclasses, as inherited injection points,
+     * observer methods and lifecycle callbacks belong to the bean as well.
+     */
+    private static void addHierarchy(Map<String, Class<?>> classes, Class<?> clazz)
+    {
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass())
+        {
+            if (classes.put(current.getName(), current) != null)
+            {
+                // the rest of the hierarchy got added already
+                return;
+            }
+        }
+    }
+
+    private static String describe(BeanArchiveInformation info)
+    {
+        return info.getBdaUrl() + '|' + info.getVersion() + '|' + info.getBeanDiscoveryMode()
+            + '|' + info.getInterceptors() + '|' + info.getDecorators()
+            + '|' + info.getAlternativeClasses() + '|' + info.getAlternativeStereotypes()
+            + '|' + info.getExcludedClasses() + '|' + info.getExcludedPackages()
+            + '|' + info.getAllowProxyingClasses();
+    }
+
+    private static String describe(Bean<?> bean)
+    {
+        Set<String> types = new TreeSet<>();
+        for (Type type : bean.getTypes())
+        {
+            types.add(type.getTypeName());
+        }
+
+        boolean enabled = !(bean instanceof OwbBean) || ((OwbBean<?>) bean).isEnabled();
+        return bean.getClass().getName() + '|' + bean.getBeanClass().getName() + '|' + types
+            + '|' + sorted(bean.getQualifiers()) + '|' + bean.getScope().getName() + '|' + bean.getName()
+            + '|' + sorted(bean.getStereotypes()) + '|' + bean.isAlternative() + '|' + enabled
+            + '|' + describe(bean.getInjectionPoints());
+    }
+
+    private static Set<String> describe(Set<InjectionPoint> injectionPoints)
+    {
+        Set<String> described = new TreeSet<>();
+        for (InjectionPoint injectionPoint : injectionPoints)
+        {
+            int position = injectionPoint.getAnnotated() instanceof AnnotatedParameter
+                ? ((AnnotatedParameter<?>) injectionPoint.getAnnotated()).getPosition()
+                : -1;
+            described.add(injectionPoint.getMember() + "#" + position + '|' + injectionPoint.getType().getTypeName()
+                + '|' + sorted(injectionPoint.getQualifiers()) + '|' + injectionPoint.isDelegate()
+                + '|' + injectionPoint.isTransient());
+        }
+        return described;
+    }
+
+    private static Set<String> sorted(Collection<?> values)
+    {
+        Set<String> sorted = new TreeSet<>();
+        for (Object value : values)
+        {
+            sorted.add(value instanceof Class ? ((Class<?>) value).getName() : String.valueOf(value));
+        }
+        return sorted;
+    }
+
+    private static void update(MessageDigest digest, Collection<String> values)
+    {
+        update(digest, Integer.toString(values.size()));
+        for (String value : values)
+        {
+            update(digest, value);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value)
+    {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+}
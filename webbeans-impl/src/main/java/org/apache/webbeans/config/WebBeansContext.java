@@ -22,8 +22,11 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -55,16 +58,20 @@ import org.apache.webbeans.plugins.PluginLoader;
 import org.apache.webbeans.portable.AnnotatedElementFactory;
 import org.apache.webbeans.portable.events.ExtensionLoader;
 import org.apache.webbeans.proxy.SubclassProxyFactory;
+import org.apache.webbeans.proxy.InterceptedSubclassProxyFactory;
 import org.apache.webbeans.proxy.InterceptorDecoratorProxyFactory;
 import org.apache.webbeans.proxy.NormalScopeProxyFactory;
 import org.apache.webbeans.service.DefaultInjectionPointService;
 import org.apache.webbeans.service.DefaultLoaderService;
+import org.apache.webbeans.service.DefaultPassivationCodec;
 import org.apache.webbeans.spi.BeanArchiveService;
 import org.apache.webbeans.spi.ApplicationBoundaryService;
+import org.apache.webbeans.spi.CheckpointAware;
 import org.apache.webbeans.spi.ContextsService;
 import org.apache.webbeans.spi.ConversationService;
 import org.apache.webbeans.spi.LoaderService;
 import org.apache.webbeans.spi.ScannerService;
+import org.apache.webbeans.spi.PassivationCodec;
 import org.apache.webbeans.spi.SecurityService;
 import org.apache.webbeans.spi.plugins.OpenWebBeansPlugin;
 import org.apache.webbeans.util.ClassUtil;
@@ -96,6 +103,7 @@ public class WebBeansContext
     private final InterceptorDecoratorProxyFactory interceptorDecoratorProxyFactory;
     private final NormalScopeProxyFactory normalScopeProxyFactory;
     private final SubclassProxyFactory subclassProxyFactory;
+    private final InterceptedSubclassProxyFactory interceptedSubclassProxyFactory;
     private final OpenWebBeansConfiguration openWebBeansConfiguration;
     private final PluginLoader pluginLoader = new PluginLoader();
     private final SerializableBeanVault serializableBeanVault = new SerializableBeanVault();
@@ -112,6 +120,7 @@ public class WebBeansContext
     private ContextsService contextsService;
     private final ConversationManager conversationManager;
     private ConversationService conversationService;
+    private PassivationCodec passivationCodec;
     private final ApplicationBoundaryService applicationBoundaryService;
     private final NotificationManager notificationManager;
 
@@ -165,6 +174,7 @@ public class WebBeansContext
         interceptorDecoratorProxyFactory = new InterceptorDecoratorProxyFactory(this);
         normalScopeProxyFactory = new NormalScopeProxyFactory(this);
         subclassProxyFactory = new SubclassProxyFactory(this);
+        interceptedSubclassProxyFactory = new InterceptedSubclassProxyFactory(this);
 
         beanArchiveService = getService(BeanArchiveService.class);
         conversationManager = new ConversationManager(this);
@@ -342,6 +352,11 @@ public class WebBeansContext
         return subclassProxyFactory;
     }
 
+    public InterceptedSubclassProxyFactory getInterceptedSubclassProxyFactory()
+    {
+        return interceptedSubclassProxyFactory;
+    }
+
     public ScannerService getScannerService()
     {
         if (scannerService == null)
@@ -386,6 +401,17 @@ public class WebBeansContext
         return conversationService;
     }
 
+    public PassivationCodec getPassivationCodec()
+    {
+        if (passivationCodec == null)
+        {
+            PassivationCodec codec = getService(PassivationCodec.class);
+            passivationCodec = codec != null ? codec : new DefaultPassivationCodec();
+        }
+
+        return passivationCodec;
+    }
+
 
     private Object get(String singletonName)
     {
@@ -418,6 +444,10 @@ public class WebBeansContext
         {
             return new DefaultConversationService();
         }
+        if (DefaultPassivationCodec.class.getName().equals(singletonName))
+        {
+            return new DefaultPassivationCodec();
+        }
 
         // Load class by reflection
         Class<?> clazz = ClassUtil.getClassFromName(singletonName);
@@ -504,6 +534,10 @@ public class WebBeansContext
         {
             return clazz.cast(subclassProxyFactory);
         }
+        if (clazz == InterceptedSubclassProxyFactory.class)
+        {
+            return clazz.cast(interceptedSubclassProxyFactory);
+        }
         if (clazz == OpenWebBeansConfiguration.class)
         {
             return clazz.cast(openWebBeansConfiguration);
@@ -562,6 +596,10 @@ public class WebBeansContext
         {
             return clazz.cast(new DefaultConversationService());
         }
+        if (DefaultPassivationCodec.class == clazz)
+        {
+            return clazz.cast(new DefaultPassivationCodec());
+        }
 
         // try by reflection for extensions
         try
@@ -602,6 +640,54 @@ public class WebBeansContext
         }
     }
 
+    /**
+     * Prepares all managers, plugins and SPI services for a checkpoint of the JVM.
+     * @see CheckpointAware
+     */
+    public void beforeCheckpoint()
+    {
+        for (CheckpointAware checkpointAware : getCheckpointAwares())
+        {
+            checkpointAware.beforeCheckpoint();
+        }
+    }
+
+    /**
+     * Re-initializes all managers, plugins and SPI services after the JVM
+     * got restored from a checkpoint. They get invoked in reverse order.
+     * @see CheckpointAware
+     */
+    public void afterRestore()
+    {
+        List<CheckpointAware> checkpointAwares = getCheckpointAwares();
+        Collections.reverse(checkpointAwares);
+        for (CheckpointAware checkpointAware : checkpointAwares)
+        {
+            checkpointAware.afterRestore();
+        }
+    }
+
+    private List<CheckpointAware> getCheckpointAwares()
+    {
+        Map<Object, Boolean> seen = new IdentityHashMap<>();
+        List<CheckpointAware> checkpointAwares = new ArrayList<>();
+
+        List<Object> candidates = new ArrayList<>();
+        candidates.add(notificationManager);
+        candidates.add(conversationManager);
+        candidates.add(pluginLoader);
+        candidates.addAll(managerMap.values());
+        candidates.addAll(serviceMap.values());
+        for (Object candidate : candidates)
+        {
+            if (candidate instanceof CheckpointAware && seen.put(candidate, Boolean.TRUE) == null)
+            {
+                checkpointAwares.add((CheckpointAware) candidate);
+            }
+        }
+        return checkpointAwares;
+    }
+
     /**
      * Clear and destroy the whole WebBeansContext.
      * This will also properly destroy all SPI services
@@ -98,6 +98,7 @@ import org.apache.webbeans.portable.LazyInterceptorDefinedInjectionTarget;
 import org.apache.webbeans.portable.events.discovery.ErrorStack;
 import org.apache.webbeans.portable.events.generics.GProcessInjectionPoint;
 import org.apache.webbeans.portable.events.generics.GProcessInjectionTarget;
+import org.apache.webbeans.proxy.NormalScopeProxyFactory;
 import org.apache.webbeans.spi.adaptor.ELAdaptor;
 import org.apache.webbeans.spi.plugins.OpenWebBeansEjbPlugin;
 import org.apache.webbeans.util.AnnotationUtil;
@@ -212,10 +213,10 @@ public class BeanManagerImpl implements BeanManager, Referenceable
     /**
      * we cache results of calls to {@link #isNormalScope(Class)} because
      * this doesn't change at runtime.
-     * We don't need to take special care about classloader
-     * hierarchies, because each cl has other classes.
+     * The cache is per BeanManager, as it also contains the additional scopes
+     * of this application. Thus it gets dropped together with the application.
      */
-    private static Map<Class<? extends Annotation>, Boolean> isScopeTypeNormalCache =
+    private final Map<Class<? extends Annotation>, Boolean> isScopeTypeNormalCache =
         new ConcurrentHashMap<>();
 
     /**
@@ -783,17 +784,7 @@ public class BeanManagerImpl implements BeanManager, Referenceable
                 return instance;
             }
 
-            instance = cacheProxies.get(bean);
-
-            if (instance == null)
-            {
-                //Create Managed Bean Proxy
-                instance = webBeansContext.getNormalScopeProxyFactory().createNormalScopeProxy(bean);
-
-                //Cached instance
-                cacheProxies.put(bean, instance);
-            }
-
+            instance = getNormalScopeProxy(bean);
         }
         //Create Pseudo-Scope Bean Instance
         else
@@ -1474,6 +1465,7 @@ public class BeanManagerImpl implements BeanManager, Referenceable
         errorStack.clear();
         producersForJavaEeComponents.clear();
         passivationBeans.clear();
+        webBeansContext.getInterceptorResolutionService().clear();
         webBeansContext.getInterceptorsManager().clear();
         webBeansContext.getDecoratorsManager().clear();
         webBeansContext.getAnnotatedElementFactory().clear();
@@ -1485,8 +1477,29 @@ public class BeanManagerImpl implements BeanManager, Referenceable
         webBeansContext.clear();
     }
 
+    /**
+     * @return the shared normal-scoped proxy of the given bean. It gets created on first access.
+     */
+    public Object getNormalScopeProxy(Bean<?> bean)
+    {
+        Object instance = cacheProxies.get(bean);
+
+        if (instance == null)
+        {
+            //Create Managed Bean Proxy
+            instance = webBeansContext.getNormalScopeProxyFactory().createNormalScopeProxy(bean);
+
+            //Cached instance
+            cacheProxies.put(bean, instance);
+        }
+
+        return instance;
+    }
+
     public void clearCacheProxies()
     {
+        // the proxies might still be referenced, e.g. by injection points of other beans
+        cacheProxies.values().forEach(NormalScopeProxyFactory::resetCachedInstance);
         cacheProxies.clear();
     }
 
@@ -19,17 +19,24 @@
 package org.apache.webbeans.context;
 
 import javax.enterprise.context.spi.Contextual;
+import javax.enterprise.context.spi.CreationalContext;
 import java.io.Externalizable;
 import java.io.IOException;
 import java.io.NotSerializableException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
 import java.lang.annotation.Annotation;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.container.BeanManagerImpl;
 import org.apache.webbeans.context.creational.BeanInstanceBag;
+import org.apache.webbeans.context.creational.CreationalContextImpl;
+import org.apache.webbeans.context.creational.DependentCreationalContext;
+import org.apache.webbeans.spi.PassivationCodec;
 import org.apache.webbeans.util.WebBeansUtil;
 
 /**
@@ -38,6 +45,11 @@ import org.apache.webbeans.util.WebBeansUtil;
  */
 public abstract class PassivatingContext extends AbstractContext implements Externalizable
 {
+    /**
+     * Marks the stream format written by {@link #writeExternal(ObjectOutput)}.
+     * Streams of older releases contain a Map of BeanInstanceBags at this position instead.
+     */
+    private static final Integer FORMAT_VERSION = 2;
 
     public PassivatingContext(Class<? extends Annotation> scopeType)
     {
@@ -48,43 +60,132 @@ public abstract class PassivatingContext extends AbstractContext implements Exte
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException
     {
         WebBeansContext webBeansContext = WebBeansContext.currentInstance();
+        BeanManagerImpl beanManager = webBeansContext.getBeanManagerImpl();
+        PassivationCodec codec = webBeansContext.getPassivationCodec();
 
         scopeType = (Class<? extends Annotation>) in.readObject();
-        Map<String, BeanInstanceBag<?>> map = (Map<String, BeanInstanceBag<?>>)in.readObject();
         setComponentInstanceMap();
-        for (Map.Entry<String, BeanInstanceBag<?>> beanBagEntry : map.entrySet())
+
+        Object format = in.readObject();
+        if (format instanceof Map)
         {
-            String id = beanBagEntry.getKey();
-            if (id != null)
+            // written by a release before the PassivationCodec got introduced
+            readLegacyBags((Map<String, BeanInstanceBag<?>>) format, beanManager);
+            return;
+        }
+        if (!FORMAT_VERSION.equals(format))
+        {
+            throw new StreamCorruptedException("Unsupported passivation format " + format);
+        }
+
+        int bagCount = in.readInt();
+        for (int i = 0; i < bagCount; i++)
+        {
+            // beans which do not exist anymore get skipped
+            Contextual<Object> contextual = (Contextual<Object>) beanManager.getPassivationCapableBean(in.readUTF());
+            Object instance = codec.readInstance(in);
+
+            CreationalContext<Object> creationalContext;
+            int dependentCount = in.readInt();
+            if (dependentCount < 0)
             {
-                Contextual<?> contextual = webBeansContext.getBeanManagerImpl().getPassivationCapableBean(id);
-                if (contextual != null)
+                creationalContext = (CreationalContext<Object>) codec.readInstance(in);
+            }
+            else
+            {
+                CreationalContextImpl<Object> creationalContextImpl = contextual != null
+                        ? webBeansContext.getCreationalContextFactory().getCreationalContext(contextual) : null;
+                for (int j = 0; j < dependentCount; j++)
                 {
-                    componentInstanceMap.put(contextual, beanBagEntry.getValue());
+                    boolean hasContextual = in.readBoolean();
+                    Contextual<?> dependent = hasContextual ? beanManager.getPassivationCapableBean(in.readUTF()) : null;
+                    Object dependentInstance = codec.readInstance(in);
+                    if (creationalContextImpl != null && (dependent != null || !hasContextual))
+                    {
+                        creationalContextImpl.addDependent(dependent, dependentInstance);
+                    }
                 }
+                creationalContext = creationalContextImpl;
+            }
+
+            if (contextual != null)
+            {
+                componentInstanceMap.put(contextual, new BeanInstanceBag<>(creationalContext, instance));
             }
         }
     }
 
+    /**
+     * Writes the passivation id of each bean together with its contextual instance and
+     * dependent instances. The instances themselves get written by the {@link PassivationCodec}.
+     */
     @Override
     public void writeExternal(ObjectOutput out) throws IOException
     {
+        PassivationCodec codec = WebBeansContext.currentInstance().getPassivationCodec();
+
         out.writeObject(scopeType);
-        Map<String, BeanInstanceBag<?>> map = new HashMap<>(componentInstanceMap.size());
+        out.writeObject(FORMAT_VERSION);
 
-        for (Map.Entry<Contextual<?>, BeanInstanceBag<?>> beanBagEntry : componentInstanceMap.entrySet())
+        List<Map.Entry<Contextual<?>, BeanInstanceBag<?>>> entries = new ArrayList<>(componentInstanceMap.entrySet());
+        out.writeInt(entries.size());
+        for (Map.Entry<Contextual<?>, BeanInstanceBag<?>> beanBagEntry : entries)
         {
-            Contextual<?> contextual = beanBagEntry.getKey();
+            out.writeUTF(getPassivationId(beanBagEntry.getKey()));
+
+            BeanInstanceBag<?> bag = beanBagEntry.getValue();
+            codec.writeInstance(out, bag.getBeanInstance());
 
-            String id = WebBeansUtil.getPassivationId(contextual);
-            if (id == null)
+            CreationalContext<?> creationalContext = bag.getBeanCreationalContext();
+            if (creationalContext instanceof CreationalContextImpl)
             {
-                throw new NotSerializableException("cannot serialize " + contextual.toString());
+                List<DependentCreationalContext<?>> dependents = ((CreationalContextImpl<?>) creationalContext).getDependentObjects();
+                out.writeInt(dependents.size());
+                for (DependentCreationalContext<?> dependent : dependents)
+                {
+                    // like DependentCreationalContext#writeObject a missing contextual stays null
+                    Contextual<?> dependentContextual = dependent.getContextual();
+                    out.writeBoolean(dependentContextual != null);
+                    if (dependentContextual != null)
+                    {
+                        out.writeUTF(getPassivationId(dependentContextual));
+                    }
+                    codec.writeInstance(out, dependent.getInstance());
+                }
+            }
+            else
+            {
+                // a custom CreationalContext, we cannot look into it
+                out.writeInt(-1);
+                codec.writeInstance(out, creationalContext);
+            }
+        }
+    }
+
+    private void readLegacyBags(Map<String, BeanInstanceBag<?>> map, BeanManagerImpl beanManager)
+    {
+        for (Map.Entry<String, BeanInstanceBag<?>> beanBagEntry : map.entrySet())
+        {
+            String id = beanBagEntry.getKey();
+            if (id != null)
+            {
+                Contextual<?> contextual = beanManager.getPassivationCapableBean(id);
+                if (contextual != null)
+                {
+                    componentInstanceMap.put(contextual, beanBagEntry.getValue());
+                }
             }
-            map.put(id, beanBagEntry.getValue());
         }
+    }
 
-        out.writeObject(map);
+    private static String getPassivationId(Contextual<?> contextual) throws NotSerializableException
+    {
+        String id = WebBeansUtil.getPassivationId(contextual);
+        if (id == null)
+        {
+            throw new NotSerializableException("cannot serialize " + contextual);
+        }
+        return id;
     }
 
 }
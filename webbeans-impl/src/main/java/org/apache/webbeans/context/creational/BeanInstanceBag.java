@@ -43,6 +43,16 @@ public class BeanInstanceBag<T> implements Serializable
         this.beanCreationalContext = beanCreationalContext;
     }
 
+    /**
+     * Used to restore a bag of an already existing contextual instance,
+     * e.g. after deserialisation of a passivating context.
+     */
+    public BeanInstanceBag(CreationalContext<T> beanCreationalContext, T beanInstance)
+    {
+        this.beanCreationalContext = beanCreationalContext;
+        this.beanInstance = beanInstance;
+    }
+
     /**
      * @return the beanCreationalContext
      */
@@ -32,6 +32,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -82,6 +83,12 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, Serializa
      */
     private boolean destroying;
 
+    /**
+     * Set once all dependents got destroyed. Dependents which get added afterwards
+     * would never get destroyed anymore.
+     */
+    private volatile boolean released;
+
     /**
      * Package private
      */
@@ -231,6 +238,21 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, Serializa
         }
     }
 
+    /**
+     * @return a snapshot of all dependent instances of this CreationalContext
+     */
+    public List<DependentCreationalContext<?>> getDependentObjects()
+    {
+        synchronized (this)
+        {
+            if (dependentObjects == null)
+            {
+                return Collections.emptyList();
+            }
+            return new ArrayList<>(dependentObjects);
+        }
+    }
+
     public <X> void destroyDependent(X instance)
     {
         if (dependentObjects == null)
@@ -260,8 +282,13 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, Serializa
     @SuppressWarnings("unchecked")
     public void removeAllDependents()
     {
-        if (dependentObjects == null || destroying)
+        if (destroying)
+        {
+            return;
+        }
+        if (dependentObjects == null)
         {
+            released = true;
             return;
         }
         
@@ -288,6 +315,8 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, Serializa
                     throw new WebBeansException("infinite loop detected while destroying bean " + bean);
                 }
             }
+
+            released = true;
         }
 
         dependentObjects = null;
@@ -302,6 +331,14 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, Serializa
         removeAllDependents();
     }
     
+    /**
+     * @return {@code true} if the dependents of this CreationalContext already got destroyed
+     */
+    public boolean isReleased()
+    {
+        return released;
+    }
+
     public Bean<T> getBean()
     {
         return bean;
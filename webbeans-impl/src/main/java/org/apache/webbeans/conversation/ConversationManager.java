@@ -41,6 +41,7 @@ import org.apache.webbeans.context.ConversationContext;
 import org.apache.webbeans.context.RequestContext;
 import org.apache.webbeans.context.creational.CreationalContextImpl;
 import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.CheckpointAware;
 import org.apache.webbeans.spi.ConversationService;
 import org.apache.webbeans.util.Asserts;
 
@@ -52,7 +53,7 @@ import org.apache.webbeans.util.Asserts;
  * @version $Rev$ $Date$
  *
  */
-public class ConversationManager
+public class ConversationManager implements CheckpointAware
 {
     private static final Logger logger = WebBeansLoggerFacade.getLogger(ConversationManager.class);
 
@@ -60,6 +61,12 @@ public class ConversationManager
     private final WebBeansContext webBeansContext;
     private final Bean<Set<ConversationContext>> conversationStorageBean;
 
+    /**
+     * The time the JVM got restored from a checkpoint.
+     * Conversations which got accessed before start their timeout from this point in time.
+     */
+    private volatile long restoreTime;
+
     /**
      * Creates new conversation manager
      */
@@ -189,7 +196,8 @@ public class ConversationManager
             return false;
         }
 
-        if (timeout != 0L && (System.currentTimeMillis() - conv.getLastAccessTime()) > timeout)
+        long lastAccessTime = Math.max(conv.getLastAccessTime(), restoreTime);
+        if (timeout != 0L && (System.currentTimeMillis() - lastAccessTime) > timeout)
         {
             logger.log(Level.FINE, OWBLogConst.INFO_0011, conv.getId());
             return true;
@@ -198,6 +206,22 @@ public class ConversationManager
         return false;
     }
 
+    @Override
+    public void beforeCheckpoint()
+    {
+        // nothing to release
+    }
+
+    /**
+     * The wall clock time spent between checkpoint and restore must not
+     * let the conversations time out, thus their timeouts get re-initialized.
+     */
+    @Override
+    public void afterRestore()
+    {
+        restoreTime = System.currentTimeMillis();
+    }
+
     /**
      * Destroy the given ConversationContext and fire the proper
      * &#064;Destroyed event with the correct payload.
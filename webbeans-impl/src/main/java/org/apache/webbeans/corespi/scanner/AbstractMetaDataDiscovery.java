@@ -35,6 +35,7 @@ import org.apache.webbeans.spi.BeanArchiveService.BeanDiscoveryMode;
 import org.apache.webbeans.util.ClassUtil;
 import org.apache.webbeans.util.UrlSet;
 import org.apache.webbeans.util.WebBeansUtil;
+import org.apache.webbeans.xml.DefaultBeanArchiveService;
 import org.apache.xbean.finder.AnnotationFinder;
 import org.apache.xbean.finder.ClassLoaders;
 import org.apache.xbean.finder.archive.Archive;
@@ -43,11 +44,11 @@ import org.apache.xbean.finder.util.Files;
 
 import javax.decorator.Decorator;
 import javax.interceptor.Interceptor;
+import java.io.File;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.net.URL;
 import java.util.Collections;
-import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -91,6 +92,18 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
      */
     private Map<BeanArchiveService.BeanArchiveInformation, Set<Class<?>>> beanClassesPerBda;
 
+    /**
+     * The boot image and the fingerprint of the current deployment,
+     * {@code null} if no boot image is configured.
+     */
+    private BootImage bootImage;
+    private String bootImageFingerprint;
+
+    /**
+     * The bean class names per bean deployment URL if they got restored from the boot image.
+     */
+    private Map<String, List<String>> restoredClassNames;
+
     protected String[] scanningExcludes;
 
     protected ClassLoader loader;
@@ -167,7 +180,10 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
         try
         {
             configure();
-            initFinder();
+            if (!restoreBootImage())
+            {
+                initFinder();
+            }
         }
         catch (Exception e)
         {
@@ -177,6 +193,40 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
 
     protected abstract void configure();
 
+    /**
+     * Takes the bean classes from the configured boot image if the deployment did not change.
+     *
+     * @return {@code true} if the bean classes got restored and thus no scanning is needed
+     * @see OpenWebBeansConfiguration#BOOT_IMAGE_FILE
+     */
+    protected boolean restoreBootImage()
+    {
+        String bootImageFile = webBeansContext().getOpenWebBeansConfiguration().getBootImageFile();
+        if (bootImageFile == null)
+        {
+            return false;
+        }
+
+        bootImage = new BootImage(new File(bootImageFile));
+        bootImageFingerprint = bootImage.createFingerprint(webBeansContext().getOpenWebBeansConfiguration(),
+                getBeanArchiveService(), getBeanDeploymentUrls(), getAdditionalArchive());
+        if (bootImageFingerprint == null)
+        {
+            bootImage = null;
+            return false;
+        }
+
+        restoredClassNames = bootImage.load(bootImageFingerprint);
+        if (restoredClassNames == null)
+        {
+            logger.fine("No matching boot image found in " + bootImageFile + ", scanning the classpath");
+            return false;
+        }
+
+        logger.fine("Restored the bean classes from the boot image " + bootImageFile);
+        return true;
+    }
+
     /**
      * Since CDI-1.1 this is actually more a 'findBdaBases' as it also
      * picks up jars without marker file.
@@ -202,10 +252,14 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
             Set<URL> classPathUrls = ClassLoaders.findUrls(loader);
 
             // first step: get all META-INF/beans.xml marker files
-            Enumeration<URL> beansXmlUrls = loader.getResources(META_INF_BEANS_XML);
-            while (beansXmlUrls.hasMoreElements())
+            List<URL> beansXmlUrls = Collections.list(loader.getResources(META_INF_BEANS_XML));
+            if (beansXmlUrls.size() > 1 && getBeanArchiveService() instanceof DefaultBeanArchiveService)
+            {
+                ((DefaultBeanArchiveService) getBeanArchiveService()).parseBeansXmls(beansXmlUrls);
+            }
+
+            for (URL beansXmlUrl : beansXmlUrls)
             {
-                URL beansXmlUrl = beansXmlUrls.nextElement();
                 addWebBeansXmlLocation(beansXmlUrl);
 
                 // second step: remove the corresponding classpath entry if we found an explicit beans.xml
@@ -315,6 +369,10 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
         finder = null;
         archive = null;
         loader = null;
+        beanClassesPerBda = null;
+        restoredClassNames = null;
+        bootImage = null;
+        bootImageFingerprint = null;
     }
 
 
@@ -383,14 +441,17 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
         beanArchiveLocations.add(beanArchiveUrl);
 
         // and also scan the bean archive!
+        // just to trigger the creation
+        getBeanArchiveService().getBeanArchiveInformation(beanArchiveUrl);
+    }
+
+    private BeanArchiveService getBeanArchiveService()
+    {
         if (beanArchiveService == null)
         {
-
             beanArchiveService = webBeansContext().getBeanArchiveService();
         }
-
-        // just to trigger the creation
-        beanArchiveService.getBeanArchiveInformation(beanArchiveUrl);
+        return beanArchiveService;
     }
 
 
@@ -402,7 +463,19 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
     {
         if (beanClassesPerBda == null)
         {
+            if (restoredClassNames != null)
+            {
+                beanClassesPerBda = restoreBeanClassesPerBda();
+                return beanClassesPerBda;
+            }
+            if (archive == null)
+            {
+                // released already or not scanned yet
+                return Collections.emptyMap();
+            }
+
             beanClassesPerBda = new HashMap<>();
+            Map<String, Set<String>> classNamesPerUrl = bootImage == null ? null : new HashMap<>();
 
             for (CdiArchive.FoundClasses foundClasses : archive.classesByUrl().values())
             {
@@ -410,52 +483,91 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
                 boolean scanModeAnnotated = BeanDiscoveryMode.ANNOTATED == foundClasses.getBeanArchiveInfo().getBeanDiscoveryMode();
                 for (String className : foundClasses.getClassNames())
                 {
-                    try
+                    if (scanModeAnnotated)
                     {
-                        if (scanModeAnnotated)
+                        // in this case we need to find out whether we should keep this class in the Archive
+                        AnnotationFinder.ClassInfo classInfo = finder.getClassInfo(className);
+                        if (classInfo == null || !isBeanAnnotatedClass(classInfo))
                         {
-                            // in this case we need to find out whether we should keep this class in the Archive
-                            AnnotationFinder.ClassInfo classInfo = finder.getClassInfo(className);
-                            if (classInfo == null || !isBeanAnnotatedClass(classInfo))
-                            {
-                                continue;
-                            }
+                            continue;
                         }
+                    }
 
-                        Class<?> clazz = ClassUtil.getClassFromName(className);
-                        if (clazz != null)
-                        {
-                            // try to provoke a NoClassDefFoundError exception which is thrown
-                            // if some dependencies of the class are missing
-                            clazz.getDeclaredFields();
+                    loadBeanClass(className, classSet);
+                }
 
-                            // we can add this class cause it has been loaded completely
-                            classSet.add(clazz);
-                        }
-                    }
-                    catch (NoClassDefFoundError e)
+                beanClassesPerBda.put(foundClasses.getBeanArchiveInfo(), classSet);
+                if (classNamesPerUrl != null)
+                {
+                    Set<String> classNames = new HashSet<>();
+                    for (Class<?> clazz : classSet)
                     {
-                        if (isAnonymous(className))
-                        {
-                            if (logger.isLoggable(Level.FINE))
-                            {
-                                logger.log(Level.FINE, OWBLogConst.WARN_0018, new Object[]{className, e.toString()});
-                            }
-                        }
-                        else if (logger.isLoggable(Level.WARNING))
-                        {
-                            logger.log(Level.WARNING, OWBLogConst.WARN_0018, new Object[]{className, e.toString()});
-                        }
+                        classNames.add(clazz.getName());
                     }
+                    classNamesPerUrl.put(foundClasses.getUrl().toExternalForm(), classNames);
                 }
-
-                beanClassesPerBda.put(foundClasses.getBeanArchiveInfo(), classSet);
             }
 
+            if (classNamesPerUrl != null && bootImageFingerprint != null)
+            {
+                bootImage.store(bootImageFingerprint, classNamesPerUrl);
+            }
         }
         return beanClassesPerBda;
     }
 
+    private Map<BeanArchiveService.BeanArchiveInformation, Set<Class<?>>> restoreBeanClassesPerBda()
+    {
+        Map<BeanArchiveService.BeanArchiveInformation, Set<Class<?>>> restored = new HashMap<>();
+        for (URL url : getBeanDeploymentUrls().values())
+        {
+            List<String> classNames = restoredClassNames.get(url.toExternalForm());
+            if (classNames == null)
+            {
+                continue;
+            }
+
+            Set<Class<?>> classSet = new HashSet<>();
+            for (String className : classNames)
+            {
+                loadBeanClass(className, classSet);
+            }
+            restored.put(getBeanArchiveService().getBeanArchiveInformation(url), classSet);
+        }
+        return restored;
+    }
+
+    private void loadBeanClass(String className, Set<Class<?>> classSet)
+    {
+        try
+        {
+            Class<?> clazz = ClassUtil.getClassFromName(className);
+            if (clazz != null)
+            {
+                // try to provoke a NoClassDefFoundError exception which is thrown
+                // if some dependencies of the class are missing
+                clazz.getDeclaredFields();
+
+                // we can add this class cause it has been loaded completely
+                classSet.add(clazz);
+            }
+        }
+        catch (NoClassDefFoundError e)
+        {
+            if (isAnonymous(className))
+            {
+                if (logger.isLoggable(Level.FINE))
+                {
+                    logger.log(Level.FINE, OWBLogConst.WARN_0018, new Object[]{className, e.toString()});
+                }
+            }
+            else if (logger.isLoggable(Level.WARNING))
+            {
+                logger.log(Level.WARNING, OWBLogConst.WARN_0018, new Object[]{className, e.toString()});
+            }
+        }
+    }
+
     private boolean isAnonymous(final String className)
     {
         final int start = className.lastIndexOf('$');
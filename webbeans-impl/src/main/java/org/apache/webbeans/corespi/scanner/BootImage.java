@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.scanner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.BeanArchiveService;
+import org.apache.webbeans.spi.BeanArchiveService.BeanArchiveInformation;
+import org.apache.xbean.finder.archive.Archive;
+
+/**
+ * Stores the result of the classpath scanning in a file.
+ *
+ * The image contains the names of the bean classes per bean archive plus a fingerprint
+ * over the configuration, the bean archive URLs and the size and modification time of
+ * all files in those archives. The fingerprint also covers the evaluated scan excludes of
+ * each beans.xml, because their conditions depend on system properties and on the
+ * classes which are available outside the bean archives. If the fingerprint of a later boot still matches, then
+ * the bean classes get taken from the image and the bytecode scanning gets skipped.
+ * Any change of the deployment simply results in a new scan.
+ *
+ * @see OpenWebBeansConfiguration#BOOT_IMAGE_FILE
+ */
+public class BootImage
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(BootImage.class);
+
+    private static final int VERSION = 1;
+
+    private final File file;
+
+    public BootImage(File file)
+    {
+        this.file = file;
+    }
+
+    public File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * @param beanArchiveService provides the evaluated scan excludes of each bean archive
+     * @param beanDeploymentUrls the classpath entries which get scanned
+     * @param additionalArchive the programmatically added classes, might be {@code null}
+     * @return the fingerprint of the current deployment or {@code null} if it cannot be computed,
+     *         e.g. because a bean deployment URL is neither a file: nor a jar:file: URL
+     */
+    public String createFingerprint(OpenWebBeansConfiguration configuration, BeanArchiveService beanArchiveService,
+                                    Map<String, URL> beanDeploymentUrls, Archive additionalArchive)
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            return null;
+        }
+
+        for (Map.Entry<String, String> property : configuration.getSortedProperties().entrySet())
+        {
+            update(digest, property.getKey());
+            update(digest, property.getValue());
+        }
+
+        try
+        {
+            for (String beanDeploymentUrl : new TreeSet<>(beanDeploymentUrls.keySet()))
+            {
+                update(digest, beanDeploymentUrl);
+                URL url = beanDeploymentUrls.get(beanDeploymentUrl);
+                update(digest, url.toExternalForm());
+                if ("file".equals(url.getProtocol()))
+                {
+                    updateFile(digest, org.apache.xbean.finder.util.Files.toFile(url).toPath());
+                }
+                else if ("jar".equals(url.getProtocol()) && url.getPath().startsWith("file:"))
+                {
+                    String path = url.getPath();
+                    int separator = path.indexOf("!/");
+                    URL jarUrl = new URL(separator < 0 ? path : path.substring(0, separator));
+                    updateFile(digest, org.apache.xbean.finder.util.Files.toFile(jarUrl).toPath());
+                }
+                else
+                {
+                    // e.g. vfs:, wsjar: or bundle: - a changed content would not change the fingerprint
+                    logger.fine("Cannot fingerprint the content of " + url + ", the boot image will not be used");
+                    return null;
+                }
+
+                // the result of the <if-system-property>, <if-class-available> and <if-class-not-available> conditions
+                BeanArchiveInformation beanArchiveInformation = beanArchiveService.getBeanArchiveInformation(url);
+                update(digest, String.valueOf(beanArchiveInformation.getBeanDiscoveryMode()));
+                update(digest, new TreeSet<>(nullToEmpty(beanArchiveInformation.getExcludedClasses())));
+                update(digest, new TreeSet<>(nullToEmpty(beanArchiveInformation.getExcludedPackages())));
+            }
+
+            if (additionalArchive != null)
+            {
+                TreeMap<String, Archive.Entry> entries = new TreeMap<>();
+                for (Archive.Entry entry : additionalArchive)
+                {
+                    entries.put(entry.getName(), entry);
+                }
+                update(digest, Integer.toString(entries.size()));
+                for (Archive.Entry entry : entries.values())
+                {
+                    update(digest, entry.getName());
+                    updateContent(digest, entry);
+                }
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.log(Level.FINE, "Cannot fingerprint the deployment, the boot image will not be used", e);
+            return null;
+        }
+
+        return new BigInteger(1, digest.digest()).toString(16);
+    }
+
+    /**
+     * @return the bean class names per bean deployment URL or {@code null}
+     *         if there is no image for the given fingerprint
+     */
+    public Map<String, List<String>> load(String fingerprint)
+    {
+        if (!file.isFile())
+        {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath()))))
+        {
+            if (in.readInt() != VERSION || !fingerprint.equals(in.readUTF()))
+            {
+                return null;
+            }
+
+            int archives = in.readInt();
+            Map<String, List<String>> classNamesPerUrl = new HashMap<>();
+            for (int i = 0; i < archives; i++)
+            {
+                String url = in.readUTF();
+                int classCount = in.readInt();
+                List<String> classNames = new ArrayList<>(classCount);
+                for (int j = 0; j < classCount; j++)
+                {
+                    classNames.add(in.readUTF());
+                }
+                classNamesPerUrl.put(url, classNames);
+            }
+            return classNamesPerUrl;
+        }
+        catch (IOException e)
+        {
+            logger.log(Level.FINE, "Cannot read boot image " + file, e);
+            return null;
+        }
+    }
+
+    public void store(String fingerprint, Map<String, ? extends Collection<String>> classNamesPerUrl)
+    {
+        try
+        {
+            File directory = file.getAbsoluteFile().getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory())
+            {
+                throw new IOException("Cannot create directory " + directory);
+            }
+
+            // write to a temporary file first so concurrent boots never see partial content
+            Path tmp = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+            try (OutputStream os = Files.newOutputStream(tmp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os)))
+            {
+                out.writeInt(VERSION);
+                out.writeUTF(fingerprint);
+                out.writeInt(classNamesPerUrl.size());
+                for (Map.Entry<String, ? extends Collection<String>> entry : classNamesPerUrl.entrySet())
+                {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().size());
+                    for (String className : entry.getValue())
+                    {
+                        out.writeUTF(className);
+                    }
+                }
+            }
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.log(Level.WARNING, "Cannot store boot image " + file, e);
+        }
+    }
+
+    private static void updateFile(MessageDigest digest, Path path) throws IOException
+    {
+        if (Files.isDirectory(path))
+        {
+            TreeSet<String> entries = new TreeSet<>();
+            try (Stream<Path> files = Files.walk(path))
+            {
+                files.filter(Files::isRegularFile).forEach(it ->
+                {
+                    File entry = it.toFile();
+                    entries.add(path.relativize(it) + "|" + entry.length() + '|' + entry.lastModified());
+                });
+            }
+            update(digest, entries);
+        }
+        else
+        {
+            File entry = path.toFile();
+            update(digest, entry.length() + "|" + entry.lastModified());
+        }
+    }
+
+    private static void updateContent(MessageDigest digest, Archive.Entry entry) throws IOException
+    {
+        try (InputStream in = entry.getBytecode())
+        {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) >= 0)
+            {
+                digest.update(buffer, 0, read);
+            }
+        }
+        digest.update((byte) 0);
+    }
+
+    private static Collection<String> nullToEmpty(Collection<String> values)
+    {
+        return values != null ? values : Collections.<String>emptyList();
+    }
+
+    private static void update(MessageDigest digest, Collection<String> values)
+    {
+        update(digest, Integer.toString(values.size()));
+        for (String value : values)
+        {
+            update(digest, value);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value)
+    {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+}
@@ -222,6 +222,34 @@ public abstract class BaseSeContextsService extends AbstractContextsService
         destroyGlobalContexts();
     }
 
+    /**
+     * Ends the request, conversation and session contexts which are still bound
+     * to the current thread and removes all ThreadLocals of this thread.
+     */
+    @Override
+    public void removeThreadLocals()
+    {
+        if (requestContext.get() != null)
+        {
+            stopRequestContext();
+        }
+        if (conversationContext.get() != null)
+        {
+            stopConversationContext();
+        }
+        if (sessionContext.get() != null)
+        {
+            stopSessionContext();
+        }
+
+        requestContext.remove();
+        sessionContext.remove();
+        conversationContext.remove();
+        dependentContext.remove();
+        RequestScopedBeanInterceptorHandler.removeThreadLocals();
+        SessionScopedBeanInterceptorHandler.removeThreadLocals();
+    }
+
     protected void destroyGlobalContexts()
     {
         if (applicationContext != null)
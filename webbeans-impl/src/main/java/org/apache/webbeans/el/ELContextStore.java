@@ -38,9 +38,12 @@ import javax.enterprise.inject.spi.Bean;
  *   Store the Contextual Reference for each name per request thread. This is a performance
  *   tuning strategy, because creating a {@link org.apache.webbeans.intercept.NormalScopedBeanInterceptorHandler}
  *   for each and every EL call is very expensive. This needs to be cleaned up with
- *   {@link #destroyELContextStore()} at the end of each request. 
+ *   {@link #endRequest()} at the end of each request.
  *  </li>
  * </ol>
+ *
+ * <p>All maps get created lazily. Thus expressions which only resolve
+ * normal-scoped beans or no beans at all do not allocate anything.</p>
  */
 public final class ELContextStore
 {
@@ -66,8 +69,8 @@ public final class ELContextStore
     /**
      * The same Expression must get same instances of &#064;Dependent beans
      */
-    private Map<Bean<?>, CreationalStore<?>> dependentObjects = new HashMap<>();
-    private Map<String, Bean<?>> beanNameToDependentBeanMapping = new HashMap<>();
+    private Map<Bean<?>, CreationalStore<?>> dependentObjects;
+    private Map<String, Bean<?>> beanNameToDependentBeanMapping;
 
     /**
      * Cache for resolved proxies of &#064;NormalScoped beans. This heavily speeds up pages with
@@ -75,15 +78,36 @@ public final class ELContextStore
      * property. If we wouldn't cache this, every EL call would create a new proxy and
      * drops it after the EL.
      */
-    private Map<String, Object> normalScopedObjects = new HashMap<>();
+    private Map<String, Object> normalScopedObjects;
+
+    /**
+     * Removes the ELContextStore of the current thread, if any.
+     * This is the hook which has to be called at the end of each request.
+     */
+    public static void endRequest()
+    {
+        ELContextStore store = contextStores.get();
+        if (store != null)
+        {
+            store.destroyELContextStore();
+        }
+    }
 
     public Object findBeanByName(String name)
     {
-        Object cachedBean = normalScopedObjects.get(name);
+        if (normalScopedObjects != null)
+        {
+            Object cachedBean = normalScopedObjects.get(name);
 
-        if(cachedBean != null)
+            if(cachedBean != null)
+            {
+                return cachedBean;
+            }
+        }
+
+        if (beanNameToDependentBeanMapping == null)
         {
-            return cachedBean;
+            return null;
         }
 
         Bean<?> dependentBean = beanNameToDependentBeanMapping.get(name);
@@ -148,6 +172,12 @@ public final class ELContextStore
      */
     public void addDependent(Bean<?> bean, Object dependent, CreationalContext<?> creationalContext)
     {
+        if (dependentObjects == null)
+        {
+            // only created once a @Dependent bean got resolved and then reused for the whole request
+            dependentObjects = new HashMap<>();
+            beanNameToDependentBeanMapping = new HashMap<>();
+        }
         dependentObjects.put(bean, new CreationalStore(dependent, creationalContext));
         beanNameToDependentBeanMapping.put(bean.getName(), bean);
     }
@@ -159,6 +189,11 @@ public final class ELContextStore
      */
     public Object getDependent(Bean<?> bean)
     {
+        if (dependentObjects == null)
+        {
+            return null;
+        }
+
         CreationalStore sc = dependentObjects.get(bean);
 
         return sc != null ? sc.getObject() : null;
@@ -170,6 +205,10 @@ public final class ELContextStore
      */
     public void addNormalScoped(String beanName, Object contextualInstance)
     {
+        if (normalScopedObjects == null)
+        {
+            normalScopedObjects = new HashMap<>();
+        }
         normalScopedObjects.put(beanName, contextualInstance);
     }
 
@@ -179,7 +218,7 @@ public final class ELContextStore
      */
     public void destroyDependents()
     {
-        if (dependentObjects.size() > 0)
+        if (dependentObjects != null && !dependentObjects.isEmpty())
         {
             for (Map.Entry<Bean<?>, CreationalStore<?>> storeEntry : dependentObjects.entrySet())
             {
@@ -188,18 +227,20 @@ public final class ELContextStore
                 contextual.destroy(store.getObject(), store.getCreational());
             }
             dependentObjects.clear();
+            beanNameToDependentBeanMapping.clear();
         }
-        beanNameToDependentBeanMapping.clear();
     }
 
     /**
-     * This needs to be called at the end of each request.
-     * Because after the request ends, a server might reuse
-     * the Thread to serve other requests (from other WebApps) 
+     * This needs to be called when the application stops.
+     * Because a server might reuse the Thread to serve other
+     * requests (from other WebApps)
      */
     public void destroyELContextStore()
     {
-        normalScopedObjects.clear();
+        dependentObjects = null;
+        beanNameToDependentBeanMapping = null;
+        normalScopedObjects = null;
         contextStores.set(null);
         contextStores.remove();
     }
@@ -45,6 +45,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -75,6 +76,7 @@ import org.apache.webbeans.portable.events.generics.GProcessObserverMethod;
 import org.apache.webbeans.portable.events.generics.GenericBeanEvent;
 import org.apache.webbeans.portable.events.generics.GenericProducerObserverEvent;
 import org.apache.webbeans.portable.events.generics.TwoParametersGenericBeanEvent;
+import org.apache.webbeans.spi.CheckpointAware;
 import org.apache.webbeans.spi.TransactionService;
 import org.apache.webbeans.util.AnnotationUtil;
 import org.apache.webbeans.util.Asserts;
@@ -82,8 +84,10 @@ import org.apache.webbeans.util.ClassUtil;
 import org.apache.webbeans.util.GenericsUtil;
 import org.apache.webbeans.util.WebBeansUtil;
 
-public final class NotificationManager
+public final class NotificationManager implements CheckpointAware
 {
+    private static final long CHECKPOINT_DRAIN_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
     private final Map<Type, Set<ObserverMethod<?>>> observers = new ConcurrentHashMap<>();
     private final WebBeansContext webBeansContext;
 
@@ -101,6 +105,25 @@ public final class NotificationManager
     private final ConcurrentHashMap<Class<?>, Set<ObserverMethod<?>>> observersByRawType
         = new ConcurrentHashMap<>();
 
+    /**
+     * Extensions whose ProcessAnnotatedType observers may get invoked concurrently.
+     * @see org.apache.webbeans.config.OpenWebBeansConfiguration#CONCURRENT_PAT_EXTENSIONS
+     */
+    private final Set<String> concurrentPatExtensions;
+
+    /**
+     * Locks which ensure that the ProcessAnnotatedType observers of all other Extensions
+     * never get invoked concurrently.
+     */
+    private final ConcurrentMap<Class<?>, Object> extensionLocks = new ConcurrentHashMap<>();
+
+    /**
+     * The TransactionService gets looked up once on the first transactional observer.
+     * {@code transactionServiceLoaded} guards it as the service might be {@code null}.
+     */
+    private volatile TransactionService transactionService;
+    private volatile boolean transactionServiceLoaded;
+
     // this is actually faster than a lambda Comparator.comparingInt(ObserverMethod::getPriority)
     private Comparator<? super ObserverMethod<? super Object>> observerMethodComparator
         = new Comparator<ObserverMethod<? super Object>>()
@@ -116,6 +139,7 @@ public final class NotificationManager
     {
         this.webBeansContext = webBeansContext;
         this.defaultNotificationOptions = NotificationOptions.ofExecutor(getDefaultExecutor());
+        this.concurrentPatExtensions = webBeansContext.getOpenWebBeansConfiguration().getConcurrentPatExtensions();
     }
 
     private Executor getDefaultExecutor()
@@ -128,6 +152,16 @@ public final class NotificationManager
         return service != null ? service : new CloseableExecutor();
     }
 
+    private TransactionService getTransactionService()
+    {
+        if (!transactionServiceLoaded)
+        {
+            transactionService = webBeansContext.getService(TransactionService.class);
+            transactionServiceLoaded = true;
+        }
+        return transactionService;
+    }
+
     /**
      * This methods needs to get called after the container got started.
      * This is to avoid that events which already got fired during bootstrap in Extensions
@@ -637,6 +671,31 @@ public final class NotificationManager
         return defaultNotificationOptions;
     }
 
+    /**
+     * Waits for all running asynchronous observers of the default executor
+     * and rejects new asynchronous events until {@link #afterRestore()}.
+     */
+    @Override
+    public void beforeCheckpoint()
+    {
+        Executor executor = defaultNotificationOptions.getExecutor();
+        if (executor instanceof CloseableExecutor && !((CloseableExecutor) executor).drain(CHECKPOINT_DRAIN_TIMEOUT))
+        {
+            WebBeansLoggerFacade.getLogger(NotificationManager.class)
+                .warning("Asynchronous observers are still running while taking the checkpoint");
+        }
+    }
+
+    @Override
+    public void afterRestore()
+    {
+        Executor executor = defaultNotificationOptions.getExecutor();
+        if (executor instanceof CloseableExecutor)
+        {
+            ((CloseableExecutor) executor).resume();
+        }
+    }
+
     /**
      * Fire the given event
      * @param notificationOptions if {@code null} then this is a synchronous event. Otherwise fireAsync
@@ -694,10 +753,10 @@ public final class NotificationManager
                         throw new WebBeansConfigurationException("Async Observer Methods can only use TransactionPhase.IN_PROGRESS!");
                     }
 
-                    TransactionService transactionService = webBeansContext.getService(TransactionService.class);
+                    TransactionService transactionService = getTransactionService();
                     if(transactionService != null)
                     {
-                        transactionService.registerTransactionSynchronization(phase, observer, event);
+                        transactionService.registerTransactionSynchronization(phase, observer, event, metadata);
                     }
                     else
                     {
@@ -710,6 +769,14 @@ public final class NotificationManager
                     {
                         completableFutures.add(invokeObserverMethodAsync(event, metadata, observer, notificationOptions));
                     }
+                    else if (isLifecycleEvent && event instanceof ProcessAnnotatedType && needsExtensionLock(observer))
+                    {
+                        // ProcessAnnotatedType might get fired from multiple threads, see BeansDeployer
+                        synchronized (extensionLocks.computeIfAbsent(observer.getBeanClass(), k -> new Object()))
+                        {
+                            invokeObserverMethod(event, metadata, observer);
+                        }
+                    }
                     else
                     {
                         invokeObserverMethod(event, metadata, observer);
@@ -814,6 +881,22 @@ public final class NotificationManager
         }
     }
 
+    /**
+     * @return whether ProcessAnnotatedType events get fired concurrently but the given observer is not thread safe
+     */
+    private boolean needsExtensionLock(ObserverMethod<?> observer)
+    {
+        return !concurrentPatExtensions.isEmpty() && !concurrentPatExtensions.contains(observer.getBeanClass().getName());
+    }
+
+    /**
+     * @return whether ProcessAnnotatedType events of the scanned classes may get fired concurrently
+     */
+    public boolean isConcurrentProcessAnnotatedType()
+    {
+        return !concurrentPatExtensions.isEmpty();
+    }
+
     private <T> void invokeObserverMethod(T event, EventMetadataImpl metadata, ObserverMethod<?> observer)
     {
         observer.notify(new EventContextImpl(event, metadata));
@@ -917,10 +1000,12 @@ public final class NotificationManager
     {
         private final Collection<Runnable> tracker = new CopyOnWriteArrayList<>();
         private volatile boolean reject;
+        private volatile boolean closed;
 
         @Override
         public void close() throws IOException
         {
+            closed = true;
             reject = true;
             tracker.forEach(r -> {
                 try
@@ -952,8 +1037,45 @@ public final class NotificationManager
                 finally
                 {
                     tracker.remove(command);
+                    synchronized (tracker)
+                    {
+                        tracker.notifyAll();
+                    }
                 }
             });
         }
+
+        /**
+         * Rejects new tasks and waits until the running ones are done.
+         * @return {@code false} if there are still running tasks after the timeout
+         */
+        private boolean drain(long timeoutMillis)
+        {
+            reject = true;
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            synchronized (tracker)
+            {
+                long remaining = timeoutMillis;
+                while (!tracker.isEmpty() && remaining > 0)
+                {
+                    try
+                    {
+                        tracker.wait(remaining);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                        return tracker.isEmpty();
+                    }
+                    remaining = deadline - System.currentTimeMillis();
+                }
+                return tracker.isEmpty();
+            }
+        }
+
+        private void resume()
+        {
+            reject = closed;
+        }
     }
 }
@@ -46,7 +46,7 @@ public class ApplicationScopedBeanInterceptorHandler extends NormalScopedBeanInt
      * contextual instances because they could be injected into EJBs or other
      * shared instances which span over multiple web-apps.
      */
-    private transient Object cachedInstance;
+    private transient volatile Object cachedInstance;
 
 
     public ApplicationScopedBeanInterceptorHandler(BeanManager beanManager, Bean<?> bean)
@@ -60,12 +60,22 @@ public class ApplicationScopedBeanInterceptorHandler extends NormalScopedBeanInt
     @Override
     protected Object getContextualInstance()
     {
-        if (cachedInstance == null) 
+        Object instance = cachedInstance;
+        if (instance == null)
         {
-            cachedInstance = super.getContextualInstance();
+            instance = super.getContextualInstance();
+            cachedInstance = instance;
         }
-        
-        return cachedInstance;
+
+        return instance;
+    }
+
+    /**
+     * Drops the cached instance, e.g. after the ApplicationContext got destroyed.
+     */
+    public void resetCachedInstance()
+    {
+        cachedInstance = null;
     }
 
 }
@@ -39,9 +39,9 @@ import java.io.NotSerializableException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.ObjectStreamException;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -128,13 +128,21 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
         try
         {
             List<Interceptor<?>> methodInterceptors = interceptors.get(method);
-            if (methodInterceptors == null)
+            if (methodInterceptors == null || methodInterceptors.isEmpty())
             {
-                methodInterceptors = Collections.emptyList();
+                // only decorated, no need for an InvocationContext
+                return invokeDelegate(method, parameters);
             }
 
-            InterceptorInvocationContext<T> ctx
-                = new InterceptorInvocationContext<T>(new InstanceProvider(delegate), InterceptionType.AROUND_INVOKE, methodInterceptors, instances, method, parameters);
+            AbstractInvocationContext<T> ctx;
+            if (methodInterceptors.size() == 1 && methodInterceptors.get(0).intercepts(InterceptionType.AROUND_INVOKE))
+            {
+                ctx = new SingleInterceptorInvocationContext<T>(new InstanceProvider(delegate), methodInterceptors.get(0), instances, method, parameters);
+            }
+            else
+            {
+                ctx = new InterceptorInvocationContext<T>(new InstanceProvider(delegate), InterceptionType.AROUND_INVOKE, methodInterceptors, instances, method, parameters);
+            }
 
             return ctx.proceed();
         }
@@ -144,6 +152,23 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
         }
     }
 
+    private Object invokeDelegate(Method method, Object[] parameters) throws Exception
+    {
+        if (!method.isAccessible())
+        {
+            method.setAccessible(true);
+        }
+        try
+        {
+            return method.invoke(delegate, parameters);
+        }
+        catch (InvocationTargetException ite)
+        {
+            // unpack the reflection Exception
+            throw ExceptionUtil.throwAsRuntimeException(ite.getCause());
+        }
+    }
+
     /**
      * The following code gets generated into the proxy:
      *
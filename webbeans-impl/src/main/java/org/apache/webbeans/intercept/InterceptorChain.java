@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.intercept;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.enterprise.inject.spi.Interceptor;
+
+/**
+ * An immutable interceptor chain which gets shared by all methods and beans with the same interceptors.
+ * The invocation contexts directly work on the backing array.
+ */
+final class InterceptorChain extends AbstractList<Interceptor<?>> implements RandomAccess
+{
+    static final Interceptor<?>[] NO_INTERCEPTORS = new Interceptor<?>[0];
+
+    private final Interceptor<?>[] interceptors;
+
+    InterceptorChain(List<Interceptor<?>> interceptors)
+    {
+        this.interceptors = interceptors.toArray(new Interceptor<?>[interceptors.size()]);
+    }
+
+    @Override
+    public Interceptor<?> get(int index)
+    {
+        return interceptors[index];
+    }
+
+    @Override
+    public int size()
+    {
+        return interceptors.length;
+    }
+
+    /**
+     * @return the backing array which must not get modified!
+     */
+    Interceptor<?>[] getInterceptors()
+    {
+        return interceptors;
+    }
+
+    /**
+     * @return the interceptors of the given list as array, without copying them for shared chains
+     */
+    static Interceptor<?>[] toArray(List<Interceptor<?>> interceptors)
+    {
+        if (interceptors instanceof InterceptorChain)
+        {
+            return ((InterceptorChain) interceptors).interceptors;
+        }
+        if (interceptors == null || interceptors.isEmpty())
+        {
+            return NO_INTERCEPTORS;
+        }
+        return interceptors.toArray(new Interceptor<?>[interceptors.size()]);
+    }
+}
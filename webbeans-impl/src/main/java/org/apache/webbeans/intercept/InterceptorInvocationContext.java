@@ -36,6 +36,11 @@ public class InterceptorInvocationContext<T> extends AbstractInvocationContext<T
     protected List<Interceptor<?>> interceptors;
     protected Map<Interceptor<?>, ?> instances;
     protected int index;
+
+    /**
+     * The {@link #interceptors} as array, for an {@link InterceptorChain} this is its backing array.
+     */
+    private final Interceptor<?>[] interceptorChain;
     
     public InterceptorInvocationContext(Provider<T> provider, InterceptionType type,
                                         List<Interceptor<?>> interceptors, Map<Interceptor<?>, ?> instances,
@@ -44,22 +49,24 @@ public class InterceptorInvocationContext<T> extends AbstractInvocationContext<T
         super(provider, method, parameters);
         this.type = type;
         this.interceptors = interceptors;
+        this.interceptorChain = InterceptorChain.toArray(interceptors);
         this.instances = instances;
     }
 
     @Override
     public Object proceed() throws Exception
     {
-        if (index < interceptors.size())
+        // skip interceptors which do not intercept this type
+        // this e.g. happens for lifecycle interceptors
+        while (index < interceptorChain.length && !interceptorChain[index].intercepts(type))
         {
-            Interceptor interceptor = interceptors.get(index++);
-            if (!interceptor.intercepts(type))
-            {
-                // continue with next interceptor
-                // this e.g. happens for lifecycle interceptors
-                return proceed();
-            }
+            index++;
+        }
 
+        if (index < interceptorChain.length)
+        {
+            int currentIndex = index++;
+            Interceptor interceptor = interceptorChain[currentIndex];
             try
             {
                 return interceptor.intercept(type, instances.get(interceptor), this);
@@ -69,7 +76,7 @@ public class InterceptorInvocationContext<T> extends AbstractInvocationContext<T
                 // restore the original location
                 // this allows for catching an Exception inside an Interceptor
                 // and then try to proceed with the interceptor chain again.
-                index--;
+                index = currentIndex;
                 throw e;
             }
         }
@@ -20,6 +20,7 @@ package org.apache.webbeans.intercept;
 
 import org.apache.webbeans.annotation.AnnotationManager;
 import org.apache.webbeans.component.BeanAttributesImpl;
+import org.apache.webbeans.component.BuiltInOwbBean;
 import org.apache.webbeans.component.SelfInterceptorBean;
 import org.apache.webbeans.component.creation.BeanAttributesBuilder;
 import org.apache.webbeans.component.creation.SelfInterceptorBeanBuilder;
@@ -29,15 +30,19 @@ import org.apache.webbeans.container.BeanManagerImpl;
 import org.apache.webbeans.context.creational.CreationalContextImpl;
 import org.apache.webbeans.exception.WebBeansConfigurationException;
 import org.apache.webbeans.exception.WebBeansDeploymentException;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
 import org.apache.webbeans.portable.AnnotatedElementFactory;
 import org.apache.webbeans.proxy.InterceptorHandler;
+import org.apache.webbeans.proxy.OwbInterceptedSubclass;
 import org.apache.webbeans.util.AnnotationUtil;
 import org.apache.webbeans.util.Asserts;
 import org.apache.webbeans.util.ClassUtil;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import javax.enterprise.context.Dependent;
 import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.Intercepted;
 import javax.enterprise.inject.UnproxyableResolutionException;
 import javax.enterprise.inject.spi.Annotated;
 import javax.enterprise.inject.spi.AnnotatedCallable;
@@ -45,7 +50,9 @@ import javax.enterprise.inject.spi.AnnotatedConstructor;
 import javax.enterprise.inject.spi.AnnotatedMethod;
 import javax.enterprise.inject.spi.AnnotatedParameter;
 import javax.enterprise.inject.spi.AnnotatedType;
+import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.Decorator;
+import javax.enterprise.inject.spi.InjectionPoint;
 import javax.enterprise.inject.spi.InterceptionType;
 import javax.enterprise.inject.spi.Interceptor;
 import javax.inject.Inject;
@@ -61,6 +68,7 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -69,8 +77,11 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.logging.Logger;
 
 /**
  * Class to calculate interceptor resolution information.
@@ -78,6 +89,8 @@ import java.util.function.Function;
  */
 public class InterceptorResolutionService
 {
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(InterceptorResolutionService.class);
+
     private final WebBeansContext webBeansContext;
 
     /**
@@ -86,6 +99,22 @@ public class InterceptorResolutionService
      */
     private volatile Boolean enforceCheckedException;
 
+    private volatile Boolean lazyInterceptorInstances;
+
+    /**
+     * The single instances of stateless interceptors which get shared by all intercepted beans.
+     * @see OpenWebBeansConfiguration#SHARED_INTERCEPTORS
+     */
+    private final ConcurrentMap<Interceptor<?>, SharedInterceptorInstance> sharedInterceptorInstances = new ConcurrentHashMap<>();
+    private volatile Set<String> sharedInterceptorClasses;
+
+    /**
+     * Canonical interceptor chains.
+     * Lots of methods and beans end up with exactly the same interceptors,
+     * so they all share a single immutable chain.
+     */
+    private final ConcurrentMap<List<Interceptor<?>>, List<Interceptor<?>>> interceptorChains = new ConcurrentHashMap<>();
+
 
     public InterceptorResolutionService(WebBeansContext webBeansContext)
     {
@@ -267,6 +296,19 @@ public class InterceptorResolutionService
         return enforceCheckedException;
     }
 
+    /**
+     * @see OpenWebBeansConfiguration#LAZY_INTERCEPTOR_INSTANCES
+     */
+    private boolean isLazyInterceptorInstances()
+    {
+        if (lazyInterceptorInstances == null)
+        {
+            lazyInterceptorInstances = webBeansContext.getOpenWebBeansConfiguration().isLazyInterceptorInstances();
+        }
+
+        return lazyInterceptorInstances;
+    }
+
 
     private <T> void addCdiClassLifecycleInterceptors(AnnotatedType<T> annotatedType,
                                                       Set<Annotation> classInterceptorBindings,
@@ -440,7 +482,7 @@ public class InterceptorResolutionService
 
         if (methodInterceptors.size() > 0)
         {
-            methodInterceptorInfo.setEjbInterceptors(methodInterceptors);
+            methodInterceptorInfo.setEjbInterceptors(internInterceptorArray(methodInterceptors));
         }
     }
 
@@ -649,7 +691,7 @@ public class InterceptorResolutionService
             methodInterceptors = classLevelInterceptors;
         }
 
-        methodInterceptorInfo.setCdiInterceptors(methodInterceptors);
+        methodInterceptorInfo.setCdiInterceptors(internInterceptorArray(methodInterceptors));
     }
 
     /**
@@ -788,7 +830,7 @@ public class InterceptorResolutionService
 
             if (activeInterceptors.size() > 0)
             {
-                methodInterceptors.put(interceptedMethod, activeInterceptors);
+                methodInterceptors.put(interceptedMethod, internInterceptorChain(activeInterceptors));
             }
             else if (mii.getMethodDecorators() != null)
             {
@@ -798,9 +840,136 @@ public class InterceptorResolutionService
         return methodInterceptors;
     }
 
+    /**
+     * Creates a new instance of the given interceptor as dependent of the given CreationalContext
+     * or returns the single shared instance if the interceptor is configured to be stateless.
+     * This changes the current Contextual of the given CreationalContext.
+     */
+    <T> Object createInterceptorInstance(Interceptor<T> interceptor, CreationalContextImpl<?> creationalContext)
+    {
+        if (isSharedInterceptor(interceptor))
+        {
+            SharedInterceptorInstance sharedInstance = sharedInterceptorInstances.get(interceptor);
+            if (sharedInstance == null)
+            {
+                // not created within computeIfAbsent as the interceptor might need other shared interceptors
+                sharedInstance = new SharedInterceptorInstance(interceptor);
+                SharedInterceptorInstance existing = sharedInterceptorInstances.putIfAbsent(interceptor, sharedInstance);
+                if (existing != null)
+                {
+                    sharedInstance.destroy();
+                    sharedInstance = existing;
+                }
+            }
+            return sharedInstance.instance;
+        }
+
+        CreationalContextImpl<T> context = (CreationalContextImpl<T>) creationalContext;
+        context.putContextual(interceptor);
+        return interceptor.create(context);
+    }
+
+    /**
+     * A shared interceptor instance serves all intercepted beans, thus it must not hold
+     * anything which belongs to a single intercepted bean.
+     * Injecting the {@link InjectionPoint} or the {@link Intercepted} Bean is a deployment error.
+     * Injected &#064;Dependent beans get shared as well, which only causes a warning.
+     */
+    public void validateSharedInterceptors(Collection<Interceptor<?>> interceptors)
+    {
+        for (Interceptor<?> interceptor : interceptors)
+        {
+            if (!isSharedInterceptor(interceptor))
+            {
+                continue;
+            }
+
+            for (InjectionPoint injectionPoint : interceptor.getInjectionPoints())
+            {
+                if (InjectionPoint.class.equals(injectionPoint.getType())
+                    || AnnotationUtil.getAnnotation(injectionPoint.getQualifiers(), Intercepted.class) != null)
+                {
+                    throw new WebBeansDeploymentException("Shared interceptor " + interceptor.getBeanClass().getName()
+                        + " must not inject state of the intercepted bean: " + injectionPoint);
+                }
+
+                Bean<?> injectedBean = webBeansContext.getBeanManagerImpl().getInjectionResolver().getInjectionPointBean(injectionPoint);
+                if (injectedBean != null && Dependent.class.equals(injectedBean.getScope()) && !(injectedBean instanceof BuiltInOwbBean))
+                {
+                    logger.warning("Shared interceptor " + interceptor.getBeanClass().getName()
+                        + " injects the @Dependent bean " + injectedBean.getBeanClass().getName()
+                        + ". Its single instance gets shared by all intercepted beans: " + injectionPoint);
+                }
+            }
+        }
+    }
+
+    private boolean isSharedInterceptor(Interceptor<?> interceptor)
+    {
+        Set<String> sharedInterceptors = sharedInterceptorClasses;
+        if (sharedInterceptors == null)
+        {
+            sharedInterceptors = webBeansContext.getOpenWebBeansConfiguration().getSharedInterceptors();
+            sharedInterceptorClasses = sharedInterceptors;
+        }
+        return !sharedInterceptors.isEmpty()
+            && !(interceptor instanceof SelfInterceptorBean)
+            && sharedInterceptors.contains(interceptor.getBeanClass().getName());
+    }
+
+    /**
+     * Destroys the shared instances of stateless interceptors.
+     * This must only be called by the BeanManager.
+     */
+    public void clear()
+    {
+        for (SharedInterceptorInstance sharedInstance : sharedInterceptorInstances.values())
+        {
+            sharedInstance.destroy();
+        }
+        sharedInterceptorInstances.clear();
+        interceptorChains.clear();
+    }
+
+    /**
+     * @return the shared immutable chain with the same interceptors in the same order
+     */
+    public List<Interceptor<?>> internInterceptorChain(List<Interceptor<?>> interceptors)
+    {
+        List<Interceptor<?>> chain = interceptorChains.get(interceptors);
+        if (chain == null)
+        {
+            chain = new InterceptorChain(interceptors);
+            List<Interceptor<?>> existing = interceptorChains.putIfAbsent(chain, chain);
+            if (existing != null)
+            {
+                chain = existing;
+            }
+        }
+        return chain;
+    }
+
+    /**
+     * @return the shared array with the same interceptors in the same order or {@code null} if there are none.
+     *         The array must not get modified!
+     */
+    private Interceptor<?>[] internInterceptorArray(List<Interceptor<?>> interceptors)
+    {
+        if (interceptors == null || interceptors.isEmpty())
+        {
+            return null;
+        }
+        return InterceptorChain.toArray(internInterceptorChain(interceptors));
+    }
+
     public <T> Map<Interceptor<?>, Object> createInterceptorInstances(BeanInterceptorInfo interceptorInfo,
                                                                       CreationalContextImpl<T> creationalContextImpl)
     {
+        if (interceptorInfo != null && isLazyInterceptorInstances())
+        {
+            return new LazyInterceptorInstances(this, interceptorInfo.getAllInterceptors(), creationalContextImpl);
+        }
+
         Map<Interceptor<?>,Object> interceptorInstances  = new HashMap<>();
         if (interceptorInfo != null)
         {
@@ -809,20 +978,17 @@ public class InterceptorResolutionService
             // create EJB-style interceptors
             for (Interceptor interceptorBean : interceptorInfo.getEjbInterceptors())
             {
-                creationalContextImpl.putContextual(interceptorBean);
-                interceptorInstances.put(interceptorBean, interceptorBean.create(creationalContextImpl));
+                interceptorInstances.put(interceptorBean, createInterceptorInstance(interceptorBean, creationalContextImpl));
             }
 
             // create CDI-style interceptors
             for (Interceptor interceptorBean : interceptorInfo.getCdiInterceptors())
             {
-                creationalContextImpl.putContextual(interceptorBean);
-                interceptorInstances.put(interceptorBean, interceptorBean.create(creationalContextImpl));
+                interceptorInstances.put(interceptorBean, createInterceptorInstance(interceptorBean, creationalContextImpl));
             }
             for (Interceptor interceptorBean : interceptorInfo.getConstructorCdiInterceptors())
             {
-                creationalContextImpl.putContextual(interceptorBean);
-                interceptorInstances.put(interceptorBean, interceptorBean.create(creationalContextImpl));
+                interceptorInstances.put(interceptorBean, createInterceptorInstance(interceptorBean, creationalContextImpl));
             }
         }
         return interceptorInstances;
@@ -863,6 +1029,37 @@ public class InterceptorResolutionService
         return webBeansContext.getInterceptorDecoratorProxyFactory().createProxyInstance(proxyClass, instance, interceptorHandler);
     }
 
+    /**
+     * @param interceptedMethods the intercepted methods of an {@link OwbInterceptedSubclass} by method index
+     * @return the interceptor chain of each method index, shared by all instances of the bean
+     */
+    public Interceptor<?>[][] createInterceptorChains(Method[] interceptedMethods, Map<Method, List<Interceptor<?>>> methodInterceptors)
+    {
+        Interceptor<?>[][] chains = new Interceptor<?>[interceptedMethods.length][];
+        for (int i = 0; i < interceptedMethods.length; i++)
+        {
+            chains[i] = InterceptorChain.toArray(methodInterceptors.get(interceptedMethods[i]));
+        }
+        return chains;
+    }
+
+    /**
+     * Activates the interceptors of an instance which got created as {@link OwbInterceptedSubclass}.
+     * No separate proxy instance and no InterceptorHandler gets created.
+     */
+    public <T> T initInterceptedSubclass(T instance, BeanInterceptorInfo interceptorInfo,
+                                         Interceptor<?>[][] interceptorChains, Map<Interceptor<?>, Object> interceptorInstances)
+    {
+        // register the bean itself for self-interception
+        if (interceptorInfo.getSelfInterceptorBean() != null)
+        {
+            interceptorInstances.put(interceptorInfo.getSelfInterceptorBean(), instance);
+        }
+
+        ((OwbInterceptedSubclass) instance).owbSetInterceptors(interceptorChains, interceptorInstances);
+        return instance;
+    }
+
 
     /**
      * static information about interceptors and decorators for a
@@ -934,6 +1131,8 @@ public class InterceptorResolutionService
          */
         private Map<InterceptionType, LifecycleMethodInfo> lifecycleMethodInterceptorInfos;
 
+        private volatile Set<Interceptor<?>> allInterceptors;
+
 
         public List<Decorator<?>> getDecorators()
         {
@@ -955,6 +1154,23 @@ public class InterceptorResolutionService
             return constructorCdiInterceptors;
         }
 
+        /**
+         * @return all EJB-style, CDI and constructor interceptors of the bean
+         */
+        public Set<Interceptor<?>> getAllInterceptors()
+        {
+            Set<Interceptor<?>> interceptors = allInterceptors;
+            if (interceptors == null)
+            {
+                interceptors = new LinkedHashSet<>(ejbInterceptors);
+                interceptors.addAll(cdiInterceptors);
+                interceptors.addAll(constructorCdiInterceptors);
+                interceptors = Collections.unmodifiableSet(interceptors);
+                allInterceptors = interceptors;
+            }
+            return interceptors;
+        }
+
         public SelfInterceptorBean<?> getSelfInterceptorBean()
         {
             return selfInterceptorBean;
@@ -1026,6 +1242,14 @@ public class InterceptorResolutionService
             return methodDecorators;
         }
 
+        /**
+         * @param cdiInterceptors the sorted interceptors which get shared and thus must not get modified afterwards
+         */
+        public void setCdiInterceptors(Interceptor<?>[] cdiInterceptors)
+        {
+            this.cdiInterceptors = cdiInterceptors == null || cdiInterceptors.length == 0 ? null : cdiInterceptors;
+        }
+
         public void setCdiInterceptors(List<Interceptor<?>> cdiInterceptors)
         {
             if (cdiInterceptors == null || cdiInterceptors.isEmpty())
@@ -1050,6 +1274,14 @@ public class InterceptorResolutionService
             }
         }
 
+        /**
+         * @param ejbInterceptors the sorted interceptors which get shared and thus must not get modified afterwards
+         */
+        public void setEjbInterceptors(Interceptor<?>[] ejbInterceptors)
+        {
+            this.ejbInterceptors = ejbInterceptors == null || ejbInterceptors.length == 0 ? null : ejbInterceptors;
+        }
+
         public void setEjbInterceptors(List<Interceptor<?>> ejbInterceptors)
         {
             if (ejbInterceptors == null || ejbInterceptors.isEmpty())
@@ -1073,6 +1305,28 @@ public class InterceptorResolutionService
     }
 
 
+    /**
+     * The single instance of a stateless interceptor together with its own CreationalContext.
+     */
+    private final class SharedInterceptorInstance
+    {
+        private final Interceptor<Object> interceptor;
+        private final CreationalContextImpl<Object> creationalContext;
+        private final Object instance;
+
+        private SharedInterceptorInstance(Interceptor<?> interceptor)
+        {
+            this.interceptor = (Interceptor<Object>) interceptor;
+            creationalContext = webBeansContext.getBeanManagerImpl().createCreationalContext(this.interceptor);
+            instance = this.interceptor.create(creationalContext);
+        }
+
+        private void destroy()
+        {
+            interceptor.destroy(instance, creationalContext);
+        }
+    }
+
     public static class LifecycleMethodInfo
     {
         private List<AnnotatedMethod<?>> methods = new ArrayList<>();
@@ -20,6 +20,7 @@ package org.apache.webbeans.intercept;
 
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -83,6 +84,17 @@ public class InterceptorsManager
 
     private final PriorityClasses priorityInterceptors = new PriorityClasses();
 
+    /**
+     * The enabled CDI interceptors indexed by their interceptor binding types.
+     * Built lazily on the first resolution.
+     */
+    private volatile InterceptorIndex interceptorIndex;
+
+    /**
+     * Already resolved and sorted interceptors.
+     * Gets invalidated whenever the interceptor configuration changes.
+     */
+    private final ConcurrentMap<ResolutionKey, List<Interceptor<?>>> resolvedInterceptors = new ConcurrentHashMap<>();
 
     public InterceptorsManager(WebBeansContext webBeansContext)
     {
@@ -102,6 +114,7 @@ public class InterceptorsManager
         cdiInterceptors.clear();
         ejbInterceptors.clear();
         priorityInterceptors.clear();
+        invalidateResolutionCache();
     }
 
 
@@ -115,6 +128,7 @@ public class InterceptorsManager
         if (!configuredInterceptorClasses.contains(interceptorClazz))
         {
             configuredInterceptorClasses.add(interceptorClazz);
+            invalidateResolutionCache();
         }
     }
 
@@ -206,20 +220,74 @@ public class InterceptorsManager
 
     public List<Interceptor<?>> resolveInterceptors(InterceptionType type, Annotation... interceptorBindings)
     {
-        List<Interceptor<?>> interceptorList = new ArrayList<>();
-        for (Interceptor<?> interceptor : cdiInterceptors)
+        ResolutionKey key = new ResolutionKey(type, interceptorBindings);
+        List<Interceptor<?>> interceptorList = resolvedInterceptors.get(key);
+        if (interceptorList == null)
         {
-            if (interceptor.intercepts(type) && intercepts(interceptor, interceptorBindings) && isInterceptorClassEnabled(interceptor.getBeanClass()))
+            interceptorList = doResolveInterceptors(type, interceptorBindings);
+            resolvedInterceptors.putIfAbsent(key, interceptorList);
+        }
+
+        // callers are free to modify the returned list
+        return new ArrayList<>(interceptorList);
+    }
+
+    private List<Interceptor<?>> doResolveInterceptors(InterceptionType type, Annotation[] interceptorBindings)
+    {
+        InterceptorIndex index = interceptorIndex;
+        if (index == null)
+        {
+            index = new InterceptorIndex(cdiInterceptors);
+            interceptorIndex = index;
+        }
+
+        // an interceptor only matches if all its bindings are requested,
+        // so it is sufficient to look at the interceptors of the requested binding types
+        Set<Interceptor<?>> candidates = new HashSet<>(index.unbound);
+        for (Annotation interceptorBinding : interceptorBindings)
+        {
+            List<Interceptor<?>> interceptors = index.byBindingType.get(interceptorBinding.annotationType());
+            if (interceptors != null)
+            {
+                candidates.addAll(interceptors);
+            }
+        }
+
+        List<Interceptor<?>> interceptorList = new ArrayList<>(candidates.size());
+        if (candidates.isEmpty())
+        {
+            return interceptorList;
+        }
+
+        // keep the original order for interceptors the comparator considers equal
+        for (Interceptor<?> interceptor : index.enabled)
+        {
+            if (candidates.contains(interceptor) && interceptor.intercepts(type) && intercepts(interceptor, interceptorBindings))
             {
                 interceptorList.add(interceptor);
             }
         }
 
-        Collections.sort(interceptorList, new InterceptorComparator(webBeansContext));
+        if (interceptorList.size() > 1)
+        {
+            Collections.sort(interceptorList, new InterceptorComparator(webBeansContext));
+        }
 
         return interceptorList;
     }
 
+    /**
+     * Drops the interceptor index and all cached resolutions.
+     * Must get called whenever interceptors, their enablement or their ordering changes.
+     * This includes changes of Extensions to the live list of {@link #getPrioritizedInterceptors()}
+     * which AfterTypeDiscovery hands out, thus the BeansDeployer calls it after that event.
+     */
+    public void invalidateResolutionCache()
+    {
+        interceptorIndex = null;
+        resolvedInterceptors.clear();
+    }
+
     private boolean intercepts(Interceptor<?> interceptor, Annotation[] requestedInterceptorBindings)
     {
         for (Annotation interceptorBinding : interceptor.getInterceptorBindings())
@@ -284,6 +352,7 @@ public class InterceptorsManager
     public void addCdiInterceptor(Interceptor interceptor)
     {
         cdiInterceptors.add(interceptor);
+        invalidateResolutionCache();
         beanManager.addPassivationInfo(interceptor);
     }
 
@@ -308,6 +377,7 @@ public class InterceptorsManager
     public void addInterceptorBindingType(AnnotatedType<? extends Annotation> annotatedType)
     {
         additionalInterceptorBindingTypesAnnotatedTypes.add(annotatedType);
+        invalidateResolutionCache();
     }
 
     public void addInterceptorBindingType(Class<? extends Annotation> bindingType, Annotation... inheritsArray)
@@ -367,5 +437,80 @@ public class InterceptorsManager
     public void addPriorityClazzInterceptor(Class<?> javaClass, Priority priority)
     {
         priorityInterceptors.add(javaClass, priority);
+        invalidateResolutionCache();
+    }
+
+    private final class InterceptorIndex
+    {
+        private final List<Interceptor<?>> enabled = new ArrayList<>();
+        private final List<Interceptor<?>> unbound = new ArrayList<>();
+        private final Map<Class<? extends Annotation>, List<Interceptor<?>>> byBindingType = new HashMap<>();
+
+        private InterceptorIndex(List<Interceptor<?>> interceptors)
+        {
+            for (Interceptor<?> interceptor : interceptors)
+            {
+                if (!isInterceptorClassEnabled(interceptor.getBeanClass()))
+                {
+                    continue;
+                }
+                enabled.add(interceptor);
+
+                Set<Annotation> interceptorBindings = interceptor.getInterceptorBindings();
+                if (interceptorBindings.isEmpty())
+                {
+                    unbound.add(interceptor);
+                }
+                for (Annotation interceptorBinding : interceptorBindings)
+                {
+                    List<Interceptor<?>> bound = byBindingType.computeIfAbsent(interceptorBinding.annotationType(), k -> new ArrayList<>());
+                    if (!bound.contains(interceptor))
+                    {
+                        bound.add(interceptor);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Cache key for the interceptor resolution.
+     * The order of the requested interceptor bindings does not matter.
+     */
+    private static final class ResolutionKey
+    {
+        private final InterceptionType type;
+        private final Set<Annotation> interceptorBindings;
+        private final int hashCode;
+
+        private ResolutionKey(InterceptionType type, Annotation[] interceptorBindings)
+        {
+            this.type = type;
+            this.interceptorBindings = interceptorBindings.length == 1
+                ? Collections.singleton(interceptorBindings[0])
+                : new HashSet<>(Arrays.asList(interceptorBindings));
+            hashCode = 31 * type.hashCode() + this.interceptorBindings.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof ResolutionKey))
+            {
+                return false;
+            }
+            ResolutionKey that = (ResolutionKey) o;
+            return type == that.type && interceptorBindings.equals(that.interceptorBindings);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
     }
 }
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.intercept;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.context.spi.Contextual;
+import javax.enterprise.inject.spi.Interceptor;
+
+import org.apache.webbeans.context.creational.CreationalContextImpl;
+
+/**
+ * The interceptor instances of a single intercepted bean instance.
+ * Each interceptor instance only gets created when it is looked up the first time,
+ * e.g. when an interceptor chain which contains it gets invoked.
+ *
+ * Iterating over the entries creates all remaining interceptor instances.
+ * This keeps the serialization of the {@link DefaultInterceptorHandler} working.
+ *
+ * @see org.apache.webbeans.config.OpenWebBeansConfiguration#LAZY_INTERCEPTOR_INSTANCES
+ */
+public class LazyInterceptorInstances extends AbstractMap<Interceptor<?>, Object>
+{
+    private final InterceptorResolutionService interceptorResolutionService;
+    private final Collection<Interceptor<?>> interceptors;
+    private final CreationalContextImpl<?> creationalContext;
+    private final ConcurrentMap<Interceptor<?>, Object> instances = new ConcurrentHashMap<>();
+
+    /**
+     * @param interceptors all interceptors of the bean
+     * @param creationalContext the CreationalContext of the intercepted bean instance
+     */
+    public LazyInterceptorInstances(InterceptorResolutionService interceptorResolutionService,
+                                    Collection<Interceptor<?>> interceptors, CreationalContextImpl<?> creationalContext)
+    {
+        this.interceptorResolutionService = interceptorResolutionService;
+        this.interceptors = interceptors;
+        this.creationalContext = creationalContext;
+    }
+
+    @Override
+    public Object get(Object key)
+    {
+        Object instance = instances.get(key);
+        if (instance == null && key instanceof Interceptor && interceptors.contains(key))
+        {
+            instance = create((Interceptor<?>) key);
+        }
+        return instance;
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return instances.containsKey(key) || interceptors.contains(key);
+    }
+
+    @Override
+    public Object put(Interceptor<?> key, Object value)
+    {
+        return instances.put(key, value);
+    }
+
+    @Override
+    public Set<Entry<Interceptor<?>, Object>> entrySet()
+    {
+        for (Interceptor<?> interceptor : interceptors)
+        {
+            get(interceptor);
+        }
+        return Collections.unmodifiableMap(instances).entrySet();
+    }
+
+    /**
+     * Creating an interceptor instance changes the current Contextual of the
+     * CreationalContext, thus creation happens while holding its monitor.
+     * The interceptor instance gets registered as dependent of the CreationalContext.
+     * Once the intercepted bean instance got destroyed it would never get destroyed, thus
+     * no interceptor instances get created anymore at that point.
+     */
+    private Object create(Interceptor<?> interceptor)
+    {
+        CreationalContextImpl<Object> context = (CreationalContextImpl<Object>) creationalContext;
+        synchronized (context)
+        {
+            Object instance = instances.get(interceptor);
+            if (instance == null)
+            {
+                if (context.isReleased())
+                {
+                    throw new IllegalStateException("Cannot create interceptor " + interceptor.getBeanClass().getName()
+                            + ", the intercepted bean instance already got destroyed");
+                }
+
+                Contextual<Object> oldContextual = context.getContextual();
+                try
+                {
+                    instance = interceptorResolutionService.createInterceptorInstance(interceptor, context);
+                }
+                finally
+                {
+                    context.putContextual(oldContextual);
+                }
+                instances.put(interceptor, instance);
+            }
+            return instance;
+        }
+    }
+}
@@ -37,9 +37,12 @@ import org.apache.webbeans.config.WebBeansContext;
  * Contextual Instance, the second is to provide serialisation.</p>
  *
  * <p>The generated proxy will writeReplace() with this class and any
- * NormalScopedBean provider must readResolve() and regenerate the
- * proxy class from the {@link org.apache.webbeans.proxy.NormalScopeProxyFactory}
- * again.
+ * NormalScopedBean provider must readResolve() to the proxy of the bean.
+ * This is the shared proxy of the {@link org.apache.webbeans.container.BeanManagerImpl},
+ * thus no new proxy instance gets created per deserialized reference.
+ * The proxy itself cannot be resolved any later as readResolve() must already return
+ * an instance of the proxied type. Only the contextual instance gets looked up lazily
+ * on the first invocation.
  * </p>
  * <p>Any subclass should either declare all their fields <code>transient</code>
  * or handle the serialisation properly!</p>
@@ -127,6 +130,7 @@ public class NormalScopedBeanInterceptorHandler implements Provider, Serializabl
             throw new NotSerializableException("Failure during de-serialisation: Cannot load Bean with passivationId " + beanPassivationId);
         }
 
-        return webBeansContext.getNormalScopeProxyFactory().createNormalScopeProxy(bean);
+        // all deserialized references share the proxy of the BeanManager
+        return webBeansContext.getBeanManagerImpl().getNormalScopeProxy(bean);
     }
 }
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.intercept;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import javax.enterprise.inject.spi.InterceptionType;
+import javax.enterprise.inject.spi.Interceptor;
+import javax.inject.Provider;
+
+/**
+ * InvocationContext for business methods which have exactly one
+ * {@link javax.interceptor.AroundInvoke} interceptor.
+ */
+public class SingleInterceptorInvocationContext<T> extends AbstractInvocationContext<T>
+{
+    private final Interceptor<?> interceptor;
+    private final Map<Interceptor<?>, ?> instances;
+    private boolean intercepted;
+
+    public SingleInterceptorInvocationContext(Provider<T> provider, Interceptor<?> interceptor, Map<Interceptor<?>, ?> instances,
+                                              Method method, Object[] parameters)
+    {
+        super(provider, method, parameters);
+        this.interceptor = interceptor;
+        this.instances = instances;
+    }
+
+    @Override
+    public Object proceed() throws Exception
+    {
+        if (intercepted)
+        {
+            return super.proceed();
+        }
+
+        intercepted = true;
+        try
+        {
+            return ((Interceptor) interceptor).intercept(InterceptionType.AROUND_INVOKE, instances.get(interceptor), this);
+        }
+        catch (Exception e)
+        {
+            // allows the interceptor to catch the Exception and to proceed again
+            intercepted = false;
+            throw e;
+        }
+    }
+}
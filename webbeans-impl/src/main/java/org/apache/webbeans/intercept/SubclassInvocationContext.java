@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.intercept;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.enterprise.inject.spi.InterceptionType;
+import javax.enterprise.inject.spi.Interceptor;
+import javax.interceptor.InvocationContext;
+
+import org.apache.webbeans.proxy.OwbInterceptedSubclass;
+import org.apache.webbeans.util.ExceptionUtil;
+
+/**
+ * InvocationContext for business methods of beans which got instantiated as
+ * {@link OwbInterceptedSubclass}. The intercepted methods of the generated subclass
+ * directly invoke {@link #invoke(OwbInterceptedSubclass, Interceptor[], Map, Method, int, Object[])}
+ * with the interceptor chain of the method. The end of the chain invokes the
+ * original method of the bean class without any reflection.
+ */
+public final class SubclassInvocationContext implements InvocationContext
+{
+    private final OwbInterceptedSubclass target;
+    private final Interceptor<?>[] interceptors;
+    private final Map<Interceptor<?>, ?> instances;
+    private final Method method;
+    private final int methodIndex;
+    private Object[] parameters;
+    private Map<String, Object> contextData;
+    private int index;
+
+    private SubclassInvocationContext(OwbInterceptedSubclass target, Interceptor<?>[] interceptors, Map<Interceptor<?>, ?> instances,
+                                      Method method, int methodIndex, Object[] parameters)
+    {
+        this.target = target;
+        this.interceptors = interceptors;
+        this.instances = instances;
+        this.method = method;
+        this.methodIndex = methodIndex;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Invoked by the generated subclass for each call of an intercepted method.
+     *
+     * @param target the intercepted instance
+     * @param interceptors the interceptor chain of the method
+     * @param instances the interceptor instances of the intercepted instance
+     * @param method the intercepted method
+     * @param methodIndex the index of the method as used by {@link OwbInterceptedSubclass#owbInvokeSuper(int, Object[])}
+     * @param parameters the method parameters
+     * @return the return value of the method
+     */
+    public static Object invoke(OwbInterceptedSubclass target, Interceptor<?>[] interceptors, Map<Interceptor<?>, ?> instances,
+                                Method method, int methodIndex, Object[] parameters)
+    {
+        try
+        {
+            return new SubclassInvocationContext(target, interceptors, instances, method, methodIndex, parameters).proceed();
+        }
+        catch (Exception e)
+        {
+            throw ExceptionUtil.throwAsRuntimeException(e);
+        }
+    }
+
+    @Override
+    public Object proceed() throws Exception
+    {
+        // skip interceptors which do not intercept business methods
+        while (index < interceptors.length && !interceptors[index].intercepts(InterceptionType.AROUND_INVOKE))
+        {
+            index++;
+        }
+
+        if (index < interceptors.length)
+        {
+            int currentIndex = index++;
+            Interceptor interceptor = interceptors[currentIndex];
+            try
+            {
+                return interceptor.intercept(InterceptionType.AROUND_INVOKE, instances.get(interceptor), this);
+            }
+            catch (Exception e)
+            {
+                // restore the original location
+                // this allows for catching an Exception inside an Interceptor
+                // and then try to proceed with the interceptor chain again.
+                index = currentIndex;
+                throw e;
+            }
+        }
+
+        // invokes the not intercepted method of the bean class
+        return target.owbInvokeSuper(methodIndex, parameters);
+    }
+
+    @Override
+    public Object getTarget()
+    {
+        return target;
+    }
+
+    @Override
+    public Method getMethod()
+    {
+        return method;
+    }
+
+    // @Override
+    public Constructor getConstructor()
+    {
+        return null;
+    }
+
+    @Override
+    public Object[] getParameters()
+    {
+        return parameters;
+    }
+
+    @Override
+    public void setParameters(Object[] parameters)
+    {
+        this.parameters = parameters;
+    }
+
+    @Override
+    public Map<String, Object> getContextData()
+    {
+        if (contextData == null)
+        {
+            contextData = new HashMap<>();
+        }
+        return contextData;
+    }
+
+    @Override
+    public Object getTimer()
+    {
+        return null;
+    }
+}
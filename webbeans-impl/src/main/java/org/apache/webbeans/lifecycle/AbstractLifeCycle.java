@@ -32,6 +32,7 @@ import org.apache.webbeans.config.WebBeansFinder;
 import org.apache.webbeans.container.BeanManagerImpl;
 import org.apache.webbeans.container.InjectableBeanManager;
 import org.apache.webbeans.portable.events.discovery.BeforeShutdownImpl;
+import org.apache.webbeans.spi.CheckpointAware;
 import org.apache.webbeans.spi.ContainerLifecycle;
 import org.apache.webbeans.spi.ContextsService;
 import org.apache.webbeans.spi.JNDIService;
@@ -39,7 +40,7 @@ import org.apache.webbeans.spi.ScannerService;
 import org.apache.webbeans.util.WebBeansConstants;
 import org.apache.webbeans.util.WebBeansUtil;
 
-public abstract class AbstractLifeCycle implements ContainerLifecycle
+public abstract class AbstractLifeCycle implements ContainerLifecycle, CheckpointAware
 {
     protected AtomicBoolean started = new AtomicBoolean(false);
 
@@ -192,6 +193,44 @@ public abstract class AbstractLifeCycle implements ContainerLifecycle
         }
     }
 
+    /**
+     * Quiesces the started container before a checkpoint of the JVM gets taken.
+     * The contexts bound to the current thread get ended, running asynchronous observers
+     * get drained and all {@link CheckpointAware} plugins and SPI services get notified.
+     *
+     * <p>Only the ThreadLocals of the calling thread get removed. The ThreadLocals of
+     * other threads cannot be reached from here. The integration must invoke this method
+     * after all request threads got quiesced, and those threads must have ended their
+     * contexts themselves, e.g. at the end of their last request.</p>
+     */
+    @Override
+    public void beforeCheckpoint()
+    {
+        if (!started.get())
+        {
+            return;
+        }
+
+        logger.fine("OpenWebBeans Container prepares for a checkpoint.");
+        contextsService.removeThreadLocals();
+        webBeansContext.beforeCheckpoint();
+    }
+
+    /**
+     * Resumes the started container after the JVM got restored from a checkpoint.
+     */
+    @Override
+    public void afterRestore()
+    {
+        if (!started.get())
+        {
+            return;
+        }
+
+        logger.fine("OpenWebBeans Container got restored from a checkpoint.");
+        webBeansContext.afterRestore();
+    }
+
     /**
      * @return the contextsService
      */
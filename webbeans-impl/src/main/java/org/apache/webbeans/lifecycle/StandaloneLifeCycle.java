@@ -78,11 +78,7 @@ public class StandaloneLifeCycle extends AbstractLifeCycle
         webBeansContext.getContextsService().endContext(Singleton.class, null);
 
         // clean up the EL caches after each request
-        ELContextStore elStore = ELContextStore.getInstance(false);
-        if (elStore != null)
-        {
-            elStore.destroyELContextStore();
-        }
+        ELContextStore.endRequest();
     }
 
     @Override
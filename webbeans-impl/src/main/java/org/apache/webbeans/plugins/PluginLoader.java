@@ -31,6 +31,7 @@ import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.exception.WebBeansConfigurationException;
 import javax.enterprise.inject.spi.DefinitionException;
 import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.CheckpointAware;
 import org.apache.webbeans.spi.plugins.OpenWebBeansEjbPlugin;
 import org.apache.webbeans.spi.plugins.OpenWebBeansJavaEEPlugin;
 import org.apache.webbeans.spi.plugins.OpenWebBeansPlugin;
@@ -46,7 +47,7 @@ import org.apache.webbeans.spi.plugins.OpenWebBeansPlugin;
  * A jar containing an OWB plugin has to expose itself in the file
  * <code>META-INF/services/org.apache.webbeans.plugins.OpenWebBeansPlugin</code></p> 
  */
-public class PluginLoader
+public class PluginLoader implements CheckpointAware
 {
     /**Logger instance*/
     private static final Logger logger = WebBeansLoggerFacade.getLogger(PluginLoader.class);
@@ -164,6 +165,46 @@ public class PluginLoader
         }
     }
     
+    /**
+     * Tell all {@link CheckpointAware} plugins that a checkpoint of the JVM gets taken.
+     */
+    @Override
+    public void beforeCheckpoint()
+    {
+        if (!pluginsExist())
+        {
+            return;
+        }
+
+        for (OpenWebBeansPlugin plugin : plugins)
+        {
+            if (plugin instanceof CheckpointAware)
+            {
+                ((CheckpointAware) plugin).beforeCheckpoint();
+            }
+        }
+    }
+
+    /**
+     * Tell all {@link CheckpointAware} plugins that the JVM got restored from a checkpoint.
+     */
+    @Override
+    public void afterRestore()
+    {
+        if (!pluginsExist())
+        {
+            return;
+        }
+
+        for (OpenWebBeansPlugin plugin : plugins)
+        {
+            if (plugin instanceof CheckpointAware)
+            {
+                ((CheckpointAware) plugin).afterRestore();
+            }
+        }
+    }
+
     /**
      * @return an unmodifiable list of all registered {code OpenWebBeansPlugin}s
      */
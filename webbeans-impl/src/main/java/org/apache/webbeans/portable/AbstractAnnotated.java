@@ -53,8 +53,8 @@ public abstract class AbstractAnnotated implements Annotated
     private Set<Type> typeClosures;
 
     /**Set of annotations*/
-    private Set<Annotation> annotations = new HashSet<>();
-    private Set<Class<?>> repeatables = new HashSet<>();
+    private final CompactAnnotationSet annotations = new CompactAnnotationSet();
+    private Set<Class<?>> repeatables = Collections.emptySet();
 
     private final WebBeansContext webBeansContext;
     
@@ -84,7 +84,15 @@ public abstract class AbstractAnnotated implements Annotated
         this.baseType = annotated.getBaseType();
         this.webBeansContext = webBeansContext;
 
-        this.typeClosures = annotated.getTypeClosure();
+        if (annotated instanceof AbstractAnnotated)
+        {
+            // share whatever got computed already, the rest gets built lazily
+            this.typeClosures = ((AbstractAnnotated) annotated).typeClosures;
+        }
+        else
+        {
+            this.typeClosures = annotated.getTypeClosure();
+        }
         this.annotations.addAll(annotated.getAnnotations());
     }
 
@@ -116,6 +124,10 @@ public abstract class AbstractAnnotated implements Annotated
                 .collect(toList());
         if (!repeatables.isEmpty())
         {
+            if (this.repeatables.isEmpty())
+            {
+                this.repeatables = new HashSet<>();
+            }
             this.repeatables.addAll(repeatables.stream().map(Annotation::annotationType).collect(toList()));
             this.annotations.addAll(repeatables);
         }
@@ -149,8 +161,7 @@ public abstract class AbstractAnnotated implements Annotated
      */
     protected void setAnnotations(Annotation[] annotations)
     {        
-        clearAnnotations();
-        Collections.addAll(this.annotations, annotations);
+        this.annotations.set(annotations);
         buildRepeatableAnnotations(this.annotations);
     }
 
@@ -163,19 +174,9 @@ public abstract class AbstractAnnotated implements Annotated
      * {@inheritDoc}
      */
     @Override
-    @SuppressWarnings("unchecked")
     public <T extends Annotation> T getAnnotation(Class<T> annotationType)
     {
-        for(Annotation ann : annotations)
-        {
-            if(ann.annotationType().equals(annotationType))
-            {
-                return (T)ann;
-            }
-        }
-        
-        return null;
-
+        return annotations.get(annotationType);
     }
 
     /**
@@ -243,15 +244,7 @@ public abstract class AbstractAnnotated implements Annotated
     @Override
     public boolean isAnnotationPresent(Class<? extends Annotation> annotationType)
     {
-        for(Annotation ann : annotations)
-        {
-            if(ann.annotationType().equals(annotationType))
-            {
-                return true;
-            }
-        }        
-        
-        return false;
+        return annotations.get(annotationType) != null;
     }
     
     public String toString()
@@ -49,6 +49,12 @@ public abstract class AbstractAnnotatedCallable<X> extends AbstractAnnotatedMemb
     
     protected void setAnnotatedParameters(Type[] genericParameterTypes,Annotation[][] parameterAnnotations)
     {
+        if (annotatedParameters.isEmpty())
+        {
+            // exactly sized, most callables have only a few parameters
+            annotatedParameters = new ArrayList<>(genericParameterTypes.length);
+        }
+
         int i = 0;
         
         for(Type genericParameter : genericParameterTypes)
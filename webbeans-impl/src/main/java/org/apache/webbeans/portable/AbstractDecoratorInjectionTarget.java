@@ -80,6 +80,13 @@ public class AbstractDecoratorInjectionTarget<T> extends InjectionTargetImpl<T>
         return (SubClassAnnotatedConstructorImpl<T>) constructor;
     }
 
+    @Override
+    protected Constructor<T> getInterceptedSubclassConstructor(WebBeansContext webBeansContext)
+    {
+        // abstract decorators already get their own subclass
+        return null;
+    }
+
     @Override
     protected T newInstance(CreationalContextImpl<T> creationalContext)
     {
@@ -18,6 +18,7 @@
  */
 package org.apache.webbeans.portable;
 
+import java.lang.reflect.Constructor;
 import java.util.Set;
 
 import javax.enterprise.context.spi.CreationalContext;
@@ -38,4 +39,11 @@ public abstract class AbstractEjbInjectionTarget<T> extends InjectionTargetImpl<
 
     @Override
     public abstract T produce(CreationalContext<T> creationalContext);
+
+    @Override
+    protected Constructor<T> getInterceptedSubclassConstructor(WebBeansContext webBeansContext)
+    {
+        // EJB instances are created by the EJB container
+        return null;
+    }
 }
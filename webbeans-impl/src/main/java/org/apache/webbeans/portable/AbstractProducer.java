@@ -18,6 +18,7 @@
  */
 package org.apache.webbeans.portable;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.List;
@@ -39,7 +40,9 @@ import org.apache.webbeans.component.BeanManagerBean;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.context.creational.CreationalContextImpl;
 import org.apache.webbeans.intercept.InterceptorResolutionService.BeanInterceptorInfo;
+import org.apache.webbeans.proxy.InterceptedSubclassProxyFactory;
 import org.apache.webbeans.proxy.InterceptorDecoratorProxyFactory;
+import org.apache.webbeans.proxy.OwbInterceptedSubclass;
 import org.apache.webbeans.proxy.OwbInterceptorProxy;
 
 public abstract class AbstractProducer<T> implements Producer<T>
@@ -52,6 +55,12 @@ public abstract class AbstractProducer<T> implements Producer<T>
     protected InterceptorDecoratorProxyFactory proxyFactory;
     protected Map<Method, List<Interceptor<?>>> methodInterceptors;
 
+    /**
+     * The interceptor chain of each method index of the {@link #proxyClass} if it is an
+     * {@link OwbInterceptedSubclass}, {@code null} if the instances get wrapped in a delegating proxy.
+     */
+    protected Interceptor<?>[][] subclassInterceptorChains;
+
     public AbstractProducer()
     {
         this(Collections.<InjectionPoint>emptySet());
@@ -95,14 +104,25 @@ public abstract class AbstractProducer<T> implements Producer<T>
         if (needsProxy())
         {
             // we only need to create a proxy class for intercepted or decorated Beans
-            InterceptorDecoratorProxyFactory pf = webBeansContext.getInterceptorDecoratorProxyFactory();
-
             ClassLoader classLoader = webBeansContext.getApplicationBoundaryService().getBoundaryClassLoader(annotatedType.getJavaClass());
 
             Method[] businessMethods = methodInterceptors.keySet().toArray(new Method[methodInterceptors.size()]);
-            Method[] nonInterceptedMethods = interceptorInfo.getNonInterceptedMethods().toArray(new Method[interceptorInfo.getNonInterceptedMethods().size()]);
 
-            proxyClass = (Class<? extends T>) pf.createProxyClass(bean, classLoader, annotatedType.getJavaClass(), businessMethods, nonInterceptedMethods);
+            Constructor<T> subclassConstructor = getInterceptedSubclassConstructor(webBeansContext);
+            if (subclassConstructor != null)
+            {
+                InterceptedSubclassProxyFactory sf = webBeansContext.getInterceptedSubclassProxyFactory();
+                proxyClass = sf.createProxyClass(classLoader, annotatedType.getJavaClass(), businessMethods, subclassConstructor);
+                subclassInterceptorChains = webBeansContext.getInterceptorResolutionService()
+                    .createInterceptorChains(sf.getInterceptedMethods(proxyClass), methodInterceptors);
+            }
+            else
+            {
+                InterceptorDecoratorProxyFactory pf = webBeansContext.getInterceptorDecoratorProxyFactory();
+                Method[] nonInterceptedMethods = interceptorInfo.getNonInterceptedMethods().toArray(new Method[interceptorInfo.getNonInterceptedMethods().size()]);
+
+                proxyClass = (Class<? extends T>) pf.createProxyClass(bean, classLoader, annotatedType.getJavaClass(), businessMethods, nonInterceptedMethods);
+            }
 
             // now we collect the post-construct and pre-destroy interceptors
 
@@ -130,13 +150,18 @@ public abstract class AbstractProducer<T> implements Producer<T>
         Map<Interceptor<?>, Object> interceptorInstances = creationalContextImpl.getWebBeansContext()
                 .getInterceptorResolutionService().createInterceptorInstances(interceptorInfo, creationalContextImpl);
         creationalContextImpl.putContextual(oldContextual);
-
-        T instance = produce(interceptorInstances, creationalContextImpl);
-
-        if (hasInterceptorInfo() && !(instance instanceof OwbInterceptorProxy))
-        {
-            instance = creationalContextImpl.getWebBeansContext().getInterceptorResolutionService()
-                .createProxiedInstance(instance, creationalContextImpl, creationalContext,
+
+        T instance = produce(interceptorInstances, creationalContextImpl);
+
+        if (subclassInterceptorChains != null && instance instanceof OwbInterceptedSubclass)
+        {
+            instance = creationalContextImpl.getWebBeansContext().getInterceptorResolutionService()
+                .initInterceptedSubclass(instance, interceptorInfo, subclassInterceptorChains, interceptorInstances);
+        }
+        else if (hasInterceptorInfo() && !(instance instanceof OwbInterceptorProxy))
+        {
+            instance = creationalContextImpl.getWebBeansContext().getInterceptorResolutionService()
+                .createProxiedInstance(instance, creationalContextImpl, creationalContext,
                         interceptorInfo, proxyClass, methodInterceptors, passivationId, interceptorInstances,
                         this::isDelegateInjection, this::filterDecorators);
             creationalContextImpl.putContextual(oldContextual);
@@ -172,6 +197,16 @@ public abstract class AbstractProducer<T> implements Producer<T>
         return !methodInterceptors.isEmpty();
     }
 
+    /**
+     * @return the constructor a generated {@link OwbInterceptedSubclass} must provide
+     *         if the instances of this producer can directly get created as intercepted subclass,
+     *         {@code null} if they need to get wrapped in a delegating proxy
+     */
+    protected Constructor<T> getInterceptedSubclassConstructor(WebBeansContext webBeansContext)
+    {
+        return null;
+    }
+
     protected boolean hasInterceptorInfo()
     {
         return interceptorInfo != null && proxyClass != null;
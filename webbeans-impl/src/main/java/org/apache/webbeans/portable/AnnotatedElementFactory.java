@@ -54,7 +54,9 @@ public final class AnnotatedElementFactory
     private static final Logger logger = WebBeansLoggerFacade.getLogger(AnnotatedElementFactory.class);
 
     /**
-     * Cache of the initial AnnotatedTypes
+     * Cache of the initial AnnotatedTypes.
+     * All caches are maps of this WebBeansContext instead of ClassValues. A ClassValue
+     * would keep the WebBeansContext alive as long as e.g. a shared JDK or API class lives.
      */
     private ConcurrentMap<Class<?>, ConcurrentMap<String, AnnotatedType<?>>> annotatedTypeCache =
         new ConcurrentHashMap<>();
@@ -231,12 +233,8 @@ public final class AnnotatedElementFactory
         Asserts.assertNotNull(constructor, "constructor");
         Asserts.assertNotNull(declaringClass, "declaringClass");
         
-        AnnotatedConstructorImpl<X> annConstructor;
-        if(annotatedConstructorCache.containsKey(constructor))
-        {
-            annConstructor = (AnnotatedConstructorImpl<X>)annotatedConstructorCache.get(constructor);
-        }
-        else
+        AnnotatedConstructorImpl<X> annConstructor = (AnnotatedConstructorImpl<X>) annotatedConstructorCache.get(constructor);
+        if (annConstructor == null)
         {
             annConstructor = new AnnotatedConstructorImpl<>(webBeansContext, constructor, declaringClass);
             AnnotatedConstructorImpl<X> old = (AnnotatedConstructorImpl<X>)annotatedConstructorCache.putIfAbsent(constructor, annConstructor);
@@ -263,12 +261,8 @@ public final class AnnotatedElementFactory
         Asserts.assertNotNull(field, "field");
         Asserts.assertNotNull(declaringClass, "declaringClass");
         
-        AnnotatedFieldImpl<X> annotField;
-        if(annotatedFieldCache.containsKey(field))
-        {
-            annotField = (AnnotatedFieldImpl<X>)annotatedFieldCache.get(field);
-        }
-        else
+        AnnotatedFieldImpl<X> annotField = (AnnotatedFieldImpl<X>) annotatedFieldCache.get(field);
+        if (annotField == null)
         {
             annotField = new AnnotatedFieldImpl<>(webBeansContext, field, declaringClass);
             AnnotatedFieldImpl<X> old = (AnnotatedFieldImpl<X>) annotatedFieldCache.putIfAbsent(field, annotField);
@@ -295,12 +289,8 @@ public final class AnnotatedElementFactory
         Asserts.assertNotNull(method, "method");
         Asserts.assertNotNull(declaringType, "declaringType");
         
-        AnnotatedMethodImpl<X> annotMethod;
-        if(annotatedMethodCache.containsKey(method))
-        {
-            annotMethod = (AnnotatedMethodImpl<X>)annotatedMethodCache.get(method);
-        }
-        else
+        AnnotatedMethodImpl<X> annotMethod = (AnnotatedMethodImpl<X>) annotatedMethodCache.get(method);
+        if (annotMethod == null)
         {
             annotMethod = new AnnotatedMethodImpl<>(webBeansContext, method, declaringType);
             AnnotatedMethodImpl<X> old = (AnnotatedMethodImpl<X>) annotatedMethodCache.putIfAbsent(method, annotMethod);
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.portable;
+
+import java.lang.annotation.Annotation;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The annotations of an {@link AbstractAnnotated} stored in a plain array.
+ *
+ * Most annotated elements carry no or only a handful of annotations, so a linear scan
+ * is as fast as hashing while taking only a fraction of the memory of a HashSet.
+ * The array gets replaced on each modification, thus copies of an annotated element
+ * simply share the array of the original.
+ */
+final class CompactAnnotationSet extends AbstractSet<Annotation>
+{
+    private static final Annotation[] EMPTY = new Annotation[0];
+
+    private Annotation[] annotations = EMPTY;
+
+    /**
+     * Replaces the content with the given annotations.
+     * The array will get used as is and must not get modified afterwards.
+     */
+    void set(Annotation[] newAnnotations)
+    {
+        if (newAnnotations.length == 0)
+        {
+            annotations = EMPTY;
+            return;
+        }
+
+        for (int i = 1; i < newAnnotations.length; i++)
+        {
+            if (indexOf(newAnnotations, i, newAnnotations[i]) >= 0)
+            {
+                // not a set, only happens for manually built arrays
+                clear();
+                addAll(Arrays.asList(newAnnotations));
+                return;
+            }
+        }
+        annotations = newAnnotations;
+    }
+
+    /**
+     * @return the annotation of the given type or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    <T extends Annotation> T get(Class<T> annotationType)
+    {
+        for (Annotation annotation : annotations)
+        {
+            if (annotation.annotationType().equals(annotationType))
+            {
+                // no Class#cast, AnnotationLiterals do not always implement their annotation type
+                return (T) annotation;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size()
+    {
+        return annotations.length;
+    }
+
+    @Override
+    public boolean contains(Object o)
+    {
+        return indexOf(annotations, annotations.length, o) >= 0;
+    }
+
+    @Override
+    public boolean add(Annotation annotation)
+    {
+        Annotation[] current = annotations;
+        if (indexOf(current, current.length, annotation) >= 0)
+        {
+            return false;
+        }
+
+        Annotation[] newAnnotations = Arrays.copyOf(current, current.length + 1);
+        newAnnotations[current.length] = annotation;
+        annotations = newAnnotations;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Annotation> c)
+    {
+        if (annotations.length == 0 && c instanceof CompactAnnotationSet)
+        {
+            // share the array of the other set
+            annotations = ((CompactAnnotationSet) c).annotations;
+            return annotations.length > 0;
+        }
+        return super.addAll(c);
+    }
+
+    @Override
+    public boolean remove(Object o)
+    {
+        Annotation[] current = annotations;
+        int index = indexOf(current, current.length, o);
+        if (index < 0)
+        {
+            return false;
+        }
+
+        if (current.length == 1)
+        {
+            annotations = EMPTY;
+            return true;
+        }
+
+        Annotation[] newAnnotations = new Annotation[current.length - 1];
+        System.arraycopy(current, 0, newAnnotations, 0, index);
+        System.arraycopy(current, index + 1, newAnnotations, index, current.length - index - 1);
+        annotations = newAnnotations;
+        return true;
+    }
+
+    @Override
+    public void clear()
+    {
+        annotations = EMPTY;
+    }
+
+    @Override
+    public Iterator<Annotation> iterator()
+    {
+        Annotation[] snapshot = annotations;
+        return new Iterator<Annotation>()
+        {
+            private int index;
+            private Annotation last;
+
+            @Override
+            public boolean hasNext()
+            {
+                return index < snapshot.length;
+            }
+
+            @Override
+            public Annotation next()
+            {
+                if (index >= snapshot.length)
+                {
+                    throw new NoSuchElementException();
+                }
+                last = snapshot[index++];
+                return last;
+            }
+
+            @Override
+            public void remove()
+            {
+                if (last == null)
+                {
+                    throw new IllegalStateException();
+                }
+                CompactAnnotationSet.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    private static int indexOf(Annotation[] annotations, int length, Object o)
+    {
+        for (int i = 0; i < length; i++)
+        {
+            if (annotations[i].equals(o))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
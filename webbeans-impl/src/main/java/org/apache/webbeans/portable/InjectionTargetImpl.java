@@ -34,6 +34,7 @@ import org.apache.webbeans.intercept.LifecycleInterceptorInvocationContext;
 import org.apache.webbeans.logger.WebBeansLoggerFacade;
 import org.apache.webbeans.proxy.InterceptorDecoratorProxyFactory;
 import org.apache.webbeans.proxy.InterceptorHandler;
+import org.apache.webbeans.proxy.OwbInterceptedSubclass;
 import org.apache.webbeans.proxy.OwbInterceptorProxy;
 import org.apache.webbeans.proxy.OwbNormalScopeProxy;
 import org.apache.webbeans.spi.ResourceInjectionService;
@@ -113,6 +114,11 @@ public class InjectionTargetImpl<T> extends AbstractProducer<T> implements Injec
 
     private List<Interceptor<?>> aroundConstructInterceptors;
 
+    /**
+     * The constructor of the intercepted subclass, if the instances get created as such.
+     */
+    private volatile Constructor<? extends T> subclassConstructor;
+
     public InjectionTargetImpl(AnnotatedType<T> annotatedType, Set<InjectionPoint> injectionPoints, WebBeansContext webBeansContext,
                                List<AnnotatedMethod<?>> postConstructMethods, List<AnnotatedMethod<?>> preDestroyMethods)
     {
@@ -194,9 +200,48 @@ public class InjectionTargetImpl<T> extends AbstractProducer<T> implements Injec
     
     protected T newInstance(CreationalContextImpl<T> creationalContext)
     {
+        if (subclassInterceptorChains != null)
+        {
+            return new AbstractDecoratorInjectionTarget.AbstractDecoratorInjectableConstructor<>(
+                getConstructor().getJavaMember(), (Constructor<T>) getSubclassConstructor(), this, creationalContext).doInjection();
+        }
         return new InjectableConstructor<>(getConstructor().getJavaMember(), this, creationalContext).doInjection();
     }
 
+    @Override
+    protected Constructor<T> getInterceptedSubclassConstructor(WebBeansContext webBeansContext)
+    {
+        if (!webBeansContext.getOpenWebBeansConfiguration().isSubclassInterception()
+            || !getInterceptorInfo().getDecorators().isEmpty()
+            || hasAroundConstruct())
+        {
+            return null;
+        }
+
+        Constructor<T> beanConstructor = getConstructor().getJavaMember();
+        if (!webBeansContext.getInterceptedSubclassProxyFactory().isSubclassable(annotatedType.getJavaClass(), beanConstructor))
+        {
+            return null;
+        }
+        return beanConstructor;
+    }
+
+    private Constructor<? extends T> getSubclassConstructor()
+    {
+        if (subclassConstructor == null)
+        {
+            try
+            {
+                subclassConstructor = proxyClass.getDeclaredConstructor(getConstructor().getJavaMember().getParameterTypes());
+            }
+            catch (NoSuchMethodException e)
+            {
+                throw new WebBeansException("Cannot find the constructor of the intercepted subclass " + proxyClass.getName(), e);
+            }
+        }
+        return subclassConstructor;
+    }
+
     @Override
     public void inject(T instance, CreationalContext<T> context)
     {
@@ -298,7 +343,12 @@ public class InjectionTargetImpl<T> extends AbstractProducer<T> implements Injec
         Map<Interceptor<?>, ?> interceptorInstances = null;
         T internalInstance = instance;
 
-        if (getInterceptorInfo() != null && instance instanceof OwbInterceptorProxy)
+        if (getInterceptorInfo() != null && instance instanceof OwbInterceptedSubclass)
+        {
+            // the intercepted subclass is the instance itself
+            interceptorInstances = ((OwbInterceptedSubclass) instance).owbGetInterceptorInstances();
+        }
+        else if (getInterceptorInfo() != null && instance instanceof OwbInterceptorProxy)
         {
             InterceptorHandler ih = getProxyFactory().getInterceptorHandler((OwbInterceptorProxy) instance);
             if (ih instanceof DefaultInterceptorHandler)
@@ -336,7 +386,12 @@ public class InjectionTargetImpl<T> extends AbstractProducer<T> implements Injec
         Map<Interceptor<?>, ?> interceptorInstances = null;
         T internalInstance = instance;
 
-        if (getInterceptorInfo() != null && instance instanceof OwbInterceptorProxy)
+        if (getInterceptorInfo() != null && instance instanceof OwbInterceptedSubclass)
+        {
+            // the intercepted subclass is the instance itself
+            interceptorInstances = ((OwbInterceptedSubclass) instance).owbGetInterceptorInstances();
+        }
+        else if (getInterceptorInfo() != null && instance instanceof OwbInterceptorProxy)
         {
             InterceptorDecoratorProxyFactory pf = webBeansContext.getInterceptorDecoratorProxyFactory();
             InterceptorHandler ih = pf.getInterceptorHandler((OwbInterceptorProxy) instance);
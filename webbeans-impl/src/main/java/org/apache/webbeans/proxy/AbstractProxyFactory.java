@@ -22,16 +22,23 @@ import static org.apache.xbean.asm7.ClassReader.SKIP_CODE;
 import static org.apache.xbean.asm7.ClassReader.SKIP_DEBUG;
 import static org.apache.xbean.asm7.ClassReader.SKIP_FRAMES;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.exception.ProxyGenerationException;
-import org.apache.webbeans.exception.WebBeansException;
 import org.apache.webbeans.spi.DefiningClassService;
 import org.apache.xbean.asm7.ClassReader;
 import org.apache.xbean.asm7.ClassWriter;
@@ -45,6 +52,11 @@ import org.apache.xbean.asm7.shade.commons.EmptyVisitor;
  */
 public abstract class AbstractProxyFactory
 {
+    /**
+     * @deprecated proxy class names are deterministic now and no free name needs to get probed anymore.
+     *             Not used by OpenWebBeans itself.
+     */
+    @Deprecated
     public static final int MAX_CLASSLOAD_TRIES = 10000;
 
     /**
@@ -54,10 +66,42 @@ public abstract class AbstractProxyFactory
      */
     public static final int MODIFIER_VARARGS = 0x00000080;
 
+    private static final Comparator<Method> METHOD_ORDER = Comparator
+            .comparing((Method m) -> m.getName())
+            .thenComparing(m -> Type.getMethodDescriptor(m))
+            .thenComparing(m -> m.getDeclaringClass().getName());
+
     protected final Unsafe unsafe;
 
     private final DefiningClassService definingService;
 
+    /**
+     * Optional on-disk store for the generated proxy bytecode, {@code null} if disabled.
+     */
+    private final ProxyBytecodeCache bytecodeCache;
+
+    /**
+     * Version of the generated bytecode and of the OpenWebBeans API it invokes.
+     * This must get increased whenever either of them changes incompatibly.
+     * @see #getProxyClassName(Class, String, Method[], Method[])
+     */
+    private static final int GENERATOR_VERSION = 1;
+
+    /**
+     * Identifies the OpenWebBeans release, this factory and its configuration.
+     */
+    private final String generator;
+
+    /**
+     * Directory to write all generated proxy classes to, {@code null} if disabled.
+     */
+    private final File proxyOutputDirectory;
+
+    /**
+     * All proxy classes generated by this factory, per ClassLoader and proxy class name.
+     */
+    private final ConcurrentMap<ProxyClassKey, FutureTask<Class<?>>> proxyClasses = new ConcurrentHashMap<>();
+
     protected WebBeansContext webBeansContext;
 
     private final int javaVersion;
@@ -75,8 +119,16 @@ public abstract class AbstractProxyFactory
     {
         this.webBeansContext = webBeansContext;
         javaVersion = determineDefaultJavaVersion();
+        generator = getClass().getName() + '|' + AbstractProxyFactory.class.getPackage().getImplementationVersion()
+                + '|' + GENERATOR_VERSION + '|' + javaVersion;
         unsafe = new Unsafe();
         definingService = webBeansContext.getService(DefiningClassService.class);
+
+        String cacheDirectory = webBeansContext.getOpenWebBeansConfiguration().getProxyCacheDirectory();
+        bytecodeCache = cacheDirectory != null ? new ProxyBytecodeCache(new File(cacheDirectory)) : null;
+
+        String outputDirectory = webBeansContext.getOpenWebBeansConfiguration().getProxyOutputDirectory();
+        proxyOutputDirectory = outputDirectory != null ? new File(outputDirectory) : null;
     }
 
     private int determineDefaultJavaVersion()
@@ -183,32 +235,44 @@ public abstract class AbstractProxyFactory
             throws ProxyGenerationException;
 
     /**
-     * Detect a free classname based on the given one
-     * @param proxyClassName
-     * @return
+     * Create a deterministic name for the proxy class.
+     * The name is derived from the proxied class and a hash over all proxied methods,
+     * the class file version of the proxied class and the generator. The generator
+     * covers the OpenWebBeans release, the factory and its configuration.
+     * Two proxies with the same name thus always have the same bytecode and
+     * an already defined proxy class can simply be reused. A proxy which got created
+     * by another release or configuration, e.g. packaged by the generate-proxies goal,
+     * just has another name and is not used.
+     *
+     * @param classToProxy the class which gets proxied
+     * @param suffix the proxy type specific suffix, e.g. {@code $$OwbNormalScopeProxy}
      */
-    protected String getUnusedProxyClassName(ClassLoader classLoader, String proxyClassName)
+    protected String getProxyClassName(Class<?> classToProxy, String suffix,
+                                       Method[] interceptedMethods, Method[] nonInterceptedMethods)
     {
-        proxyClassName = fixPreservedPackages(proxyClassName);
+        String proxyClassName = fixPreservedPackages(
+                (classToProxy.getSigners() != null ? getSignedClassProxyName(classToProxy) : classToProxy.getName()) + suffix);
 
-        String finalName = proxyClassName;
+        return proxyClassName + ProxyBytecodeCache.hash(generator + '|' + findJavaVersion(classToProxy),
+                interceptedMethods, nonInterceptedMethods);
+    }
 
-        for (int i = 0; i < MAX_CLASSLOAD_TRIES; i++)
+    /**
+     * The reflection API doesn't guarantee any method order.
+     * Sorting them makes the generated proxy name and bytecode stable across JVM runs.
+     *
+     * @return a sorted copy of the given methods or {@code null}
+     */
+    protected Method[] sortMethods(Method[] methods)
+    {
+        if (methods == null)
         {
-            try
-            {
-                finalName = proxyClassName + i;
-                Class.forName(finalName, true, classLoader);
-            }
-            catch (ClassNotFoundException cnfe)
-            {
-                // this is exactly what we need!
-                return finalName;
-            }
-            // otherwise we continue ;)
+            return null;
         }
 
-        throw new WebBeansException("Unable to detect a free proxy class name based on: " + proxyClassName);
+        Method[] sorted = methods.clone();
+        Arrays.sort(sorted, METHOD_ORDER);
+        return sorted;
     }
 
     protected  <T> String getSignedClassProxyName(final Class<T> classToProxy)
@@ -251,6 +315,10 @@ public abstract class AbstractProxyFactory
     }
 
     /**
+     * The proxy class gets generated at most once per ClassLoader and proxy class name.
+     * Concurrent requests for the same proxy wait for the first one
+     * while proxies for other classes get generated in parallel.
+     *
      * @param classLoader to use for creating the class in
      * @param classToProxy the class for which a subclass will get generated
      * @param interceptedMethods the list of intercepted or decorated business methods.
@@ -263,15 +331,91 @@ public abstract class AbstractProxyFactory
                                                       Constructor<T> constructor)
             throws ProxyGenerationException
     {
+        ProxyClassKey key = new ProxyClassKey(classLoader, proxyClassName);
+        FutureTask<Class<?>> proxyClassTask = proxyClasses.get(key);
+        if (proxyClassTask == null)
+        {
+            FutureTask<Class<?>> newTask = new FutureTask<>(
+                () -> defineProxyClass(classLoader, proxyClassName, classToProxy, interceptedMethods, nonInterceptedMethods, constructor));
+            proxyClassTask = proxyClasses.putIfAbsent(key, newTask);
+            if (proxyClassTask == null)
+            {
+                proxyClassTask = newTask;
+                newTask.run();
+            }
+        }
+
+        try
+        {
+            return (Class<T>) proxyClassTask.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new ProxyGenerationException(e);
+        }
+        catch (ExecutionException e)
+        {
+            // allow a later retry
+            proxyClasses.remove(key, proxyClassTask);
+
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            throw new ProxyGenerationException(cause);
+        }
+    }
+
+    private <T> Class<T> defineProxyClass(ClassLoader classLoader, String proxyClassName, Class<T> classToProxy,
+                                          Method[] interceptedMethods, Method[] nonInterceptedMethods,
+                                          Constructor<T> constructor)
+            throws ProxyGenerationException
+    {
+        Class<T> existingClass = loadExistingProxyClass(classLoader, proxyClassName, classToProxy);
+        if (existingClass != null)
+        {
+            return existingClass;
+        }
+
         String proxyClassFileName = proxyClassName.replace('.', '/');
 
-        byte[] proxyBytes = generateProxy(classLoader,
-                classToProxy,
-                proxyClassName,
-                proxyClassFileName,
-                sortOutDuplicateMethods(interceptedMethods),
-                sortOutDuplicateMethods(nonInterceptedMethods),
-                constructor);
+        Method[] proxiedInterceptedMethods = sortOutDuplicateMethods(interceptedMethods);
+        Method[] proxiedNonInterceptedMethods = sortOutDuplicateMethods(nonInterceptedMethods);
+
+        byte[] proxyBytes = null;
+        String cacheKey = null;
+        if (bytecodeCache != null)
+        {
+            cacheKey = bytecodeCache.createKey(getClass().getName(), javaVersion, proxyClassName, classToProxy,
+                    proxiedInterceptedMethods, proxiedNonInterceptedMethods, constructor);
+            if (cacheKey != null)
+            {
+                proxyBytes = bytecodeCache.load(cacheKey);
+            }
+        }
+
+        if (proxyBytes == null)
+        {
+            proxyBytes = generateProxy(classLoader,
+                    classToProxy,
+                    proxyClassName,
+                    proxyClassFileName,
+                    proxiedInterceptedMethods,
+                    proxiedNonInterceptedMethods,
+                    constructor);
+
+            if (cacheKey != null)
+            {
+                bytecodeCache.store(cacheKey, proxyBytes);
+            }
+        }
+
+        if (proxyOutputDirectory != null)
+        {
+            writeProxyClass(proxyClassFileName, proxyBytes);
+        }
 
         if (definingService != null)
         {
@@ -280,7 +424,57 @@ public abstract class AbstractProxyFactory
         return unsafe.defineAndLoadClass(classLoader, proxyClassName, proxyBytes);
     }
 
-    private Method[] sortOutDuplicateMethods(Method[] methods)
+    private void writeProxyClass(String proxyClassFileName, byte[] proxyBytes)
+    {
+        File file = new File(proxyOutputDirectory, proxyClassFileName + ".class");
+        try
+        {
+            File directory = file.getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory())
+            {
+                throw new IOException("Cannot create directory " + directory);
+            }
+            Files.write(file.toPath(), proxyBytes);
+        }
+        catch (IOException e)
+        {
+            throw new ProxyGenerationException("Cannot write proxy class " + file, e);
+        }
+    }
+
+    /**
+     * Proxy class names are deterministic, thus a class with the very same name
+     * has been generated for the same class and methods already and can be reused.
+     *
+     * The class might also have been defined by the factory of another WebBeansContext
+     * in a shared ClassLoader, or got packaged with the application at build time.
+     * As the name contains the generator, such a class got generated by the same
+     * OpenWebBeans release with the same configuration. Reusing it is safe:
+     * a proxy instance keeps all container state in instance fields,
+     * i.e. its handler or instance provider.
+     * The only static state are the proxied Method arrays which get set after the class got loaded.
+     * Those are fully determined by the proxied class and the sorted method signatures the name
+     * got hashed from, thus every factory sets an equal array on the very same class.
+     */
+    private <T> Class<T> loadExistingProxyClass(ClassLoader classLoader, String proxyClassName, Class<T> classToProxy)
+    {
+        ClassLoader proxyClassLoader = definingService != null ? definingService.getProxyClassLoader(classToProxy) : classLoader;
+        try
+        {
+            Class<?> existingClass = Class.forName(proxyClassName, true, proxyClassLoader);
+            if (classToProxy.isAssignableFrom(existingClass))
+            {
+                return (Class<T>) existingClass;
+            }
+        }
+        catch (ClassNotFoundException | LinkageError e)
+        {
+            // this is exactly what we expect, the proxy needs to get generated
+        }
+        return null;
+    }
+
+    protected Method[] sortOutDuplicateMethods(Method[] methods)
     {
         if (methods == null || methods.length == 0)
         {
@@ -517,7 +711,7 @@ public abstract class AbstractProxyFactory
         {
             mv.visitInsn(Opcodes.ICONST_5);
         }
-        else if (i > 5 && i <= 255)
+        else if (i > 5 && i <= Byte.MAX_VALUE)
         {
             mv.visitIntInsn(Opcodes.BIPUSH, i);
         }
@@ -722,6 +916,41 @@ public abstract class AbstractProxyFactory
     }
 
 
+    private static final class ProxyClassKey
+    {
+        private final ClassLoader classLoader;
+        private final String proxyClassName;
+        private final int hashCode;
+
+        private ProxyClassKey(ClassLoader classLoader, String proxyClassName)
+        {
+            this.classLoader = classLoader;
+            this.proxyClassName = proxyClassName;
+            hashCode = 31 * System.identityHashCode(classLoader) + proxyClassName.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof ProxyClassKey))
+            {
+                return false;
+            }
+            ProxyClassKey other = (ProxyClassKey) o;
+            return classLoader == other.classLoader && proxyClassName.equals(other.proxyClassName);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+
     private static class VersionVisitor extends EmptyVisitor
     {
         private int version;
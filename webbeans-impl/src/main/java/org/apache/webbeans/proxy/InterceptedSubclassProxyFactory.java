@@ -0,0 +1,437 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.proxy;
+
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import javax.enterprise.inject.spi.Interceptor;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.exception.ProxyGenerationException;
+import org.apache.webbeans.exception.WebBeansConfigurationException;
+import org.apache.webbeans.intercept.SubclassInvocationContext;
+import org.apache.xbean.asm7.ClassWriter;
+import org.apache.xbean.asm7.Label;
+import org.apache.xbean.asm7.MethodVisitor;
+import org.apache.xbean.asm7.Opcodes;
+import org.apache.xbean.asm7.Type;
+
+/**
+ * <p>Generates a subclass of an intercepted bean class. Instances of this subclass
+ * <i>are</i> the contextual instances. Thus there is no separate proxy instance
+ * wrapping the bean instance.</p>
+ *
+ * <p>Only the intercepted methods get overridden. Each of them picks its interceptor chain
+ * by its method index out of the chains which got set via
+ * {@link OwbInterceptedSubclass#owbSetInterceptors(Interceptor[][], Map)} and directly
+ * invokes {@link SubclassInvocationContext}. There is neither an InterceptorHandler
+ * nor any Method lookup involved. The end of the interceptor chain invokes the original
+ * method via {@link OwbInterceptedSubclass#owbInvokeSuper(int, Object[])}.
+ * All other methods are not touched at all.</p>
+ *
+ * <p>This is only possible for beans without decorators which are not Serializable.</p>
+ */
+public class InterceptedSubclassProxyFactory extends AbstractProxyFactory
+{
+    /**
+     * The interceptor chains by method index, shared by all instances of a bean.
+     */
+    public static final String FIELD_INTERCEPTOR_CHAINS = "owbIntChains";
+
+    /**
+     * The interceptor instances of the intercepted instance.
+     */
+    public static final String FIELD_INTERCEPTOR_INSTANCES = "owbIntInstances";
+
+    private static final String PROXY_CLASS_NAME_SUFFIX = "$$OwbInterceptedSubclass";
+    private static final String INTERCEPTOR_CHAINS_DESCRIPTOR = Type.getDescriptor(Interceptor[][].class);
+    private static final String INTERCEPTOR_INSTANCES_DESCRIPTOR = Type.getDescriptor(Map.class);
+
+    public InterceptedSubclassProxyFactory(WebBeansContext webBeansContext)
+    {
+        super(webBeansContext);
+    }
+
+    @Override
+    protected Class getMarkerInterface()
+    {
+        return OwbInterceptedSubclass.class;
+    }
+
+    /**
+     * @return whether instances of the given class can get created as intercepted subclass
+     *         via the given constructor
+     */
+    public boolean isSubclassable(Class<?> beanClass, Constructor<?> constructor)
+    {
+        int modifiers = beanClass.getModifiers();
+        return !beanClass.isInterface()
+            && !Modifier.isFinal(modifiers)
+            && !Modifier.isAbstract(modifiers)
+            && !Modifier.isPrivate(modifiers)
+            && (beanClass.getEnclosingClass() == null || Modifier.isStatic(modifiers))
+            && !Serializable.class.isAssignableFrom(beanClass)
+            && constructor != null
+            && !Modifier.isPrivate(constructor.getModifiers());
+    }
+
+    /**
+     * @param classLoader to use for creating the class
+     * @param classToProxy the bean class which gets subclassed
+     * @param interceptedMethods the intercepted business methods, must not be empty
+     * @param constructor the constructor which gets used to create the bean instances
+     * @return the subclass which has a constructor with the same parameters as the given one
+     */
+    public <T> Class<T> createProxyClass(ClassLoader classLoader, Class<T> classToProxy,
+                                         Method[] interceptedMethods, Constructor<T> constructor)
+            throws ProxyGenerationException
+    {
+        // the method index must match the position in the generated class
+        interceptedMethods = sortOutDuplicateMethods(sortMethods(interceptedMethods));
+        if (interceptedMethods == null)
+        {
+            throw new ProxyGenerationException("No intercepted methods for " + classToProxy.getName());
+        }
+
+        String proxyClassName = getProxyClassName(classToProxy, PROXY_CLASS_NAME_SUFFIX, interceptedMethods, null);
+
+        Class<T> clazz = createProxyClass(classLoader, proxyClassName, classToProxy, interceptedMethods, null, constructor);
+
+        try
+        {
+            Field interceptedMethodsField = clazz.getDeclaredField(InterceptorDecoratorProxyFactory.FIELD_INTERCEPTED_METHODS);
+            interceptedMethodsField.setAccessible(true);
+            interceptedMethodsField.set(null, interceptedMethods);
+        }
+        catch (Exception e)
+        {
+            throw new ProxyGenerationException(e);
+        }
+
+        return clazz;
+    }
+
+    /**
+     * @return the intercepted methods of the given subclass, the position is the method index
+     *         as used by {@link OwbInterceptedSubclass#owbInvokeSuper(int, Object[])}
+     */
+    public Method[] getInterceptedMethods(Class<?> proxyClass)
+    {
+        try
+        {
+            Field interceptedMethodsField = proxyClass.getDeclaredField(InterceptorDecoratorProxyFactory.FIELD_INTERCEPTED_METHODS);
+            interceptedMethodsField.setAccessible(true);
+            return (Method[]) interceptedMethodsField.get(null);
+        }
+        catch (Exception e)
+        {
+            throw new ProxyGenerationException(e);
+        }
+    }
+
+    @Override
+    protected void createInstanceVariables(ClassWriter cw, Class<?> classToProxy, String classFileName)
+    {
+        // variable #1, the interceptor chains
+        cw.visitField(Opcodes.ACC_PRIVATE, FIELD_INTERCEPTOR_CHAINS, INTERCEPTOR_CHAINS_DESCRIPTOR, null, null).visitEnd();
+
+        // variable #2, the interceptor instances
+        cw.visitField(Opcodes.ACC_PRIVATE, FIELD_INTERCEPTOR_INSTANCES, INTERCEPTOR_INSTANCES_DESCRIPTOR, null, null).visitEnd();
+
+        // variable #3, the Method[] of all intercepted methods.
+        cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC,
+                InterceptorDecoratorProxyFactory.FIELD_INTERCEPTED_METHODS, Type.getDescriptor(Method[].class), null, null).visitEnd();
+    }
+
+    @Override
+    protected void createSerialisation(ClassWriter cw, String proxyClassFileName, Class<?> classToProxy, String classFileName)
+    {
+        // only used for non Serializable classes
+    }
+
+    /**
+     * The subclass gets a single constructor with the same parameters like the bean constructor.
+     * It just invokes the super constructor.
+     */
+    @Override
+    protected void createConstructor(ClassWriter cw, String proxyClassFileName, Class<?> classToProxy, String classFileName,
+                                     Constructor<?> constructor)
+            throws ProxyGenerationException
+    {
+        Class<?>[] exceptionTypes = constructor.getExceptionTypes();
+        String[] exceptionTypeNames = new String[exceptionTypes.length];
+        for (int i = 0; i < exceptionTypes.length; i++)
+        {
+            exceptionTypeNames[i] = Type.getInternalName(exceptionTypes[i]);
+        }
+
+        String descriptor = Type.getConstructorDescriptor(constructor);
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", descriptor, null, exceptionTypeNames);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        loadParameters(mv, constructor.getParameterTypes());
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, classFileName, "<init>", descriptor, false);
+
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
+    @Override
+    protected void delegateNonInterceptedMethods(ClassLoader classLoader, ClassWriter cw, String proxyClassFileName,
+                                                 Class<?> classToProxy, Method[] noninterceptedMethods)
+    {
+        // not intercepted methods just stay as they are
+    }
+
+    @Override
+    protected void delegateInterceptedMethods(ClassLoader classLoader, ClassWriter cw, String proxyClassFileName,
+                                              Class<?> classToProxy, Method[] interceptedMethods)
+            throws ProxyGenerationException
+    {
+        String classFileName = Type.getInternalName(classToProxy);
+        for (int i = 0; i < interceptedMethods.length; i++)
+        {
+            generateInterceptedMethod(cw, interceptedMethods[i], i, classToProxy, proxyClassFileName, classFileName);
+        }
+
+        generateSetInterceptors(cw, proxyClassFileName);
+        generateGetInterceptorInstances(cw, proxyClassFileName);
+        generateInvokeSuper(cw, interceptedMethods, classFileName);
+    }
+
+    /**
+     * The following code gets generated for each intercepted method:
+     *
+     * <pre>
+     * if (owbIntChains == null)
+     * {
+     *     return super.method(params);
+     * }
+     * return SubclassInvocationContext.invoke(this, owbIntChains[methodIndex], owbIntInstances,
+     *                                         owbIntDecMethods[methodIndex], methodIndex, new Object[]{params});
+     * </pre>
+     *
+     * The interceptors are not set while the super constructor runs.
+     */
+    private void generateInterceptedMethod(ClassWriter cw, Method method, int methodIndex, Class<?> classToProxy,
+                                           String proxyClassFileName, String classFileName)
+            throws ProxyGenerationException
+    {
+        int modifiers = method.getModifiers();
+        if (Modifier.isFinal(modifiers) || Modifier.isStatic(modifiers))
+        {
+            throw new WebBeansConfigurationException("It's not possible to proxy a final or static method: " + classToProxy.getName() +
+                                                     " " + method.getName());
+        }
+
+        Class<?> returnType = method.getReturnType();
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        String methodDescriptor = Type.getMethodDescriptor(method);
+
+        Class<?>[] exceptionTypes = method.getExceptionTypes();
+        String[] exceptionTypeNames = new String[exceptionTypes.length];
+        for (int i = 0; i < exceptionTypes.length; i++)
+        {
+            exceptionTypeNames[i] = Type.getInternalName(exceptionTypes[i]);
+        }
+
+        int targetModifiers = modifiers & (Opcodes.ACC_PUBLIC | Opcodes.ACC_PROTECTED | Opcodes.ACC_VARARGS);
+        MethodVisitor mv = cw.visitMethod(targetModifiers, method.getName(), methodDescriptor, null, exceptionTypeNames);
+        mv.visitCode();
+
+        Label intercepted = new Label();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, proxyClassFileName, FIELD_INTERCEPTOR_CHAINS, INTERCEPTOR_CHAINS_DESCRIPTOR);
+        mv.visitJumpInsn(Opcodes.IFNONNULL, intercepted);
+
+        // no interceptors yet, invoke the bean method directly
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        loadParameters(mv, parameterTypes);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, classFileName, method.getName(), methodDescriptor, false);
+        generateReturn(mv, method);
+
+        mv.visitLabel(intercepted);
+
+        // this
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+
+        // the interceptor chain of this method
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, proxyClassFileName, FIELD_INTERCEPTOR_CHAINS, INTERCEPTOR_CHAINS_DESCRIPTOR);
+        pushIntOntoStack(mv, methodIndex);
+        mv.visitInsn(Opcodes.AALOAD);
+
+        // the interceptor instances
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, proxyClassFileName, FIELD_INTERCEPTOR_INSTANCES, INTERCEPTOR_INSTANCES_DESCRIPTOR);
+
+        // the Method from the static array
+        mv.visitFieldInsn(Opcodes.GETSTATIC, proxyClassFileName, InterceptorDecoratorProxyFactory.FIELD_INTERCEPTED_METHODS,
+                Type.getDescriptor(Method[].class));
+        pushIntOntoStack(mv, methodIndex);
+        mv.visitInsn(Opcodes.AALOAD);
+
+        pushIntOntoStack(mv, methodIndex);
+        pushMethodParameterArray(mv, parameterTypes);
+
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(SubclassInvocationContext.class), "invoke",
+                "(" + Type.getDescriptor(OwbInterceptedSubclass.class) + Type.getDescriptor(Interceptor[].class)
+                    + INTERCEPTOR_INSTANCES_DESCRIPTOR + Type.getDescriptor(Method.class) + "I[Ljava/lang/Object;)Ljava/lang/Object;",
+                false);
+
+        if (Void.TYPE.equals(returnType))
+        {
+            mv.visitInsn(Opcodes.POP);
+            mv.visitInsn(Opcodes.RETURN);
+        }
+        else
+        {
+            unbox(mv, returnType);
+            mv.visitInsn(getReturnInsn(returnType));
+        }
+
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
+    private void generateSetInterceptors(ClassWriter cw, String proxyClassFileName)
+    {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "owbSetInterceptors",
+                "(" + INTERCEPTOR_CHAINS_DESCRIPTOR + INTERCEPTOR_INSTANCES_DESCRIPTOR + ")V", null, null);
+        mv.visitCode();
+        // the instances first as the chains activate the interception
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        mv.visitFieldInsn(Opcodes.PUTFIELD, proxyClassFileName, FIELD_INTERCEPTOR_INSTANCES, INTERCEPTOR_INSTANCES_DESCRIPTOR);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitFieldInsn(Opcodes.PUTFIELD, proxyClassFileName, FIELD_INTERCEPTOR_CHAINS, INTERCEPTOR_CHAINS_DESCRIPTOR);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
+    private void generateGetInterceptorInstances(ClassWriter cw, String proxyClassFileName)
+    {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "owbGetInterceptorInstances",
+                "()" + INTERCEPTOR_INSTANCES_DESCRIPTOR, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, proxyClassFileName, FIELD_INTERCEPTOR_INSTANCES, INTERCEPTOR_INSTANCES_DESCRIPTOR);
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
+    /**
+     * Generates a switch over all intercepted methods which invokes the super method
+     * with the unboxed parameters and returns the boxed result.
+     */
+    private void generateInvokeSuper(ClassWriter cw, Method[] interceptedMethods, String classFileName)
+            throws ProxyGenerationException
+    {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "owbInvokeSuper", "(I[Ljava/lang/Object;)Ljava/lang/Object;",
+                null, new String[]{Type.getInternalName(Exception.class)});
+        mv.visitCode();
+
+        Label unknownMethod = new Label();
+        Label[] labels = new Label[interceptedMethods.length];
+        for (int i = 0; i < labels.length; i++)
+        {
+            labels[i] = new Label();
+        }
+
+        if (labels.length > 0)
+        {
+            mv.visitVarInsn(Opcodes.ILOAD, 1);
+            mv.visitTableSwitchInsn(0, labels.length - 1, unknownMethod, labels);
+        }
+
+        for (int i = 0; i < interceptedMethods.length; i++)
+        {
+            Method method = interceptedMethods[i];
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            Class<?> returnType = method.getReturnType();
+
+            mv.visitLabel(labels[i]);
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            for (int j = 0; j < parameterTypes.length; j++)
+            {
+                mv.visitVarInsn(Opcodes.ALOAD, 2);
+                pushIntOntoStack(mv, j);
+                mv.visitInsn(Opcodes.AALOAD);
+                unbox(mv, parameterTypes[j]);
+            }
+            mv.visitMethodInsn(Opcodes.INVOKESPECIAL, classFileName, method.getName(), Type.getMethodDescriptor(method), false);
+
+            if (Void.TYPE.equals(returnType))
+            {
+                mv.visitInsn(Opcodes.ACONST_NULL);
+            }
+            else if (returnType.isPrimitive())
+            {
+                String wrapperType = getWrapperType(returnType);
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, wrapperType, "valueOf",
+                        "(" + Type.getDescriptor(returnType) + ")L" + wrapperType + ";", false);
+            }
+            mv.visitInsn(Opcodes.ARETURN);
+        }
+
+        mv.visitLabel(unknownMethod);
+        mv.visitTypeInsn(Opcodes.NEW, Type.getInternalName(IllegalArgumentException.class));
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitLdcInsn("Unknown method index");
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(IllegalArgumentException.class), "<init>",
+                "(Ljava/lang/String;)V", false);
+        mv.visitInsn(Opcodes.ATHROW);
+
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
+    private void loadParameters(MethodVisitor mv, Class<?>[] parameterTypes)
+    {
+        int offset = 1;
+        for (Class<?> parameterType : parameterTypes)
+        {
+            Type type = Type.getType(parameterType);
+            mv.visitVarInsn(type.getOpcode(Opcodes.ILOAD), offset);
+            offset += type.getSize();
+        }
+    }
+
+    /**
+     * Casts the Object on top of the stack to the given type, primitives get unboxed.
+     */
+    private void unbox(MethodVisitor mv, Class<?> type)
+    {
+        mv.visitTypeInsn(Opcodes.CHECKCAST, getCastType(type));
+        if (type.isPrimitive())
+        {
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, getWrapperType(type), getPrimitiveMethod(type),
+                    "()" + Type.getDescriptor(type), false);
+        }
+    }
+}
@@ -67,6 +67,8 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
     /** the name of the field which stores the Method[] of all intercepted methods */
     public static final String FIELD_INTERCEPTED_METHODS = "owbIntDecMethods";
 
+    private static final String PROXY_CLASS_NAME_SUFFIX = "$$OwbInterceptProxy";
+
     /**
      * Caches the proxy classes for each bean.
      * We need this to prevent filling up the ClassLoaders by
@@ -116,7 +118,12 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
     {
         try
         {
-            if (proxyInstance instanceof OwbInterceptorProxy)
+            if (proxyInstance instanceof OwbInterceptedSubclass)
+            {
+                // the intercepted subclass is the instance itself
+                return proxyInstance;
+            }
+            else if (proxyInstance instanceof OwbInterceptorProxy)
             {
                 Field internalInstanceField = proxyInstance.getClass().getDeclaredField(FIELD_PROXIED_INSTANCE);
                 internalInstanceField.setAccessible(true);
@@ -134,10 +141,16 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
     }
 
     /**
-     * @return the internal instance which gets proxied.
+     * @return the InterceptorHandler of the proxy,
+     *         {@code null} for an {@link OwbInterceptedSubclass} which has no handler.
      */
     public InterceptorHandler getInterceptorHandler(OwbInterceptorProxy proxyInstance)
     {
+        if (proxyInstance instanceof OwbInterceptedSubclass)
+        {
+            return null;
+        }
+
         try
         {
             Field internalInstanceField = proxyInstance.getClass().getDeclaredField(FIELD_INTERCEPTOR_HANDLER);
@@ -181,7 +194,7 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
      * @param <T>
      * @return the proxy class
      */
-    public synchronized <T> Class<T> createProxyClass(Bean<T> bean, ClassLoader classLoader, Class<T> classToProxy,
+    public <T> Class<T> createProxyClass(Bean<T> bean, ClassLoader classLoader, Class<T> classToProxy,
                                                       Method[] interceptedMethods, Method[] nonInterceptedMethods)
             throws ProxyGenerationException
     {
@@ -190,7 +203,7 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
         return proxyClass;
     }
 
-    public synchronized <T> Class<T> createProxyClass(InterceptorResolutionService.BeanInterceptorInfo interceptorInfo,
+    public <T> Class<T> createProxyClass(InterceptorResolutionService.BeanInterceptorInfo interceptorInfo,
                                                       AnnotatedType<T> at, ClassLoader classLoader)
             throws ProxyGenerationException
     {
@@ -208,10 +221,10 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
                                           Method[] interceptedMethods, Method[] nonInterceptedMethods)
             throws ProxyGenerationException
     {
-        String proxyClassName = getUnusedProxyClassName(
-                classLoader,
-                (classToProxy.getSigners() != null ? getSignedClassProxyName(classToProxy) : classToProxy.getName()) + "$$OwbInterceptProxy");
+        interceptedMethods = sortMethods(interceptedMethods);
+        nonInterceptedMethods = sortMethods(nonInterceptedMethods);
 
+        String proxyClassName = getProxyClassName(classToProxy, PROXY_CLASS_NAME_SUFFIX, interceptedMethods, nonInterceptedMethods);
 
         Class<T> clazz = createProxyClass(classLoader, proxyClassName, classToProxy, interceptedMethods, nonInterceptedMethods);
 
@@ -37,11 +37,13 @@ import org.apache.webbeans.config.OpenWebBeansConfiguration;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.exception.ProxyGenerationException;
 import org.apache.webbeans.exception.WebBeansConfigurationException;
+import org.apache.webbeans.intercept.ApplicationScopedBeanInterceptorHandler;
 import org.apache.webbeans.intercept.NormalScopedBeanInterceptorHandler;
 import org.apache.webbeans.util.ClassUtil;
 import org.apache.webbeans.util.ExceptionUtil;
 import org.apache.webbeans.util.WebBeansUtil;
 import org.apache.xbean.asm7.ClassWriter;
+import org.apache.xbean.asm7.Label;
 import org.apache.xbean.asm7.MethodVisitor;
 import org.apache.xbean.asm7.Opcodes;
 import org.apache.xbean.asm7.Type;
@@ -59,16 +61,39 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
     /** the Method[] for all protected methods. We need to invoke them via reflection. */
     public static final String FIELD_PROTECTED_METHODS = "owbProtectedMethods";
 
+    /**
+     * the name of the field which caches the Contextual Instance
+     * in proxies of beans with a caching {@link ApplicationScopedBeanInterceptorHandler}
+     */
+    public static final String FIELD_CACHED_INSTANCE = "owbCachedContextualInstance";
+
+    private static final String PROXY_CLASS_NAME_SUFFIX = "$$OwbNormalScopeProxy";
+
+    private static final String CACHING_PROXY_CLASS_NAME_SUFFIX = "$$OwbApplicationScopeProxy";
+
     /**
      * Caches the proxy classes for each bean.
      * We need this to prevent filling up the ClassLoaders by
      */
     private ConcurrentMap<Bean<?>, Class<?>> cachedProxyClasses = new ConcurrentHashMap<>();
 
+    /**
+     * Generates the proxies which read the Contextual Instance from a field
+     * instead of invoking the Provider for each method call.
+     */
+    private final NormalScopeProxyFactory cachingProxyFactory;
+
 
     public NormalScopeProxyFactory(WebBeansContext webBeansContext)
     {
         super(webBeansContext);
+        cachingProxyFactory = new CachingNormalScopeProxyFactory(webBeansContext);
+    }
+
+    private NormalScopeProxyFactory(WebBeansContext webBeansContext, NormalScopeProxyFactory cachingProxyFactory)
+    {
+        super(webBeansContext);
+        this.cachingProxyFactory = cachingProxyFactory;
     }
 
     @Override
@@ -117,47 +142,100 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
 
     public <T> T createNormalScopeProxy(Bean<T> bean)
     {
-        ClassLoader classLoader;
-        if (bean.getBeanClass() != null)
+        ClassLoader classLoader = getProxyClassLoader(bean);
+
+        Class<? extends T> proxyClass = (Class<? extends T>) cachedProxyClasses.get(bean);
+
+        if (proxyClass == null)
         {
-            classLoader = getProxyClassLoader(bean.getBeanClass());
+            proxyClass = createProxyClass(bean, classLoader, getClassToProxy(bean));
         }
-        else if (OwbBean.class.isInstance(bean) && OwbBean.class.cast(bean).getReturnType() != null)
+
+        return createProxyInstance(proxyClass, getInstanceProvider(classLoader, bean));
+    }
+
+    /**
+     * Create the proxy class for the given normal-scoped bean without creating a proxy instance.
+     * This is used to generate the proxy classes eagerly at boot time.
+     *
+     * @return the cached or freshly generated proxy class
+     */
+    public <T> Class<T> createProxyClass(Bean<T> bean)
+    {
+        Class<T> proxyClass = (Class<T>) cachedProxyClasses.get(bean);
+
+        if (proxyClass == null)
         {
-            classLoader = getProxyClassLoader(OwbBean.class.cast(bean).getReturnType());
+            proxyClass = createProxyClass(bean, getProxyClassLoader(bean), getClassToProxy(bean));
         }
-        else
+
+        return proxyClass;
+    }
+
+    private ClassLoader getProxyClassLoader(Bean<?> bean)
+    {
+        if (bean.getBeanClass() != null)
+        {
+            return getProxyClassLoader(bean.getBeanClass());
+        }
+        else if (OwbBean.class.isInstance(bean) && OwbBean.class.cast(bean).getReturnType() != null)
         {
-            classLoader = WebBeansUtil.getCurrentClassLoader();
+            return getProxyClassLoader(OwbBean.class.cast(bean).getReturnType());
         }
+        return WebBeansUtil.getCurrentClassLoader();
+    }
 
-        Class<T> classToProxy;
+    private <T> Class<T> getClassToProxy(Bean<T> bean)
+    {
         if (bean instanceof OwbBean)
         {
-            classToProxy = ((OwbBean<T>) bean).getReturnType();
+            return ((OwbBean<T>) bean).getReturnType();
         }
-        else
+
+        // TODO: that might be wrong sometimes
+        return (Class<T>) bean.getBeanClass();
+    }
+
+    /**
+     * Drops the Contextual Instance which might be cached in the given proxy
+     * and its Provider. The next method invocation will resolve it from the Context again.
+     * This needs to be done once the ApplicationContext gets destroyed.
+     */
+    public static void resetCachedInstance(Object proxyInstance)
+    {
+        if (!(proxyInstance instanceof OwbNormalScopeProxy))
         {
-            // TODO: that might be wrong sometimes
-            classToProxy = (Class<T>) bean.getBeanClass();
+            return;
         }
 
-        Class<? extends T> proxyClass = (Class<? extends T>) cachedProxyClasses.get(bean);
+        try
+        {
+            Field providerField = proxyInstance.getClass().getDeclaredField(FIELD_INSTANCE_PROVIDER);
+            providerField.setAccessible(true);
+            Object provider = providerField.get(proxyInstance);
+            if (provider instanceof ApplicationScopedBeanInterceptorHandler)
+            {
+                ((ApplicationScopedBeanInterceptorHandler) provider).resetCachedInstance();
+            }
 
-        if (proxyClass == null)
+            Field cachedInstanceField = proxyInstance.getClass().getDeclaredField(FIELD_CACHED_INSTANCE);
+            cachedInstanceField.setAccessible(true);
+            cachedInstanceField.set(proxyInstance, null);
+        }
+        catch (NoSuchFieldException e)
         {
-            proxyClass = createProxyClass(bean, classLoader, classToProxy);
+            // not a caching proxy, nothing to reset
+        }
+        catch (Exception e)
+        {
+            throw ExceptionUtil.throwAsRuntimeException(e);
         }
-
-        return createProxyInstance(proxyClass, getInstanceProvider(classLoader, bean));
     }
 
     public Provider getInstanceProvider(ClassLoader classLoader, Bean<?> bean)
     {
-        String scopeClassName = bean.getScope().getName();
         Class<? extends Provider> instanceProviderClass = null;
-        String proxyMappingConfigKey = OpenWebBeansConfiguration.PROXY_MAPPING_PREFIX + scopeClassName;
-        String className = webBeansContext.getOpenWebBeansConfiguration().getProperty(proxyMappingConfigKey);
+        String className = getInstanceProviderClassName(bean);
         if (className == null || NormalScopedBeanInterceptorHandler.class.getName().equals(className))
         {
             return new NormalScopedBeanInterceptorHandler(webBeansContext.getBeanManagerImpl(), bean);
@@ -191,14 +269,38 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
         }
     }
 
-    public synchronized <T> Class<T> createProxyClass(Bean<T> bean, ClassLoader classLoader, Class<T> classToProxy)
+    private String getInstanceProviderClassName(Bean<?> bean)
+    {
+        String proxyMappingConfigKey = OpenWebBeansConfiguration.PROXY_MAPPING_PREFIX + bean.getScope().getName();
+        return webBeansContext.getOpenWebBeansConfiguration().getProperty(proxyMappingConfigKey);
+    }
+
+    /**
+     * Get or create the proxy class for the given bean.
+     * This doesn't need any lock as the class generation itself only happens once per proxy class.
+     *
+     * If the bean uses the {@link ApplicationScopedBeanInterceptorHandler} then the proxy
+     * caches the Contextual Instance in a volatile field and delegates to it directly.
+     */
+    public <T> Class<T> createProxyClass(Bean<T> bean, ClassLoader classLoader, Class<T> classToProxy)
     {
         Class<T> proxyClass = (Class<T>) cachedProxyClasses.get(bean);
 
         if (proxyClass == null)
         {
-            proxyClass = createProxyClass(classLoader, classToProxy);
-            cachedProxyClasses.putIfAbsent(bean, proxyClass);
+            if (ApplicationScopedBeanInterceptorHandler.class.getName().equals(getInstanceProviderClassName(bean)))
+            {
+                proxyClass = cachingProxyFactory.createProxyClass(classLoader, classToProxy);
+            }
+            else
+            {
+                proxyClass = createProxyClass(classLoader, classToProxy);
+            }
+            Class<T> existing = (Class<T>) cachedProxyClasses.putIfAbsent(bean, proxyClass);
+            if (existing != null)
+            {
+                proxyClass = existing;
+            }
         }
 
         return proxyClass;
@@ -232,10 +334,6 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
     public <T> Class<T> createProxyClass(ClassLoader classLoader, Class<T> classToProxy)
             throws ProxyGenerationException
     {
-        String proxyClassName = getUnusedProxyClassName(
-                classLoader,
-                (classToProxy.getSigners() != null ? getSignedClassProxyName(classToProxy) : classToProxy.getName()) + "$$OwbNormalScopeProxy");
-
         Method[] nonInterceptedMethods;
         Method[] interceptedMethods = null;
         if (classToProxy.isInterface())
@@ -265,8 +363,11 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
             }
 
             nonInterceptedMethods = methods.toArray(new Method[methods.size()]);
-            interceptedMethods = protectedMethods.toArray(new Method[protectedMethods.size()]);
+            interceptedMethods = sortMethods(protectedMethods.toArray(new Method[protectedMethods.size()]));
         }
+        nonInterceptedMethods = sortMethods(nonInterceptedMethods);
+
+        String proxyClassName = getProxyClassName(classToProxy, getProxyClassNameSuffix(), interceptedMethods, nonInterceptedMethods);
 
         Class<T> clazz = createProxyClass(classLoader, proxyClassName, classToProxy, interceptedMethods, nonInterceptedMethods);
 
@@ -286,6 +387,11 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
         return clazz;
     }
 
+    protected String getProxyClassNameSuffix()
+    {
+        return PROXY_CLASS_NAME_SUFFIX;
+    }
+
     public <T> T createProxyInstance(Class<T> proxyClass, Provider provider)
             throws ProxyGenerationException
     {
@@ -409,12 +515,7 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
             // fill method body
             mv.visitCode();
 
-            // load the contextual instance Provider
-            mv.visitVarInsn(Opcodes.ALOAD, 0);
-            mv.visitFieldInsn(Opcodes.GETFIELD, proxyClassFileName, FIELD_INSTANCE_PROVIDER, Type.getDescriptor(Provider.class));
-
-            // invoke the get() method on the Provider
-            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(Provider.class), "get", "()Ljava/lang/Object;", true);
+            loadContextualInstance(mv, proxyClassFileName, classToProxy);
 
             // and convert the Object to the target class type
             mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(classToProxy));
@@ -444,6 +545,20 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
 
     }
 
+    /**
+     * Pushes the Contextual Instance onto the stack.
+     * By default it gets resolved via the {@link Provider} for each invocation.
+     */
+    protected void loadContextualInstance(MethodVisitor mv, String proxyClassFileName, Class<?> classToProxy)
+    {
+        // load the contextual instance Provider
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, proxyClassFileName, FIELD_INSTANCE_PROVIDER, Type.getDescriptor(Provider.class));
+
+        // invoke the get() method on the Provider
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(Provider.class), "get", "()Ljava/lang/Object;", true);
+    }
+
     private boolean isIgnoredMethod(final Method delegatedMethod)
     {
         return "writeReplace".equals(delegatedMethod.getName());
@@ -479,12 +594,8 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
         mv.visitInsn(Opcodes.AALOAD);
 
 
-        // now invoke the get() on the contextual instance Provider<T>
-        mv.visitVarInsn(Opcodes.ALOAD, 0);
-        mv.visitFieldInsn(Opcodes.GETFIELD, proxyClassFileName, FIELD_INSTANCE_PROVIDER, Type.getDescriptor(Provider.class));
-
-        // invoke the get() method on the Provider
-        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(Provider.class), "get", "()Ljava/lang/Object;", true);
+        // now load the contextual instance
+        loadContextualInstance(mv, proxyClassFileName, classToProxy);
 
 
         // prepare the parameter array as Object[] and store it on the stack
@@ -546,4 +657,70 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
         }
     }
 
+
+    /**
+     * Generates proxies for beans with exactly one Contextual Instance per application.
+     * The Contextual Instance gets resolved via the {@link Provider} on the first invocation
+     * and then stored in a volatile field. All further invocations read this field and
+     * delegate to the instance directly. The volatile field guarantees the safe publication
+     * of the instance to other threads.
+     *
+     * @see #resetCachedInstance(Object)
+     */
+    private static final class CachingNormalScopeProxyFactory extends NormalScopeProxyFactory
+    {
+        private CachingNormalScopeProxyFactory(WebBeansContext webBeansContext)
+        {
+            super(webBeansContext, null);
+        }
+
+        @Override
+        protected String getProxyClassNameSuffix()
+        {
+            return CACHING_PROXY_CLASS_NAME_SUFFIX;
+        }
+
+        @Override
+        protected void createInstanceVariables(ClassWriter cw, Class<?> classToProxy, String classFileName)
+        {
+            super.createInstanceVariables(cw, classToProxy, classFileName);
+
+            // variable #3, the cached Contextual Instance
+            cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_VOLATILE | Opcodes.ACC_TRANSIENT,
+                    FIELD_CACHED_INSTANCE, Type.getDescriptor(classToProxy), null, null).visitEnd();
+        }
+
+        /**
+         * The following code gets generated:
+         *
+         * <pre>
+         * T instance = owbCachedContextualInstance;
+         * if (instance == null)
+         * {
+         *     instance = (T) owbContextualInstanceProvider.get();
+         *     owbCachedContextualInstance = instance;
+         * }
+         * </pre>
+         */
+        @Override
+        protected void loadContextualInstance(MethodVisitor mv, String proxyClassFileName, Class<?> classToProxy)
+        {
+            String instanceDescriptor = Type.getDescriptor(classToProxy);
+            Label resolved = new Label();
+
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitFieldInsn(Opcodes.GETFIELD, proxyClassFileName, FIELD_CACHED_INSTANCE, instanceDescriptor);
+            mv.visitInsn(Opcodes.DUP);
+            mv.visitJumpInsn(Opcodes.IFNONNULL, resolved);
+            mv.visitInsn(Opcodes.POP);
+
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            super.loadContextualInstance(mv, proxyClassFileName, classToProxy);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(classToProxy));
+            mv.visitInsn(Opcodes.DUP_X1);
+            mv.visitFieldInsn(Opcodes.PUTFIELD, proxyClassFileName, FIELD_CACHED_INSTANCE, instanceDescriptor);
+
+            mv.visitLabel(resolved);
+        }
+    }
 }
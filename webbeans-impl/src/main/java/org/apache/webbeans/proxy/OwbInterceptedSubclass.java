@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.proxy;
+
+import java.util.Map;
+
+import javax.enterprise.inject.spi.Interceptor;
+
+/**
+ * Interface for intercepted beans which got instantiated as generated subclass
+ * instead of being wrapped by a separate Interceptor proxy.
+ *
+ * @see InterceptedSubclassProxyFactory
+ */
+public interface OwbInterceptedSubclass extends OwbInterceptorProxy
+{
+    /**
+     * Activate the interceptors. As long as they are not set all methods get invoked directly.
+     *
+     * @param interceptorChains the interceptor chain of each intercepted method by its method index,
+     *                          shared by all instances of the bean
+     * @param interceptorInstances the interceptor instances of this instance
+     */
+    void owbSetInterceptors(Interceptor<?>[][] interceptorChains, Map<Interceptor<?>, ?> interceptorInstances);
+
+    /**
+     * @return the interceptor instances of this instance, {@code null} if the interceptors are not set yet
+     */
+    Map<Interceptor<?>, ?> owbGetInterceptorInstances();
+
+    /**
+     * Invoke the original, not intercepted method of the bean class.
+     *
+     * @param methodIndex the index of the method in the intercepted methods of the subclass
+     * @param parameters the method parameters
+     * @return the return value of the method, {@code null} for void methods
+     */
+    Object owbInvokeSuper(int methodIndex, Object[] parameters) throws Exception;
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.proxy;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.util.ClassUtil;
+import org.apache.xbean.asm7.Type;
+
+/**
+ * Stores the bytecode of generated proxy classes in a directory.
+ *
+ * Each entry is keyed by the proxy class name plus a hash over the bytecode
+ * of the proxied class and the signatures of all proxied methods.
+ * Thus a changed bean class simply results in a cache miss.
+ *
+ * @see org.apache.webbeans.config.OpenWebBeansConfiguration#PROXY_CACHE_DIRECTORY
+ */
+public class ProxyBytecodeCache
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(ProxyBytecodeCache.class);
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File directory;
+
+    public ProxyBytecodeCache(File directory)
+    {
+        this.directory = directory;
+    }
+
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * @return the cache key for the given proxy or {@code null} if the bytecode
+     *         of the proxied class cannot be read and thus the proxy must not get cached.
+     */
+    public String createKey(String generator, int javaVersion, String proxyClassName, Class<?> classToProxy,
+                            Method[] interceptedMethods, Method[] nonInterceptedMethods, Constructor<?> constructor)
+    {
+        byte[] classBytes = ClassUtil.readClassBytes(classToProxy);
+        if (classBytes == null)
+        {
+            return null;
+        }
+
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-1");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            return null;
+        }
+
+        update(digest, generator);
+        update(digest, Integer.toString(javaVersion));
+        update(digest, proxyClassName);
+        digest.update(classBytes);
+        update(digest, interceptedMethods);
+        update(digest, "|");
+        update(digest, nonInterceptedMethods);
+        if (constructor != null)
+        {
+            update(digest, Type.getConstructorDescriptor(constructor));
+        }
+
+        return proxyClassName + '-' + toHex(digest.digest());
+    }
+
+    /**
+     * @param generator identifies the code generator which creates the proxy
+     * @return a stable hex hash over the generator and the signatures of the given methods
+     */
+    public static String hash(String generator, Method[] interceptedMethods, Method[] nonInterceptedMethods)
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-1");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+
+        update(digest, generator);
+        update(digest, interceptedMethods);
+        update(digest, "|");
+        update(digest, nonInterceptedMethods);
+
+        // 64 bit are plenty to distinguish the proxies of a single class
+        return toHex(Arrays.copyOf(digest.digest(), 8));
+    }
+
+    /**
+     * @return the stored bytecode or {@code null} if there is no such entry
+     */
+    public byte[] load(String key)
+    {
+        File file = getFile(key);
+        if (!file.isFile())
+        {
+            return null;
+        }
+
+        try
+        {
+            return Files.readAllBytes(file.toPath());
+        }
+        catch (IOException e)
+        {
+            logger.log(Level.FINE, "Cannot read cached proxy " + file, e);
+            return null;
+        }
+    }
+
+    public void store(String key, byte[] proxyBytes)
+    {
+        File file = getFile(key);
+        try
+        {
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory())
+            {
+                throw new IOException("Cannot create directory " + directory);
+            }
+
+            // write to a temporary file first so concurrent boots never see partial content
+            Path tmp = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+            Files.write(tmp, proxyBytes);
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.log(Level.WARNING, "Cannot store generated proxy in " + file, e);
+        }
+    }
+
+    private File getFile(String key)
+    {
+        return new File(directory, key + ".class");
+    }
+
+    private static void update(MessageDigest digest, Method[] methods)
+    {
+        if (methods == null)
+        {
+            return;
+        }
+        for (Method method : methods)
+        {
+            update(digest, method.getDeclaringClass().getName());
+            update(digest, method.getName());
+            update(digest, Type.getMethodDescriptor(method));
+            update(digest, Integer.toString(method.getModifiers()));
+        }
+    }
+
+    private static void update(MessageDigest digest, String value)
+    {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static String toHex(byte[] bytes)
+    {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
@@ -18,6 +18,9 @@
  */
 package org.apache.webbeans.util;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Array;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Method;
@@ -941,4 +944,38 @@ public final class ClassUtil
 
         return null;
     }
+
+    /**
+     * @return the bytecode of the given class or {@code null} if it cannot be read
+     */
+    public static byte[] readClassBytes(Class<?> clazz)
+    {
+        ClassLoader classLoader = clazz.getClassLoader();
+        if (classLoader == null)
+        {
+            classLoader = ClassLoader.getSystemClassLoader();
+        }
+
+        String resource = clazz.getName().replace('.', '/') + ".class";
+        try (InputStream stream = classLoader.getResourceAsStream(resource))
+        {
+            if (stream == null)
+            {
+                return null;
+            }
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = stream.read(buffer)) >= 0)
+            {
+                baos.write(buffer, 0, read);
+            }
+            return baos.toByteArray();
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+    }
 }
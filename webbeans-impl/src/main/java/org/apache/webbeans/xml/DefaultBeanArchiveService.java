@@ -20,15 +20,28 @@ package org.apache.webbeans.xml;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PushbackInputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,11 +55,10 @@ import org.apache.webbeans.util.UrlSet;
 import org.apache.webbeans.util.WebBeansConstants;
 import org.apache.xbean.finder.archive.FileArchive;
 import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 /**
  * Please note that this implementation is not thread safe.
+ * Only {@link #parseBeansXmls(Collection)} parses the given beans.xml files concurrently.
  */
 public class DefaultBeanArchiveService implements BeanArchiveService
 {
@@ -59,10 +71,18 @@ public class DefaultBeanArchiveService implements BeanArchiveService
     /**
      * Contains a map from the URL externalForm to the stored BeanArchiveInformation
      */
-    private Map<String, BeanArchiveInformation> beanArchiveInformations = new HashMap<>();
+    private Map<String, BeanArchiveInformation> beanArchiveInformations = new ConcurrentHashMap<>();
+
+    /**
+     * beans.xml files which got parsed upfront via {@link #parseBeansXmls(Collection)},
+     * keyed by the decoded URL externalForm.
+     */
+    private final ConcurrentMap<String, BeanArchiveInformation> parsedBeansXmls = new ConcurrentHashMap<>();
 
     private UrlSet registeredBeanArchives = new UrlSet();
 
+    private volatile XMLInputFactory xmlInputFactory;
+
 
     @Override
     public BeanArchiveInformation getBeanArchiveInformation(URL beanArchiveUrl)
@@ -192,6 +212,69 @@ public class DefaultBeanArchiveService implements BeanArchiveService
         return mergedList;
     }
 
+    /**
+     * Parses the given beans.xml files in parallel.
+     * The result gets picked up when {@link #getBeanArchiveInformation(URL)} gets invoked for those URLs later on.
+     * Files which cannot get parsed are ignored here and will fail in {@link #getBeanArchiveInformation(URL)}.
+     */
+    public void parseBeansXmls(Collection<URL> beansXmlUrls)
+    {
+        int parallelism = Math.min(beansXmlUrls.size(), Runtime.getRuntime().availableProcessors());
+        if (parallelism <= 1)
+        {
+            // nothing to gain, they get parsed on demand
+            return;
+        }
+
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable ->
+        {
+            Thread thread = new Thread(runnable, "OpenWebBeans-BeansXmlParser-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            // the <scan> conditions get evaluated against the context ClassLoader
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        });
+
+        try
+        {
+            List<Future<?>> parsings = new ArrayList<>(beansXmlUrls.size());
+            for (URL beansXmlUrl : beansXmlUrls)
+            {
+                String beansXmlLocation = FileArchive.decode(beansXmlUrl.toExternalForm());
+                if (!beansXmlLocation.endsWith(".xml") || beanArchiveInformations.containsKey(beansXmlLocation))
+                {
+                    continue;
+                }
+
+                parsings.add(executor.submit(() ->
+                    parsedBeansXmls.put(beansXmlLocation, readBeansXml(beansXmlUrl, beansXmlLocation))));
+            }
+
+            for (Future<?> parsing : parsings)
+            {
+                try
+                {
+                    parsing.get();
+                }
+                catch (ExecutionException e)
+                {
+                    // will get reported when the bean archive gets registered
+                    logger.log(Level.FINE, "Cannot parse beans.xml upfront", e.getCause());
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
     @Override
     public Set<URL> getRegisteredBeanArchives()
     {
@@ -221,6 +304,11 @@ public class DefaultBeanArchiveService implements BeanArchiveService
             return bdaInfo;
         }
 
+        BeanArchiveInformation parsedBdaInfo = parsedBeansXmls.remove(beansXmlLocation);
+        if (parsedBdaInfo != null)
+        {
+            return parsedBdaInfo;
+        }
 
         InputStream xmlStream = null;
         try
@@ -287,43 +375,19 @@ public class DefaultBeanArchiveService implements BeanArchiveService
 
         if (xmlStreamIn != null)
         {
-            PushbackInputStream xmlStream = new PushbackInputStream(xmlStreamIn);
-
-            // try to read from the stream
-            int firstVal = xmlStream.read();
-            if (firstVal < 0)
+            byte[] content = readContent(xmlStreamIn);
+            if (content.length == 0)
             {
                 // this means the stream is empty
                 bdaInfo.setBeanDiscoveryMode(BeanDiscoveryMode.ALL);
             }
             else
             {
-                // put the first byte back on the stream so we can properly parse the XML.
-                xmlStream.unread(firstVal);
-
-                //Get root element of the XML document
-                Element webBeansRoot = getBeansRootElement(xmlStream);
-                if (webBeansRoot == null)
-                {
-                    bdaInfo.setBeanDiscoveryMode(BeanDiscoveryMode.ALL);
-                }
-                else
+                if (!readMarkerBeansXml(bdaInfo, content))
                 {
-                    if (!"beans".equalsIgnoreCase(webBeansRoot.getLocalName()))
-                    {
-                        throw new WebBeansConfigurationException("beans.xml must have a <beans> root element, but has: " + webBeansRoot.getLocalName() +
-                                                                 " in " + beansXmlLocation);
-                    }
-
-                    bdaInfo.setVersion(getTrimmedAttribute(webBeansRoot, "version"));
-
-                    String beanDiscoveryMode = getTrimmedAttribute(webBeansRoot, "bean-discovery-mode");
-                    bdaInfo.setBeanDiscoveryMode(beanDiscoveryMode != null ? BeanDiscoveryMode.valueOf(beanDiscoveryMode.toUpperCase()) : null);
-
-                    readBeanChildren(bdaInfo, webBeansRoot, beansXmlLocation);
+                    parseBeansXml(bdaInfo, content, beansXmlLocation);
                 }
 
-
                 if (bdaInfo.getVersion() != null && !"1.0".equals(bdaInfo.getVersion()) && bdaInfo.getBeanDiscoveryMode() == null)
                 {
                     throw new WebBeansConfigurationException("beans.xml with version 1.1 and higher must declare a bean-discovery-mode! url=" + beansXmlLocation);
@@ -347,203 +411,502 @@ public class DefaultBeanArchiveService implements BeanArchiveService
         return bdaInfo;
     }
 
-    private void readBeanChildren(DefaultBeanArchiveInformation bdaInfo, Element webBeansRoot, String beansXmlLocation)
+    private byte[] readContent(InputStream xmlStream) throws IOException
     {
-        ElementIterator elit = new ElementIterator(webBeansRoot);
-        while (elit.hasNext())
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = xmlStream.read(buffer)) >= 0)
         {
-            Element child = elit.next();
+            baos.write(buffer, 0, read);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Most beans.xml files are pure marker files which consist of nothing but a
+     * {@code <beans>} element with maybe some namespace declarations.
+     * Those get detected without starting an XML parser at all.
+     *
+     * @return {@code true} if the content is such a marker file and got applied to the given bdaInfo,
+     *         {@code false} if the content needs to get parsed
+     */
+    private boolean readMarkerBeansXml(DefaultBeanArchiveInformation bdaInfo, byte[] content)
+    {
+        int pos = skipProlog(content, 0);
+        if (pos < 0 || !startsWith(content, pos, "<beans"))
+        {
+            return false;
+        }
+        pos += "<beans".length();
+
+        String version = null;
+        String beanDiscoveryMode = null;
+        while (true)
+        {
+            int nameStart = skipWhitespace(content, pos);
+            if (nameStart == pos && nameStart < content.length && content[nameStart] != '>' && content[nameStart] != '/')
+            {
+                // <beansSomething
+                return false;
+            }
+            pos = nameStart;
+            if (pos >= content.length)
+            {
+                return false;
+            }
+            if (content[pos] == '>' || content[pos] == '/')
+            {
+                break;
+            }
+
+            int nameEnd = pos;
+            while (nameEnd < content.length && content[nameEnd] != '=' && !isWhitespace(content[nameEnd]))
+            {
+                nameEnd++;
+            }
+            int valueStart = skipWhitespace(content, nameEnd);
+            if (valueStart >= content.length || content[valueStart] != '=')
+            {
+                return false;
+            }
+            valueStart = skipWhitespace(content, valueStart + 1);
+            if (valueStart >= content.length || (content[valueStart] != '"' && content[valueStart] != '\''))
+            {
+                return false;
+            }
+            byte quote = content[valueStart];
+            int valueEnd = valueStart + 1;
+            while (valueEnd < content.length && content[valueEnd] != quote)
+            {
+                if (content[valueEnd] == '&' || content[valueEnd] == '<')
+                {
+                    // entities need a real parser
+                    return false;
+                }
+                valueEnd++;
+            }
+            if (valueEnd >= content.length)
+            {
+                return false;
+            }
 
-            if (WebBeansConstants.WEB_BEANS_XML_DECORATORS_ELEMENT.equalsIgnoreCase(child.getLocalName()))
+            String name = new String(content, pos, nameEnd - pos, StandardCharsets.ISO_8859_1);
+            String value = new String(content, valueStart + 1, valueEnd - valueStart - 1, StandardCharsets.UTF_8).trim();
+            if ("version".equals(name))
             {
-                fillDecorators(bdaInfo, child);
+                version = value.isEmpty() ? null : value;
             }
-            else if (WebBeansConstants.WEB_BEANS_XML_INTERCEPTORS_ELEMENT.equalsIgnoreCase(child.getLocalName()))
+            else if ("bean-discovery-mode".equals(name))
             {
-                fillInterceptors(bdaInfo, child);
+                beanDiscoveryMode = value.isEmpty() ? null : value;
             }
-            else if (WebBeansConstants.WEB_BEANS_XML_ALTERNATIVES_ELEMENT.equalsIgnoreCase(child.getLocalName()))
+            else if (!name.startsWith("xmlns") && !name.endsWith(":schemaLocation"))
             {
-                fillAlternatives(bdaInfo, child);
+                return false;
             }
-            else if (WebBeansConstants.WEB_BEANS_XML_SCAN_ELEMENT.equalsIgnoreCase(child.getLocalName()))
+            pos = valueEnd + 1;
+        }
+
+        if (content[pos] == '/')
+        {
+            if (!startsWith(content, pos, "/>"))
             {
-                fillExcludes(bdaInfo, child);
+                return false;
             }
-            else if (WebBeansConstants.WEB_BEANS_XML_ALLOW_PROXYING_ELEMENT.equalsIgnoreCase(child.getLocalName()))
+            pos += 2;
+        }
+        else
+        {
+            pos = skipMisc(content, pos + 1);
+            if (pos < 0 || !startsWith(content, pos, "</beans"))
             {
-                fillAllowProxying(bdaInfo, child);
+                return false;
             }
-            else if (WebBeansConstants.WEB_BEANS_XML_SCOPED_BEANS_ONLY_ELEMENT.equalsIgnoreCase(child.getLocalName()))
+            pos = skipWhitespace(content, pos + "</beans".length());
+            if (pos >= content.length || content[pos] != '>')
             {
-                logger.log(Level.FINE, "trimmed bean archive detected: " + beansXmlLocation);
-                bdaInfo.setBeanDiscoveryMode(BeanDiscoveryMode.TRIM);
+                return false;
             }
+            pos++;
+        }
+        if (skipMisc(content, pos) != content.length)
+        {
+            return false;
         }
+
+        bdaInfo.setVersion(version);
+        bdaInfo.setBeanDiscoveryMode(beanDiscoveryMode != null ? BeanDiscoveryMode.valueOf(beanDiscoveryMode.toUpperCase()) : null);
+        return true;
     }
 
-    private void fillDecorators(DefaultBeanArchiveInformation bdaInfo, Element decoratorsElement)
+    /**
+     * @return the position after the xml declaration and all whitespace and comments or -1 if there is any DTD
+     */
+    private int skipProlog(byte[] content, int pos)
     {
-        ElementIterator elit = new ElementIterator(decoratorsElement);
-        while (elit.hasNext())
+        if (startsWith(content, pos, "<?xml"))
         {
-            Element child = elit.next();
-            if (WebBeansConstants.WEB_BEANS_XML_CLASS.equalsIgnoreCase(child.getLocalName()))
+            int end = indexOf(content, pos, "?>");
+            if (end < 0)
             {
-                String clazz = child.getTextContent().trim();
-                if (clazz.isEmpty())
+                return -1;
+            }
+            pos = end + 2;
+        }
+        return skipMisc(content, pos);
+    }
+
+    /**
+     * @return the position after all whitespace and comments or -1 if a comment is not terminated
+     */
+    private int skipMisc(byte[] content, int pos)
+    {
+        while (true)
+        {
+            pos = skipWhitespace(content, pos);
+            if (!startsWith(content, pos, "<!--"))
+            {
+                return pos;
+            }
+            int end = indexOf(content, pos + 4, "-->");
+            if (end < 0)
+            {
+                return -1;
+            }
+            pos = end + 3;
+        }
+    }
+
+    private int skipWhitespace(byte[] content, int pos)
+    {
+        while (pos < content.length && isWhitespace(content[pos]))
+        {
+            pos++;
+        }
+        return pos;
+    }
+
+    private boolean isWhitespace(byte b)
+    {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private boolean startsWith(byte[] content, int pos, String prefix)
+    {
+        if (pos < 0 || pos + prefix.length() > content.length)
+        {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++)
+        {
+            if (content[pos + i] != prefix.charAt(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(byte[] content, int pos, String value)
+    {
+        for (int i = pos; i <= content.length - value.length(); i++)
+        {
+            if (startsWith(content, i, value))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Streams through the beans.xml and only picks up the elements OWB cares about.
+     * No schema or DTD gets loaded.
+     */
+    private void parseBeansXml(DefaultBeanArchiveInformation bdaInfo, byte[] content, String beansXmlLocation)
+    {
+        XMLStreamReader reader = null;
+        try
+        {
+            reader = getXmlInputFactory().createXMLStreamReader(new ByteArrayInputStream(content));
+            if (nextElement(reader) != XMLStreamConstants.START_ELEMENT)
+            {
+                return;
+            }
+
+            if (!"beans".equalsIgnoreCase(reader.getLocalName()))
+            {
+                throw new WebBeansConfigurationException("beans.xml must have a <beans> root element, but has: " + reader.getLocalName() +
+                                                         " in " + beansXmlLocation);
+            }
+
+            bdaInfo.setVersion(getTrimmedAttribute(reader, "version"));
+
+            String beanDiscoveryMode = getTrimmedAttribute(reader, "bean-discovery-mode");
+            bdaInfo.setBeanDiscoveryMode(beanDiscoveryMode != null ? BeanDiscoveryMode.valueOf(beanDiscoveryMode.toUpperCase()) : null);
+
+            readBeanChildren(bdaInfo, reader, beansXmlLocation);
+        }
+        catch (XMLStreamException e)
+        {
+            logger.log(Level.SEVERE, OWBLogConst.FATAL_0002, e);
+            throw new WebBeansException(WebBeansLoggerFacade.getTokenString(OWBLogConst.EXCEPT_0013), e);
+        }
+        finally
+        {
+            if (reader != null)
+            {
+                try
+                {
+                    reader.close();
+                }
+                catch (XMLStreamException e)
                 {
-                    throw new WebBeansConfigurationException("decorators <class> element must not be empty!");
+                    // ignore, all got read already
                 }
-                bdaInfo.getDecorators().add(clazz);
             }
         }
     }
 
-    private void fillInterceptors(DefaultBeanArchiveInformation bdaInfo, Element interceptorsElement)
+    private void readBeanChildren(DefaultBeanArchiveInformation bdaInfo, XMLStreamReader reader, String beansXmlLocation)
+        throws XMLStreamException
     {
-        ElementIterator elit = new ElementIterator(interceptorsElement);
-        while (elit.hasNext())
+        while (nextElement(reader) == XMLStreamConstants.START_ELEMENT)
         {
-            Element child = elit.next();
-            if (WebBeansConstants.WEB_BEANS_XML_CLASS.equalsIgnoreCase(child.getLocalName()))
+            String localName = reader.getLocalName();
+
+            if (WebBeansConstants.WEB_BEANS_XML_DECORATORS_ELEMENT.equalsIgnoreCase(localName))
             {
-                String clazz = child.getTextContent().trim();
-                if (clazz.isEmpty())
+                readClasses(reader, "decorators", bdaInfo.getDecorators(), null);
+            }
+            else if (WebBeansConstants.WEB_BEANS_XML_INTERCEPTORS_ELEMENT.equalsIgnoreCase(localName))
+            {
+                readClasses(reader, "interceptors", bdaInfo.getInterceptors(), null);
+            }
+            else if (WebBeansConstants.WEB_BEANS_XML_ALTERNATIVES_ELEMENT.equalsIgnoreCase(localName))
+            {
+                readClasses(reader, "alternatives", bdaInfo.getAlternativeClasses(), bdaInfo.getAlternativeStereotypes());
+            }
+            else if (WebBeansConstants.WEB_BEANS_XML_SCAN_ELEMENT.equalsIgnoreCase(localName))
+            {
+                readExcludes(bdaInfo, reader);
+            }
+            else if (WebBeansConstants.WEB_BEANS_XML_ALLOW_PROXYING_ELEMENT.equalsIgnoreCase(localName))
+            {
+                readClasses(reader, "allowProxying", bdaInfo.getAllowProxyingClasses(), null);
+            }
+            else
+            {
+                if (WebBeansConstants.WEB_BEANS_XML_SCOPED_BEANS_ONLY_ELEMENT.equalsIgnoreCase(localName))
                 {
-                    throw new WebBeansConfigurationException("interceptors <class> element must not be empty!");
+                    logger.log(Level.FINE, "trimmed bean archive detected: " + beansXmlLocation);
+                    bdaInfo.setBeanDiscoveryMode(BeanDiscoveryMode.TRIM);
                 }
-                bdaInfo.getInterceptors().add(clazz);
+                skipElement(reader);
             }
         }
     }
 
-    private void fillAlternatives(DefaultBeanArchiveInformation bdaInfo, Element alternativesElement)
+    /**
+     * Reads the {@code <class>} and optionally {@code <stereotype>} children of the current element.
+     *
+     * @param stereotypes the list to add the stereotypes to or {@code null} if stereotypes are not allowed
+     */
+    private void readClasses(XMLStreamReader reader, String elementName, List<String> classes, List<String> stereotypes)
+        throws XMLStreamException
     {
-        ElementIterator elit = new ElementIterator(alternativesElement);
-        while (elit.hasNext())
+        while (nextElement(reader) == XMLStreamConstants.START_ELEMENT)
         {
-            Element child = elit.next();
-            if (WebBeansConstants.WEB_BEANS_XML_CLASS.equalsIgnoreCase(child.getLocalName()))
+            String localName = reader.getLocalName();
+            if (WebBeansConstants.WEB_BEANS_XML_CLASS.equalsIgnoreCase(localName))
             {
-                String clazz = child.getTextContent().trim();
+                String clazz = readText(reader);
                 if (clazz.isEmpty())
                 {
-                    throw new WebBeansConfigurationException("alternatives <class> element must not be empty!");
+                    throw new WebBeansConfigurationException(elementName + " <class> element must not be empty!");
                 }
-                bdaInfo.getAlternativeClasses().add(clazz);
+                classes.add(clazz);
             }
-            if (WebBeansConstants.WEB_BEANS_XML_STEREOTYPE.equalsIgnoreCase(child.getLocalName()))
+            else if (stereotypes != null && WebBeansConstants.WEB_BEANS_XML_STEREOTYPE.equalsIgnoreCase(localName))
             {
-                String stereotype = child.getTextContent().trim();
+                String stereotype = readText(reader);
                 if (stereotype.isEmpty())
                 {
-                    throw new WebBeansConfigurationException("alternatives <stereotype> element must not be empty!");
+                    throw new WebBeansConfigurationException(elementName + " <stereotype> element must not be empty!");
                 }
-                bdaInfo.getAlternativeStereotypes().add(stereotype);
+                stereotypes.add(stereotype);
+            }
+            else
+            {
+                skipElement(reader);
             }
         }
     }
 
-
-    private void fillExcludes(DefaultBeanArchiveInformation bdaInfo, Element scanElement)
+    private void readExcludes(DefaultBeanArchiveInformation bdaInfo, XMLStreamReader reader) throws XMLStreamException
     {
         ClassLoader loader = Thread.currentThread().getContextClassLoader();
-        NodeList childNodes = scanElement.getChildNodes();
-        for (int i = 0; i < childNodes.getLength(); i++)
+        while (nextElement(reader) == XMLStreamConstants.START_ELEMENT)
         {
-            Node nd = childNodes.item(i);
-            if (!Element.class.isInstance(nd))
+            if (!WebBeansConstants.WEB_BEANS_XML_EXCLUDE.equalsIgnoreCase(reader.getLocalName()))
             {
+                skipElement(reader);
                 continue;
             }
 
-            Element child = Element.class.cast(nd);
-            if (WebBeansConstants.WEB_BEANS_XML_EXCLUDE.equalsIgnoreCase(child.getLocalName()))
+            String name = getTrimmedAttribute(reader, "name");
+            if (name == null)
             {
-                String name = getTrimmedAttribute(child, "name");
-                NodeList children = child.getChildNodes();
-                boolean skip = false;
-                for (int j = 0; j < children.getLength(); j++)
-                {
-                    Node ndChild = children.item(j);
-                    if (!Element.class.isInstance(ndChild))
-                    {
-                        continue;
-                    }
-
-                    Element condition = Element.class.cast(ndChild);
+                throw new WebBeansConfigurationException("<exclude> element must have a name!");
+            }
 
-                    String localName = condition.getLocalName();
+            boolean skip = false;
+            while (nextElement(reader) == XMLStreamConstants.START_ELEMENT)
+            {
+                String localName = reader.getLocalName();
+                if (!skip)
+                {
                     if (WebBeansConstants.WEB_BEANS_XML_IF_CLASS_AVAILABLE.equalsIgnoreCase(localName))
                     {
-                        if (!isClassAvailable(loader, getTrimmedAttribute(condition, "name")))
-                        {
-                            skip = true;
-                            break;
-                        }
+                        skip = !isClassAvailable(loader, getTrimmedAttribute(reader, "name"));
                     }
                     else if (WebBeansConstants.WEB_BEANS_XML_IF_CLASS_NOT_AVAILABLE.equalsIgnoreCase(localName))
                     {
-                        if (isClassAvailable(loader, getTrimmedAttribute(condition, "name")))
-                        {
-                            skip = true;
-                            break;
-                        }
+                        skip = isClassAvailable(loader, getTrimmedAttribute(reader, "name"));
                     }
                     else if (WebBeansConstants.WEB_BEANS_XML_IF_SYSTEM_PROPERTY.equalsIgnoreCase(localName))
                     {
-                        String value = getTrimmedAttribute(condition, "value");
-                        String systProp = System.getProperty(getTrimmedAttribute(condition, "name"));
-                        if ((value == null && systProp == null) || !(value != null && value.equals(systProp)))
-                        {
-                            skip = true;
-                            break;
-                        }
+                        String value = getTrimmedAttribute(reader, "value");
+                        String systProp = System.getProperty(getTrimmedAttribute(reader, "name"));
+                        skip = (value == null && systProp == null) || !(value != null && value.equals(systProp));
                     }
                 }
-                if (skip)
-                {
-                    continue;
-                }
-                if (name.endsWith(".*"))
-                {
-                    // package exclude without sub-packages
-                    bdaInfo.addClassExclude(name.substring(0, name.length() - 2));
-                }
-                else if (name.endsWith(".**"))
-                {
-                    // package exclude WITH sub-packages
-                    bdaInfo.addPackageExclude(name.substring(0, name.length() - 3));
-                }
-                else
-                {
-                    // a simple Class
-                    bdaInfo.addClassExclude(name);
-                }
+                skipElement(reader);
+            }
+            if (skip)
+            {
+                continue;
+            }
+
+            if (name.endsWith(".*"))
+            {
+                // package exclude without sub-packages
+                bdaInfo.addClassExclude(name.substring(0, name.length() - 2));
+            }
+            else if (name.endsWith(".**"))
+            {
+                // package exclude WITH sub-packages
+                bdaInfo.addPackageExclude(name.substring(0, name.length() - 3));
+            }
+            else
+            {
+                // a simple Class
+                bdaInfo.addClassExclude(name);
             }
         }
     }
 
-    private void fillAllowProxying(DefaultBeanArchiveInformation bdaInfo, Element allowProxyingElement)
+    /**
+     * Moves the reader to the next start or end element.
+     * @return the event type, or {@link XMLStreamConstants#END_DOCUMENT}
+     */
+    private int nextElement(XMLStreamReader reader) throws XMLStreamException
     {
-        ElementIterator elit = new ElementIterator(allowProxyingElement);
-        while (elit.hasNext())
+        while (reader.hasNext())
         {
-            Element child = elit.next();
-            if (WebBeansConstants.WEB_BEANS_XML_CLASS.equalsIgnoreCase(child.getLocalName()))
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT || event == XMLStreamConstants.END_ELEMENT)
             {
-                String clazz = child.getTextContent().trim();
-                if (clazz.isEmpty())
-                {
-                    throw new WebBeansConfigurationException("allowProxying <class> element must not be empty!");
-                }
-                bdaInfo.getAllowProxyingClasses().add(clazz);
+                return event;
             }
         }
+        return XMLStreamConstants.END_DOCUMENT;
     }
 
+    /**
+     * @return the trimmed text content of the current element. The reader is positioned on its end element afterwards.
+     */
+    private String readText(XMLStreamReader reader) throws XMLStreamException
+    {
+        StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0 && reader.hasNext())
+        {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT)
+            {
+                depth++;
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT)
+            {
+                depth--;
+            }
+            else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA ||
+                     event == XMLStreamConstants.SPACE || event == XMLStreamConstants.ENTITY_REFERENCE)
+            {
+                text.append(reader.getText());
+            }
+        }
+        return text.toString().trim();
+    }
 
+    /**
+     * Skips the current element including all its children.
+     */
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException
+    {
+        int depth = 1;
+        while (depth > 0)
+        {
+            int event = nextElement(reader);
+            if (event == XMLStreamConstants.START_ELEMENT)
+            {
+                depth++;
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT)
+            {
+                depth--;
+            }
+            else
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the trimmed attribute value, or <code>null</code> if the attribute does not exist or the attribute is empty
+     */
+    private String getTrimmedAttribute(XMLStreamReader reader, String attributeName)
+    {
+        String val = reader.getAttributeValue(null, attributeName);
+        if (val != null)
+        {
+            val = val.trim();
+            if (!val.isEmpty())
+            {
+                return val;
+            }
+        }
+        return null;
+    }
+
+    private XMLInputFactory getXmlInputFactory()
+    {
+        XMLInputFactory factory = xmlInputFactory;
+        if (factory == null)
+        {
+            factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+            factory.setProperty(XMLInputFactory.IS_VALIDATING, Boolean.FALSE);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+            // never load any external DTD
+            factory.setXMLResolver((publicId, systemId, baseUri, namespace) -> new ByteArrayInputStream(new byte[0]));
+            xmlInputFactory = factory;
+        }
+        return factory;
+    }
 
     private static boolean isClassAvailable(ClassLoader loader, String name)
     {
@@ -563,6 +926,7 @@ public class DefaultBeanArchiveService implements BeanArchiveService
     public void release()
     {
         beanArchiveInformations.clear();
+        parsedBeansXmls.clear();
     }
 
 
@@ -572,7 +936,9 @@ public class DefaultBeanArchiveService implements BeanArchiveService
      * @param xmlStream parsed document
      * @return root element of the document
      * @throws org.apache.webbeans.exception.WebBeansException if any runtime exception occurs
+     * @deprecated beans.xml files get streamed via StAX, this method is not used anymore
      */
+    @Deprecated
     protected Element getBeansRootElement(InputStream xmlStream) throws WebBeansException
     {
         try
@@ -600,7 +966,9 @@ public class DefaultBeanArchiveService implements BeanArchiveService
 
     /**
      * @return the trimmed attribute value, or <code>null</code> if the attribute does not exist or the attribute is empty
+     * @deprecated beans.xml files get streamed via StAX, this method is not used anymore
      */
+    @Deprecated
     protected String getTrimmedAttribute(Element element, String attributeName)
     {
         String val = element.getAttribute(attributeName);
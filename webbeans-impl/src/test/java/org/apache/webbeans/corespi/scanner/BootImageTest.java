@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.spi.BeanArchiveService;
+import org.apache.webbeans.xml.DefaultBeanArchiveService;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BootImageTest
+{
+    @Rule
+    public final TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void fileUrlsGetFingerprinted() throws Exception
+    {
+        File classes = temp.newFolder("classes");
+        File classFile = new File(classes, "Foo.class");
+        Files.write(classFile.toPath(), "v1".getBytes(StandardCharsets.UTF_8));
+
+        BootImage bootImage = new BootImage(temp.newFile("boot.image"));
+        OpenWebBeansConfiguration configuration = new OpenWebBeansConfiguration();
+        Map<String, URL> urls = Collections.singletonMap("classes", classes.toURI().toURL());
+
+        String fingerprint = bootImage.createFingerprint(configuration, new DefaultBeanArchiveService(), urls, null);
+        assertNotNull(fingerprint);
+        assertEquals(fingerprint, bootImage.createFingerprint(configuration, new DefaultBeanArchiveService(), urls, null));
+
+        Files.write(classFile.toPath(), "version 2".getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(fingerprint, bootImage.createFingerprint(configuration, new DefaultBeanArchiveService(), urls, null));
+    }
+
+    @Test
+    public void conditionalExcludesArePartOfTheFingerprint() throws Exception
+    {
+        String property = BootImageTest.class.getName() + ".exclude";
+
+        File classes = temp.newFolder("classes");
+        File beansXml = new File(classes, "META-INF/beans.xml");
+        beansXml.getParentFile().mkdirs();
+        Files.write(beansXml.toPath(), ("<beans bean-discovery-mode=\"all\"><scan>"
+            + "<exclude name=\"org.foo.Bar\"><if-system-property name=\"" + property + "\" value=\"true\"/></exclude>"
+            + "</scan></beans>").getBytes(StandardCharsets.UTF_8));
+
+        BootImage bootImage = new BootImage(temp.newFile("boot.image"));
+        OpenWebBeansConfiguration configuration = new OpenWebBeansConfiguration();
+        URL beansXmlUrl = beansXml.toURI().toURL();
+        Map<String, URL> urls = Collections.singletonMap(beansXmlUrl.toExternalForm(), classes.toURI().toURL());
+
+        String fingerprint = bootImage.createFingerprint(configuration, newBeanArchiveService(beansXmlUrl), urls, null);
+        assertNotNull(fingerprint);
+
+        System.setProperty(property, "true");
+        try
+        {
+            // nothing changed in the bean archive, but org.foo.Bar is excluded now
+            assertNotEquals(fingerprint, bootImage.createFingerprint(configuration, newBeanArchiveService(beansXmlUrl), urls, null));
+        }
+        finally
+        {
+            System.clearProperty(property);
+        }
+
+        assertEquals(fingerprint, bootImage.createFingerprint(configuration, newBeanArchiveService(beansXmlUrl), urls, null));
+    }
+
+    @Test
+    public void unsupportedProtocolsAreNotFingerprinted() throws Exception
+    {
+        BootImage bootImage = new BootImage(temp.newFile("boot.image"));
+        OpenWebBeansConfiguration configuration = new OpenWebBeansConfiguration();
+
+        for (String url : new String[] { "vfs:/app/lib/beans.jar", "wsjar:file:/app/lib/beans.jar!/", "bundle://12.0:1/" })
+        {
+            Map<String, URL> urls = Collections.singletonMap(url, newUrl(url));
+            assertNull(url, bootImage.createFingerprint(configuration, new DefaultBeanArchiveService(), urls, null));
+        }
+    }
+
+    private static BeanArchiveService newBeanArchiveService(URL beansXmlUrl)
+    {
+        // like the scanner the beans.xml gets registered first
+        BeanArchiveService beanArchiveService = new DefaultBeanArchiveService();
+        beanArchiveService.getBeanArchiveInformation(beansXmlUrl);
+        return beanArchiveService;
+    }
+
+    private static URL newUrl(String url) throws MalformedURLException
+    {
+        return new URL(null, url, new URLStreamHandler()
+        {
+            @Override
+            protected URLConnection openConnection(URL u)
+            {
+                throw new UnsupportedOperationException(u.toExternalForm());
+            }
+        });
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.portable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.annotation.Annotation;
+import java.util.Iterator;
+
+import javax.enterprise.inject.Alternative;
+import javax.enterprise.inject.Default;
+import javax.enterprise.util.AnnotationLiteral;
+import javax.inject.Named;
+
+import org.junit.Test;
+
+public class CompactAnnotationSetTest
+{
+    @Test
+    public void setSemantics()
+    {
+        CompactAnnotationSet annotations = new CompactAnnotationSet();
+        assertTrue(annotations.add(Default.Literal.INSTANCE));
+        assertFalse(annotations.add(Default.Literal.INSTANCE));
+        assertTrue(annotations.add(new AnnotationLiteral<Alternative>() {}));
+        assertEquals(2, annotations.size());
+
+        assertSame(Default.Literal.INSTANCE, annotations.get(Default.class));
+        assertNull(annotations.get(Named.class));
+
+        assertTrue(annotations.removeIf(a -> a.annotationType() == Alternative.class));
+        assertEquals(1, annotations.size());
+        assertTrue(annotations.remove(Default.Literal.INSTANCE));
+        assertTrue(annotations.isEmpty());
+    }
+
+    @Test
+    public void copiesShareUntilModified()
+    {
+        CompactAnnotationSet original = new CompactAnnotationSet();
+        original.set(new Annotation[]{ Default.Literal.INSTANCE, Default.Literal.INSTANCE });
+        assertEquals(1, original.size());
+
+        CompactAnnotationSet copy = new CompactAnnotationSet();
+        copy.addAll(original);
+        copy.add(new AnnotationLiteral<Alternative>() {});
+        assertEquals(1, original.size());
+        assertEquals(2, copy.size());
+
+        Iterator<Annotation> it = copy.iterator();
+        it.next();
+        it.remove();
+        assertEquals(1, copy.size());
+        assertEquals(1, original.size());
+        assertTrue(original.contains(Default.Literal.INSTANCE));
+    }
+}
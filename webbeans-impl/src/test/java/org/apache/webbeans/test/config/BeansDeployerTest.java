@@ -21,9 +21,16 @@ package org.apache.webbeans.test.config;
 import static java.util.Collections.singletonList;
 import static java.util.logging.Level.FINE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.logging.Handler;
@@ -32,15 +39,25 @@ import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 
 import javax.annotation.Priority;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.AfterDeploymentValidation;
+import javax.enterprise.inject.spi.Extension;
 import javax.interceptor.AroundInvoke;
 import javax.interceptor.Interceptor;
 import javax.interceptor.InvocationContext;
 
 import org.apache.webbeans.config.BeansDeployer;
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.corespi.scanner.AbstractMetaDataDiscovery;
+import org.apache.webbeans.spi.BeanArchiveService;
+import org.apache.webbeans.spi.ScannerService;
 import org.apache.webbeans.test.AbstractUnitTest;
 import org.apache.webbeans.test.component.intercept.webbeans.bindings.Transactional;
+import org.apache.webbeans.xml.DefaultBeanArchiveService;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.rules.TestName;
 
 public class BeansDeployerTest extends AbstractUnitTest
@@ -48,6 +65,9 @@ public class BeansDeployerTest extends AbstractUnitTest
     @Rule
     public final TestName testName = new TestName();
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void interceptorLogging()
     {
@@ -106,6 +126,95 @@ public class BeansDeployerTest extends AbstractUnitTest
                 " is already defined with priority 1000", record.getMessage());
     }
 
+    @Test
+    public void releaseDeploymentMetadata() throws IOException
+    {
+        // a bean archive with a beans.xml and a single bean class
+        File archive = temporaryFolder.newFolder("archive");
+        File beansXml = new File(archive, "META-INF/beans.xml");
+        assertTrue(beansXml.getParentFile().mkdirs());
+        Files.write(beansXml.toPath(), "<beans/>".getBytes("UTF-8"));
+        String classFile = ScannedBean.class.getName().replace('.', '/') + ".class";
+        File target = new File(archive, classFile);
+        assertTrue(target.getParentFile().mkdirs());
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(classFile))
+        {
+            Files.copy(in, target.toPath());
+        }
+
+        DirectoryScannerService scanner = new DirectoryScannerService(archive);
+        ReleaseRecordingBeanArchiveService beanArchiveService = new ReleaseRecordingBeanArchiveService();
+        BeanClassesPerBdaRecorder recorder = new BeanClassesPerBdaRecorder();
+        addService(ScannerService.class, scanner);
+        addService(BeanArchiveService.class, beanArchiveService);
+        addExtension(recorder);
+        startContainer();
+
+        assertNotNull(getInstance(ScannedBean.class));
+        assertEquals(1, recorder.bdaCount);
+        assertTrue(scanner.getBeanClassesPerBda().isEmpty());
+        assertTrue(scanner.isReleased());
+        assertTrue(beanArchiveService.released);
+    }
+
+    @ApplicationScoped
+    public static class ScannedBean
+    {
+    }
+
+    private static class ReleaseRecordingBeanArchiveService extends DefaultBeanArchiveService
+    {
+        private boolean released;
+
+        @Override
+        public void release()
+        {
+            super.release();
+            released = true;
+        }
+    }
+
+    public static class BeanClassesPerBdaRecorder implements Extension
+    {
+        private int bdaCount;
+
+        void afterDeploymentValidation(@Observes AfterDeploymentValidation adv)
+        {
+            bdaCount = ((AbstractMetaDataDiscovery) WebBeansContext.currentInstance().getScannerService())
+                .getBeanClassesPerBda().size();
+        }
+    }
+
+    private static class DirectoryScannerService extends AbstractMetaDataDiscovery
+    {
+        private final File directory;
+
+        private DirectoryScannerService(File directory)
+        {
+            this.directory = directory;
+        }
+
+        @Override
+        protected void configure()
+        {
+            try
+            {
+                URL beansXml = new File(directory, "META-INF/beans.xml").toURI().toURL();
+                addWebBeansXmlLocation(beansXml);
+                addDeploymentUrl(beansXml.toExternalForm(), directory.toURI().toURL());
+            }
+            catch (MalformedURLException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private boolean isReleased()
+        {
+            return finder == null && archive == null && loader == null;
+        }
+    }
+
     @Interceptor
     @Transactional
     @Priority(Interceptor.Priority.LIBRARY_BEFORE)
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.spi.Extension;
+import javax.enterprise.inject.spi.ProcessInjectionPoint;
+import javax.inject.Inject;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.config.ValidationCache;
+import org.apache.webbeans.exception.WebBeansConfigurationException;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ValidationCacheTest extends AbstractUnitTest
+{
+    @Rule
+    public final TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void validatedDeploymentGetsRecorded() throws Exception
+    {
+        File cacheDir = temp.newFolder();
+
+        startContainer(cacheDir, Service.class, Repository.class);
+        File[] recorded = listRecorded(cacheDir);
+        assertEquals(1, recorded.length);
+        shutDownContainer();
+
+        // an unchanged deployment has the same fingerprint
+        startContainer(cacheDir, Service.class, Repository.class);
+        assertNotNull(getInstance(Service.class).getRepository());
+        assertEquals(recorded[0].getName(), listRecorded(cacheDir)[0].getName());
+        assertEquals(1, listRecorded(cacheDir).length);
+        shutDownContainer();
+
+        // a changed one gets validated again
+        startContainer(cacheDir, Service.class, Repository.class, OtherService.class);
+        assertEquals(2, listRecorded(cacheDir).length);
+    }
+
+    @Test
+    public void recordedDeploymentSkipsValidation() throws Exception
+    {
+        File cacheDir = temp.newFolder();
+
+        assertDeploymentFails(cacheDir);
+        assertEquals(0, listRecorded(cacheDir).length);
+
+        // pretend the very same deployment got validated before
+        ValidationCache validationCache = new ValidationCache(cacheDir);
+        validationCache.markValidated(validationCache.createFingerprint(getWebBeansContext()));
+        shutDownContainer();
+
+        startContainer(cacheDir, Service.class);
+        shutDownContainer();
+
+        addConfiguration(OpenWebBeansConfiguration.VALIDATION_FORCE, "true");
+        assertDeploymentFails(cacheDir);
+    }
+
+    @Test
+    public void injectionPointsArePartOfTheFingerprint() throws Exception
+    {
+        File cacheDir = temp.newFolder();
+        ValidationCache validationCache = new ValidationCache(cacheDir);
+
+        addExtension(new QualifyingExtension(false));
+        startContainer(cacheDir, Service.class, Repository.class);
+        String fingerprint = validationCache.createFingerprint(getWebBeansContext());
+        shutDownContainer();
+
+        // same classes and beans, only the qualifiers of an injection point differ
+        addExtension(new QualifyingExtension(true));
+        startContainer(cacheDir, Service.class, Repository.class);
+        assertNotNull(getInstance(Service.class).getRepository());
+        assertNotEquals(fingerprint, validationCache.createFingerprint(getWebBeansContext()));
+        assertEquals(2, listRecorded(cacheDir).length);
+    }
+
+    private void startContainer(File cacheDir, Class<?>... beanClasses)
+    {
+        addConfiguration(OpenWebBeansConfiguration.VALIDATION_CACHE_DIRECTORY, cacheDir.getAbsolutePath());
+        startContainer(beanClasses);
+    }
+
+    private void assertDeploymentFails(File cacheDir)
+    {
+        try
+        {
+            startContainer(cacheDir, Service.class);
+            fail("Repository must be unsatisfied");
+        }
+        catch (WebBeansConfigurationException expected)
+        {
+            // all fine
+        }
+    }
+
+    private File[] listRecorded(File cacheDir)
+    {
+        File[] files = cacheDir.listFiles((dir, name) -> name.endsWith(".validated"));
+        return files == null ? new File[0] : files;
+    }
+
+    public static class QualifyingExtension implements Extension
+    {
+        private final boolean qualify;
+
+        public QualifyingExtension(boolean qualify)
+        {
+            this.qualify = qualify;
+        }
+
+        void qualify(@Observes ProcessInjectionPoint<Service, Repository> pip)
+        {
+            if (qualify)
+            {
+                pip.configureInjectionPoint().addQualifier(Any.Literal.INSTANCE);
+            }
+        }
+    }
+
+    public static class Repository
+    {
+    }
+
+    public static class Service
+    {
+        @Inject
+        private Repository repository;
+
+        public Repository getRepository()
+        {
+            return repository;
+        }
+    }
+
+    public static class OtherService
+    {
+        @Inject
+        private Repository repository;
+    }
+}
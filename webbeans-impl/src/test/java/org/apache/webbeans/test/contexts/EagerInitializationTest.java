@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.contexts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.inject.Produces;
+import javax.enterprise.inject.spi.DeploymentException;
+import javax.inject.Inject;
+
+import org.apache.webbeans.annotation.Eager;
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.exception.WebBeansConfigurationException;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+public class EagerInitializationTest extends AbstractUnitTest
+{
+    @Test
+    public void annotatedBeansGetCreatedAtBoot()
+    {
+        AnnotatedBean.created.set(false);
+        LazyBean.created.set(false);
+        ProducingBean.produced.set(false);
+        startContainer(AnnotatedBean.class, LazyBean.class, ProducingBean.class);
+
+        assertTrue(AnnotatedBean.created.get());
+        assertTrue(ProducingBean.produced.get());
+        assertFalse(LazyBean.created.get());
+    }
+
+    @Test
+    public void dependenciesGetCreatedFirst()
+    {
+        Provider.INITIALIZED.clear();
+        addConfiguration(OpenWebBeansConfiguration.EAGER_INITIALIZATION, "true");
+        startContainer(Consumer.class, Helper.class, Provider.class);
+
+        // the consumer only reaches the provider through a dependent helper
+        assertEquals(2, Provider.INITIALIZED.size());
+        assertEquals(Provider.class.getSimpleName(), Provider.INITIALIZED.get(0));
+        assertEquals(Consumer.class.getSimpleName(), Provider.INITIALIZED.get(1));
+    }
+
+    @Test
+    public void failingInitializerFailsTheDeployment()
+    {
+        assertDeploymentFails(FailingBean.class);
+    }
+
+    @Test
+    public void exceedingTheTimeoutFailsTheDeployment()
+    {
+        addConfiguration(OpenWebBeansConfiguration.EAGER_INITIALIZATION_TIMEOUT, "50");
+        assertDeploymentFails(SlowBean.class);
+    }
+
+    private void assertDeploymentFails(Class<?> beanClass)
+    {
+        try
+        {
+            startContainer(beanClass);
+            fail("the deployment must fail");
+        }
+        catch (WebBeansConfigurationException e)
+        {
+            assertTrue(e.getCause() instanceof DeploymentException);
+        }
+    }
+
+    private static void sleep(long millis)
+    {
+        try
+        {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Eager
+    @ApplicationScoped
+    public static class AnnotatedBean
+    {
+        static final AtomicBoolean created = new AtomicBoolean();
+
+        @PostConstruct
+        public void init()
+        {
+            created.set(true);
+        }
+    }
+
+    @ApplicationScoped
+    public static class LazyBean
+    {
+        static final AtomicBoolean created = new AtomicBoolean();
+
+        @PostConstruct
+        public void init()
+        {
+            created.set(true);
+        }
+    }
+
+    @Dependent
+    public static class ProducingBean
+    {
+        static final AtomicBoolean produced = new AtomicBoolean();
+
+        @Eager
+        @Produces
+        @ApplicationScoped
+        public List<String> names()
+        {
+            produced.set(true);
+            return new CopyOnWriteArrayList<>();
+        }
+    }
+
+    @ApplicationScoped
+    public static class Provider
+    {
+        static final List<String> INITIALIZED = new CopyOnWriteArrayList<>();
+
+        @PostConstruct
+        public void init()
+        {
+            // give the consumer a chance to overtake if the dependency got ignored
+            sleep(100);
+            INITIALIZED.add(Provider.class.getSimpleName());
+        }
+    }
+
+    @Dependent
+    public static class Helper
+    {
+        @Inject
+        private Provider provider;
+    }
+
+    @ApplicationScoped
+    public static class Consumer
+    {
+        @Inject
+        private Helper helper;
+
+        @PostConstruct
+        public void init()
+        {
+            Provider.INITIALIZED.add(Consumer.class.getSimpleName());
+        }
+    }
+
+    @Eager
+    @ApplicationScoped
+    public static class FailingBean
+    {
+        @PostConstruct
+        public void init()
+        {
+            throw new IllegalStateException("cannot connect");
+        }
+    }
+
+    @Eager
+    @ApplicationScoped
+    public static class SlowBean
+    {
+        @PostConstruct
+        public void init()
+        {
+            sleep(1000);
+        }
+    }
+}
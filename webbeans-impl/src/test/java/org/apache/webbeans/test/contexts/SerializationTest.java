@@ -24,8 +24,13 @@ import static org.junit.Assert.assertTrue;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.container.SerializableBean;
 import org.apache.webbeans.context.SessionContext;
+import org.apache.webbeans.context.creational.BeanInstanceBag;
+import org.apache.webbeans.context.creational.CreationalContextImpl;
+import org.apache.webbeans.context.creational.DependentCreationalContext;
 import org.apache.webbeans.service.ClassLoaderProxyService;
+import org.apache.webbeans.service.DefaultPassivationCodec;
 import org.apache.webbeans.spi.DefiningClassService;
+import org.apache.webbeans.spi.PassivationCodec;
 import org.apache.webbeans.test.AbstractUnitTest;
 import org.apache.webbeans.test.contexts.serialize.AppScopedBean;
 import org.apache.webbeans.test.contexts.serialize.SessScopedBean;
@@ -56,12 +61,16 @@ import org.junit.rules.TestName;
 
 import javax.enterprise.context.SessionScoped;
 import javax.enterprise.context.spi.Context;
+import javax.enterprise.context.spi.Contextual;
 import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanManager;
 import java.io.*;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
@@ -216,6 +225,140 @@ public class SerializationTest extends AbstractUnitTest
         Assert.assertTrue(ssb2.getApp().getI() == 4711);
     }
 
+    @Test
+    public void testPassivationCodec() throws Exception
+    {
+        CountingPassivationCodec codec = new CountingPassivationCodec();
+        addService(PassivationCodec.class, codec);
+        startContainer(SessScopedBean.class, AppScopedBean.class);
+
+        Bean<SessScopedBean> bean = getBean(SessScopedBean.class);
+        getInstance(SessScopedBean.class).getApp().setI(4711);
+
+        Context sessionContext = getBeanManager().getContext(SessionScoped.class);
+        byte[] ba = serializeObject(sessionContext);
+        Assert.assertEquals(1, codec.written);
+
+        SessionContext sessContext2 = (SessionContext) deSerializeObject(ba);
+        Assert.assertEquals(1, codec.read);
+        sessContext2.setActive(true);
+
+        SessScopedBean ssb2 = sessContext2.get(bean);
+        Assert.assertNotNull(ssb2);
+        Assert.assertEquals(4711, ssb2.getApp().getI());
+
+        // the deserialized reference is the shared proxy of the BeanManager
+        Assert.assertSame(getInstance(AppScopedBean.class), ssb2.getApp());
+    }
+
+    @Test
+    public void testLegacyFormat() throws Exception
+    {
+        startContainer(SessScopedBean.class, AppScopedBean.class);
+
+        Bean<SessScopedBean> bean = getBean(SessScopedBean.class);
+        getInstance(SessScopedBean.class).getApp().setI(4711);
+
+        // a session which got passivated by a release before the PassivationCodec
+        Context sessionContext = getBeanManager().getContext(SessionScoped.class);
+        byte[] ba = serializeObject(new LegacyFormatSessionContext(bean, getBeanManager().createCreationalContext(bean), sessionContext.get(bean)));
+
+        SessionContext sessContext2 = (SessionContext) deSerializeObject(ba);
+        sessContext2.setActive(true);
+
+        SessScopedBean ssb2 = sessContext2.get(bean);
+        Assert.assertNotNull(ssb2);
+        Assert.assertEquals(4711, ssb2.getApp().getI());
+    }
+
+    @Test
+    public void testDependentWithoutContextual() throws Exception
+    {
+        startContainer(SessScopedBean.class, AppScopedBean.class);
+
+        Bean<SessScopedBean> bean = getBean(SessScopedBean.class);
+        CreationalContextImpl<SessScopedBean> creationalContext =
+            (CreationalContextImpl<SessScopedBean>) getBeanManager().createCreationalContext(bean);
+        creationalContext.addDependent(null, "dependent without contextual");
+
+        byte[] ba = serializeObject(new DependentsSessionContext(bean, creationalContext, bean.create(creationalContext)));
+
+        DependentsSessionContext sessContext2 = (DependentsSessionContext) deSerializeObject(ba);
+        List<DependentCreationalContext<?>> dependents = sessContext2.getCreationalContext(bean).getDependentObjects();
+        Assert.assertEquals(1, dependents.size());
+        Assert.assertNull(dependents.get(0).getContextual());
+        Assert.assertEquals("dependent without contextual", dependents.get(0).getInstance());
+    }
+
+    /**
+     * Gives access to the CreationalContext of a bean.
+     */
+    public static class DependentsSessionContext extends SessionContext
+    {
+        public DependentsSessionContext()
+        {
+            // for deserialization
+        }
+
+        <T> DependentsSessionContext(Bean<T> bean, CreationalContext<T> creationalContext, T instance)
+        {
+            componentInstanceMap.put(bean, new BeanInstanceBag<>(creationalContext, instance));
+        }
+
+        CreationalContextImpl<?> getCreationalContext(Bean<?> bean)
+        {
+            return (CreationalContextImpl<?>) componentInstanceMap.get(bean).getBeanCreationalContext();
+        }
+    }
+
+    /**
+     * Writes the stream format of previous releases: the scope followed by a Map of bags per passivation id.
+     */
+    public static class LegacyFormatSessionContext extends SessionContext
+    {
+        public LegacyFormatSessionContext()
+        {
+            // for deserialization
+        }
+
+        <T> LegacyFormatSessionContext(Bean<T> bean, CreationalContext<T> creationalContext, T instance)
+        {
+            componentInstanceMap.put(bean, new BeanInstanceBag<>(creationalContext, instance));
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException
+        {
+            Map<String, BeanInstanceBag<?>> map = new HashMap<>();
+            for (Map.Entry<Contextual<?>, BeanInstanceBag<?>> beanBagEntry : componentInstanceMap.entrySet())
+            {
+                map.put(WebBeansUtil.getPassivationId(beanBagEntry.getKey()), beanBagEntry.getValue());
+            }
+            out.writeObject(getScope());
+            out.writeObject(map);
+        }
+    }
+
+    public static class CountingPassivationCodec extends DefaultPassivationCodec
+    {
+        private int written;
+        private int read;
+
+        @Override
+        public void writeInstance(ObjectOutput out, Object instance) throws IOException
+        {
+            written++;
+            super.writeInstance(out, instance);
+        }
+
+        @Override
+        public Object readInstance(ObjectInput in) throws IOException, ClassNotFoundException
+        {
+            read++;
+            return super.readInstance(in);
+        }
+    }
+
     public static byte[] serializeBean(Bean<?> bean) throws IOException
     {
         return serializeObject(bean);
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.interceptors.business.tests;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static org.junit.Assert.assertEquals;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import javax.annotation.Priority;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InterceptorBinding;
+import javax.interceptor.InvocationContext;
+
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+/**
+ * Methods with a single interceptor get invoked via a dedicated InvocationContext.
+ */
+public class SingleInterceptorInvocationTest extends AbstractUnitTest
+{
+    @Test
+    public void testSingleInterceptorCanProceedAgain()
+    {
+        startContainer(RetryInterceptor.class, TracingInterceptor.class, FlakyService.class);
+
+        FlakyService service = getInstance(FlakyService.class);
+        assertEquals("ok after 2 attempts", service.call());
+        assertEquals("retry:ok after 4 attempts", service.traced());
+    }
+
+    @InterceptorBinding
+    @Retention(RUNTIME)
+    @Target({TYPE, METHOD})
+    public @interface Retry
+    {
+    }
+
+    @InterceptorBinding
+    @Retention(RUNTIME)
+    @Target({TYPE, METHOD})
+    public @interface Traced
+    {
+    }
+
+    @Retry
+    @Interceptor
+    @Priority(1000)
+    public static class RetryInterceptor
+    {
+        @AroundInvoke
+        public Object retry(InvocationContext ic) throws Exception
+        {
+            ic.getContextData().put("retried", Boolean.FALSE);
+            try
+            {
+                return ic.proceed();
+            }
+            catch (IllegalStateException e)
+            {
+                ic.getContextData().put("retried", Boolean.TRUE);
+                return ic.proceed();
+            }
+        }
+    }
+
+    @Traced
+    @Interceptor
+    @Priority(1100)
+    public static class TracingInterceptor
+    {
+        @AroundInvoke
+        public Object trace(InvocationContext ic) throws Exception
+        {
+            return (Boolean.TRUE.equals(ic.getContextData().get("retried")) ? "retry:" : "") + ic.proceed();
+        }
+    }
+
+    public static class FlakyService
+    {
+        private int attempts;
+
+        @Retry
+        public String call()
+        {
+            return attempt();
+        }
+
+        @Retry
+        @Traced
+        public String traced()
+        {
+            return attempt();
+        }
+
+        private String attempt()
+        {
+            attempts++;
+            if (attempts % 2 == 1)
+            {
+                throw new IllegalStateException("attempt " + attempts);
+            }
+            return "ok after " + attempts + " attempts";
+        }
+    }
+}
@@ -221,10 +221,25 @@ public class NormalScopeProxyFactoryTest extends AbstractUnitTest
 
     }
 
+    @Test
+    public void testDeterministicProxyClassName() throws Exception
+    {
+        NormalScopeProxyFactory pf = new NormalScopeProxyFactory(new WebBeansContext());
+        ClassLoader classLoader = new URLClassLoader(new URL[0]);
+
+        Class<ClassInterceptedClass> proxyClass = pf.createProxyClass(classLoader, ClassInterceptedClass.class);
+
+        // the very same proxy class gets reused, even by another factory
+        assertSame(proxyClass, pf.createProxyClass(classLoader, ClassInterceptedClass.class));
+        assertSame(proxyClass, new NormalScopeProxyFactory(new WebBeansContext()).createProxyClass(classLoader, ClassInterceptedClass.class));
+
+        Assert.assertTrue(proxyClass.getName().startsWith(ClassInterceptedClass.class.getName() + "$$OwbNormalScopeProxy"));
+    }
+
     // ensure we don't get:
     // java.lang.ClassFormatError: Duplicate method name "writeReplace" with signature
     // "()Ljava.lang.Object;" in class file org/apache/webbeans/test/interceptors/factory/
-    // NormalScopeProxyFactoryTest$IHaveAWriteReplace$$OwbNormalScopeProxy0
+    // NormalScopeProxyFactoryTest$IHaveAWriteReplace$$OwbNormalScopeProxy<hash>
     @Test
     public void writeReplaceIsIgnoredWhenPresentInDelegate() throws Exception
     {
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.interceptors.lazy;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Serializable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Priority;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InterceptorBinding;
+import javax.interceptor.InvocationContext;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.context.creational.CreationalContextImpl;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.apache.webbeans.test.util.Serializations;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LazyInterceptorInstancesTest extends AbstractUnitTest
+{
+    @Before
+    public void enableLazyInstances()
+    {
+        FirstInterceptor.CREATED.set(0);
+        SecondInterceptor.CREATED.set(0);
+        addConfiguration(OpenWebBeansConfiguration.LAZY_INTERCEPTOR_INSTANCES, "true");
+    }
+
+    @Test
+    public void interceptorsGetCreatedOnFirstUse()
+    {
+        startContainer(FirstInterceptor.class, SecondInterceptor.class, Service.class);
+
+        Service service = getInstance(Service.class);
+        assertEquals(0, FirstInterceptor.CREATED.get());
+        assertEquals(0, SecondInterceptor.CREATED.get());
+
+        assertEquals("first:a", service.first("a"));
+        assertEquals("first:b", service.first("b"));
+        assertEquals(1, FirstInterceptor.CREATED.get());
+        assertEquals(0, SecondInterceptor.CREATED.get());
+
+        assertEquals("second:c", service.second("c"));
+        assertEquals(1, FirstInterceptor.CREATED.get());
+        assertEquals(1, SecondInterceptor.CREATED.get());
+
+        assertEquals("plain", service.plain());
+    }
+
+    @Test
+    public void serialization() throws Exception
+    {
+        startContainer(FirstInterceptor.class, SecondInterceptor.class, Service.class);
+
+        Service service = getInstance(Service.class);
+        assertEquals("first:a", service.first("a"));
+
+        Service deserialized = (Service) Serializations.deserialize(Serializations.serialize(service));
+        assertEquals("first:b", deserialized.first("b"));
+        assertEquals("second:c", deserialized.second("c"));
+    }
+
+    @Test
+    public void noInterceptorsGetCreatedAfterDestroy()
+    {
+        startContainer(FirstInterceptor.class, SecondInterceptor.class, Service.class);
+
+        Bean<Service> bean = getBean(Service.class);
+        CreationalContext<Service> creationalContext = getBeanManager().createCreationalContext(bean);
+        Service service = bean.create(creationalContext);
+        assertEquals("first:a", service.first("a"));
+
+        bean.destroy(service, creationalContext);
+
+        try
+        {
+            service.second("b");
+            fail("the interceptor would never get destroyed");
+        }
+        catch (IllegalStateException e)
+        {
+            // expected
+        }
+        assertEquals(0, SecondInterceptor.CREATED.get());
+        assertTrue(((CreationalContextImpl<Service>) creationalContext).getDependentObjects().isEmpty());
+    }
+
+    @InterceptorBinding
+    @Retention(RUNTIME)
+    @Target({TYPE, METHOD})
+    public @interface First
+    {
+    }
+
+    @InterceptorBinding
+    @Retention(RUNTIME)
+    @Target({TYPE, METHOD})
+    public @interface Second
+    {
+    }
+
+    @First
+    @Interceptor
+    @Priority(1000)
+    public static class FirstInterceptor implements Serializable
+    {
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        public FirstInterceptor()
+        {
+            CREATED.incrementAndGet();
+        }
+
+        @AroundInvoke
+        public Object invoke(InvocationContext ic) throws Exception
+        {
+            return "first:" + ic.proceed();
+        }
+    }
+
+    @Second
+    @Interceptor
+    @Priority(1000)
+    public static class SecondInterceptor implements Serializable
+    {
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        public SecondInterceptor()
+        {
+            CREATED.incrementAndGet();
+        }
+
+        @AroundInvoke
+        public Object invoke(InvocationContext ic) throws Exception
+        {
+            return "second:" + ic.proceed();
+        }
+    }
+
+    public static class Service implements Serializable
+    {
+        @First
+        public String first(String value)
+        {
+            return value;
+        }
+
+        @Second
+        public String second(String value)
+        {
+            return value;
+        }
+
+        public String plain()
+        {
+            return "plain";
+        }
+    }
+}
@@ -21,11 +21,14 @@ package org.apache.webbeans.test.interceptors.resolution;
 import javax.enterprise.inject.spi.AnnotatedType;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.InterceptionType;
+import javax.enterprise.inject.spi.Interceptor;
 import javax.enterprise.util.AnnotationLiteral;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -185,9 +188,17 @@ public class InterceptorResolutionServiceTest extends AbstractUnitTest
         Assert.assertEquals(2, methodInterceptorInfos.get(methodWithEnhancedAction).getCdiInterceptors().length);
         
         methodInterceptorInfos.remove(methodWithEnhancedAction);
+        Interceptor<?>[] sharedInterceptors = null;
         for (BusinessMethodInterceptorInfo mi : methodInterceptorInfos.values())
         {
             Assert.assertEquals(3, mi.getCdiInterceptors().length);
+
+            // methods with the same interceptors share the same chain
+            if (sharedInterceptors == null)
+            {
+                sharedInterceptors = mi.getCdiInterceptors();
+            }
+            Assert.assertSame(sharedInterceptors, mi.getCdiInterceptors());
         }
 
         Assert.assertEquals(2, interceptorInfo.getLifecycleMethodInterceptorInfos().size());
@@ -337,4 +348,48 @@ public class InterceptorResolutionServiceTest extends AbstractUnitTest
         shutDownContainer();
     }
 
+    @Test
+    public void testResolveInterceptorsIgnoresBindingOrder() throws Exception
+    {
+        Collection<String> beanXmls = new ArrayList<String>();
+        beanXmls.add(getXmlPath(this.getClass().getPackage().getName(), "InterceptorResolutionServiceTest"));
+
+        Collection<Class<?>> beanClasses = new ArrayList<Class<?>>();
+        beanClasses.add(Transactional.class);
+        beanClasses.add(Secure.class);
+        beanClasses.add(Action.class);
+        beanClasses.add(ActionInterceptor.class);
+        beanClasses.add(SecureInterceptor.class);
+        beanClasses.add(TransactionalInterceptor.class);
+
+        startContainer(beanClasses, beanXmls);
+
+        Annotation transactional = new AnnotationLiteral<Transactional>() {};
+        Annotation action = new ActionLiteral();
+
+        List<Interceptor<?>> interceptors = getBeanManager().resolveInterceptors(InterceptionType.AROUND_INVOKE, transactional);
+        Assert.assertEquals(1, interceptors.size());
+        Assert.assertEquals(TransactionalInterceptor.class, interceptors.get(0).getBeanClass());
+
+        List<Interceptor<?>> first = getBeanManager().resolveInterceptors(InterceptionType.AROUND_INVOKE, transactional, action);
+        Assert.assertEquals(2, first.size());
+        first.clear();
+
+        List<Interceptor<?>> second = getBeanManager().resolveInterceptors(InterceptionType.AROUND_INVOKE, action, transactional);
+        Assert.assertEquals(2, second.size());
+        Assert.assertEquals(getBeanManager().resolveInterceptors(InterceptionType.AROUND_INVOKE, transactional, action), second);
+
+        Assert.assertTrue(getBeanManager().resolveInterceptors(InterceptionType.POST_CONSTRUCT, action).isEmpty());
+
+        shutDownContainer();
+    }
+
+    public static class ActionLiteral extends AnnotationLiteral<Action> implements Action
+    {
+        @Override
+        public Type value()
+        {
+            return Type.STANDARD;
+        }
+    }
 }
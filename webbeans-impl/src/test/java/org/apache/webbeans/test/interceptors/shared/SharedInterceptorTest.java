@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.interceptors.shared;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Priority;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.DeploymentException;
+import javax.enterprise.inject.spi.InjectionPoint;
+import javax.inject.Inject;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InterceptorBinding;
+import javax.interceptor.InvocationContext;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.exception.WebBeansConfigurationException;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedInterceptorTest extends AbstractUnitTest
+{
+    @Before
+    public void reset()
+    {
+        StatelessInterceptor.CREATED.set(0);
+        Resource.DESTROYED.set(0);
+        StatefulInterceptor.CREATED.set(0);
+        addConfiguration(OpenWebBeansConfiguration.SHARED_INTERCEPTORS, StatelessInterceptor.class.getName());
+    }
+
+    @Test
+    public void statelessInterceptorGetsShared()
+    {
+        startContainer(StatelessInterceptor.class, StatefulInterceptor.class, Resource.class, Service.class);
+        assertInterceptorInstances();
+    }
+
+    @Test
+    public void statelessInterceptorGetsSharedLazily()
+    {
+        addConfiguration(OpenWebBeansConfiguration.LAZY_INTERCEPTOR_INSTANCES, "true");
+        startContainer(StatelessInterceptor.class, StatefulInterceptor.class, Resource.class, Service.class);
+        assertInterceptorInstances();
+    }
+
+    @Test
+    public void sharedInterceptorMustNotInjectInjectionPoint()
+    {
+        addConfiguration(OpenWebBeansConfiguration.SHARED_INTERCEPTORS, InjectionPointInterceptor.class.getName());
+        assertDeploymentFails(InjectionPointInterceptor.class, Service.class);
+    }
+
+    @Test
+    public void sharedInterceptorMustNotInjectInterceptedBean()
+    {
+        addConfiguration(OpenWebBeansConfiguration.SHARED_INTERCEPTORS, InterceptedBeanInterceptor.class.getName());
+        assertDeploymentFails(InterceptedBeanInterceptor.class, Service.class);
+    }
+
+    @Test
+    public void notSharedInterceptorMayInjectInterceptedBean()
+    {
+        startContainer(InterceptedBeanInterceptor.class, Service.class);
+        assertEquals(Service.class.getName() + ":ok", getInstance(Service.class).call());
+    }
+
+    private void assertDeploymentFails(Class<?>... beanClasses)
+    {
+        try
+        {
+            startContainer(beanClasses);
+            fail("shared interceptor must not get deployed");
+        }
+        catch (WebBeansConfigurationException e)
+        {
+            assertTrue(e.getCause() instanceof DeploymentException);
+        }
+    }
+
+    private void assertInterceptorInstances()
+    {
+        for (int i = 0; i < 3; i++)
+        {
+            assertEquals("stateful:stateless:ok", getInstance(Service.class).call());
+        }
+
+        assertEquals(1, StatelessInterceptor.CREATED.get());
+        assertEquals(3, StatefulInterceptor.CREATED.get());
+
+        shutDownContainer();
+        // the dependents of the shared instance get destroyed on shutdown
+        assertEquals(1, Resource.DESTROYED.get());
+    }
+
+    @InterceptorBinding
+    @Retention(RUNTIME)
+    @Target({TYPE, METHOD})
+    public @interface Intercepted
+    {
+    }
+
+    @Intercepted
+    @Interceptor
+    @Priority(1000)
+    public static class StatelessInterceptor
+    {
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        @Inject
+        private Resource resource;
+
+        public StatelessInterceptor()
+        {
+            CREATED.incrementAndGet();
+        }
+
+        @AroundInvoke
+        public Object invoke(InvocationContext ic) throws Exception
+        {
+            return resource.name() + ":" + ic.proceed();
+        }
+    }
+
+    public static class Resource
+    {
+        static final AtomicInteger DESTROYED = new AtomicInteger();
+
+        public String name()
+        {
+            return "stateless";
+        }
+
+        @PreDestroy
+        public void destroy()
+        {
+            DESTROYED.incrementAndGet();
+        }
+    }
+
+    @Intercepted
+    @Interceptor
+    @Priority(900)
+    public static class StatefulInterceptor
+    {
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        public StatefulInterceptor()
+        {
+            CREATED.incrementAndGet();
+        }
+
+        @AroundInvoke
+        public Object invoke(InvocationContext ic) throws Exception
+        {
+            return "stateful:" + ic.proceed();
+        }
+    }
+
+    @Intercepted
+    @Interceptor
+    @Priority(1000)
+    public static class InjectionPointInterceptor
+    {
+        @Inject
+        private InjectionPoint injectionPoint;
+
+        @AroundInvoke
+        public Object invoke(InvocationContext ic) throws Exception
+        {
+            return ic.proceed();
+        }
+    }
+
+    @Intercepted
+    @Interceptor
+    @Priority(1000)
+    public static class InterceptedBeanInterceptor
+    {
+        @Inject
+        @javax.enterprise.inject.Intercepted
+        private Bean<?> intercepted;
+
+        @AroundInvoke
+        public Object invoke(InvocationContext ic) throws Exception
+        {
+            return intercepted.getBeanClass().getName() + ":" + ic.proceed();
+        }
+    }
+
+    @Intercepted
+    public static class Service
+    {
+        public String call()
+        {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.interceptors.subclass;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Priority;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InterceptorBinding;
+import javax.interceptor.InvocationContext;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.proxy.InterceptedSubclassProxyFactory;
+import org.apache.webbeans.proxy.NormalScopeProxyFactory;
+import org.apache.webbeans.proxy.OwbInterceptedSubclass;
+import org.apache.webbeans.proxy.OwbInterceptorProxy;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SubclassInterceptionTest extends AbstractUnitTest
+{
+    @Before
+    public void enableSubclassInterception()
+    {
+        LoggingInterceptor.CALLS.clear();
+        UpperCaseInterceptor.postConstructed = false;
+        addConfiguration(OpenWebBeansConfiguration.PROXY_SUBCLASS_INTERCEPTION, "true");
+    }
+
+    @Test
+    public void testInterceptedSubclass() throws Exception
+    {
+        startContainer(LoggingInterceptor.class, Repository.class, Service.class);
+
+        Service service = NormalScopeProxyFactory.unwrapInstance(getInstance(Service.class));
+        assertTrue(service instanceof OwbInterceptedSubclass);
+        assertSame(Service.class, service.getClass().getSuperclass());
+
+        // constructor injection still works
+        assertEquals("repo", service.getRepository().name());
+
+        assertEquals(5L, service.add(2, 3L));
+        assertEquals(7.5, service.scale(2.5d, (short) 3), 0.0001);
+        service.reset();
+        assertEquals("hello world", service.concat("hello", " world"));
+
+        try
+        {
+            service.fail();
+            fail("checked exception expected");
+        }
+        catch (IOException e)
+        {
+            assertEquals("failed", e.getMessage());
+        }
+
+        // not intercepted
+        assertEquals(42, service.answer());
+
+        List<String> expected = new ArrayList<>();
+        expected.add("name");
+        expected.add("add");
+        expected.add("scale");
+        expected.add("reset");
+        expected.add("concat");
+        expected.add("fail");
+        assertEquals(expected, LoggingInterceptor.CALLS);
+    }
+
+    @Test
+    public void testSelfInvocationGetsIntercepted()
+    {
+        startContainer(LoggingInterceptor.class, Repository.class, Service.class);
+
+        Service service = getInstance(Service.class);
+        assertEquals(10L, service.twice(5L));
+
+        List<String> expected = new ArrayList<>();
+        expected.add("twice");
+        expected.add("add");
+        assertEquals(expected, LoggingInterceptor.CALLS);
+    }
+
+    @Test
+    public void testDependentBean()
+    {
+        startContainer(LoggingInterceptor.class, Repository.class);
+
+        Repository repository = getInstance(Repository.class);
+        assertTrue(repository instanceof OwbInterceptedSubclass);
+        assertEquals("repo", repository.name());
+        assertEquals(1, LoggingInterceptor.CALLS.size());
+    }
+
+    @Test
+    public void testSerializableBeanKeepsProxy()
+    {
+        startContainer(LoggingInterceptor.class, SerializableService.class);
+
+        SerializableService service = getInstance(SerializableService.class);
+        assertTrue(service instanceof OwbInterceptorProxy);
+        assertFalse(service instanceof OwbInterceptedSubclass);
+        assertEquals("ok", service.call());
+        assertEquals(1, LoggingInterceptor.CALLS.size());
+    }
+
+    @Test
+    public void testInterceptorChainsAreSharedByAllInstances() throws Exception
+    {
+        startContainer(LoggingInterceptor.class, Repository.class);
+
+        Repository first = getInstance(Repository.class);
+        Repository second = getInstance(Repository.class);
+
+        // no InterceptorHandler, both instances index into the same chains
+        assertNull(getWebBeansContext().getInterceptorDecoratorProxyFactory().getInterceptorHandler((OwbInterceptorProxy) first));
+        Field chains = first.getClass().getDeclaredField(InterceptedSubclassProxyFactory.FIELD_INTERCEPTOR_CHAINS);
+        chains.setAccessible(true);
+        assertNotNull(chains.get(first));
+        assertSame(chains.get(first), chains.get(second));
+    }
+
+    @Test
+    public void testLifecycleInterceptorsAndParameters()
+    {
+        startContainer(UpperCaseInterceptor.class, Greeter.class);
+
+        Greeter greeter = getInstance(Greeter.class);
+        assertTrue(greeter instanceof OwbInterceptedSubclass);
+        assertTrue(UpperCaseInterceptor.postConstructed);
+        assertEquals("Hello WORLD", greeter.greet("world"));
+    }
+
+    @InterceptorBinding
+    @Retention(RUNTIME)
+    @Target({TYPE, METHOD})
+    public @interface Logged
+    {
+    }
+
+    @InterceptorBinding
+    @Retention(RUNTIME)
+    @Target(TYPE)
+    public @interface UpperCase
+    {
+    }
+
+    @Interceptor
+    @UpperCase
+    @Priority(0)
+    public static class UpperCaseInterceptor
+    {
+        static boolean postConstructed;
+
+        @PostConstruct
+        public void postConstruct(InvocationContext ic) throws Exception
+        {
+            postConstructed = ic.getTarget() instanceof Greeter;
+            ic.proceed();
+        }
+
+        @AroundInvoke
+        public Object upperCase(InvocationContext ic) throws Exception
+        {
+            assertSame(ic.getTarget().getClass().getSuperclass(), ic.getMethod().getDeclaringClass());
+            ic.setParameters(new Object[]{ ((String) ic.getParameters()[0]).toUpperCase() });
+            return ic.proceed();
+        }
+    }
+
+    @UpperCase
+    @Dependent
+    public static class Greeter
+    {
+        public String greet(String name)
+        {
+            return "Hello " + name;
+        }
+    }
+
+    @Interceptor
+    @Logged
+    @Priority(0)
+    public static class LoggingInterceptor
+    {
+        static final List<String> CALLS = new ArrayList<>();
+
+        @AroundInvoke
+        public Object log(InvocationContext ic) throws Exception
+        {
+            CALLS.add(ic.getMethod().getName());
+            return ic.proceed();
+        }
+    }
+
+    @Dependent
+    public static class Repository
+    {
+        @Logged
+        public String name()
+        {
+            return "repo";
+        }
+    }
+
+    @RequestScoped
+    public static class Service
+    {
+        private Repository repository;
+
+        protected Service()
+        {
+            // for the proxies
+        }
+
+        @Inject
+        public Service(Repository repository)
+        {
+            this.repository = repository;
+        }
+
+        public Repository getRepository()
+        {
+            return repository;
+        }
+
+        @Logged
+        public long add(int a, long b)
+        {
+            return a + b;
+        }
+
+        @Logged
+        public double scale(double value, short factor)
+        {
+            return value * factor;
+        }
+
+        @Logged
+        public void reset()
+        {
+            // nothing to do
+        }
+
+        @Logged
+        protected String concat(String a, String b)
+        {
+            return a + b;
+        }
+
+        @Logged
+        public void fail() throws IOException
+        {
+            throw new IOException("failed");
+        }
+
+        @Logged
+        public long twice(long value)
+        {
+            return add((int) value, value);
+        }
+
+        public int answer()
+        {
+            return 42;
+        }
+    }
+
+    @Logged
+    @Dependent
+    public static class SerializableService implements Serializable
+    {
+        public String call()
+        {
+            return "ok";
+        }
+    }
+}
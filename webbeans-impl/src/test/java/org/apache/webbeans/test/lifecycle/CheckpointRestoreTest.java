@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.lifecycle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.ObservesAsync;
+import javax.inject.Inject;
+
+import org.apache.webbeans.conversation.ConversationImpl;
+import org.apache.webbeans.conversation.ConversationManager;
+import org.apache.webbeans.spi.CheckpointAware;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+public class CheckpointRestoreTest extends AbstractUnitTest
+{
+    @Test
+    public void servicesGetNotified()
+    {
+        RecordingService service = new RecordingService();
+        addService(RecordingService.class, service);
+        startContainer(RequestBean.class);
+
+        CheckpointAware lifecycle = (CheckpointAware) getLifecycle();
+        lifecycle.beforeCheckpoint();
+        assertEquals(1, service.checkpoints.get());
+        assertEquals(0, service.restores.get());
+
+        lifecycle.afterRestore();
+        assertEquals(1, service.checkpoints.get());
+        assertEquals(1, service.restores.get());
+    }
+
+    @Test
+    public void threadBoundContextsGetEnded()
+    {
+        RequestBean.destroyed.set(false);
+        startContainer(RequestBean.class);
+        startContext(RequestScoped.class);
+        getInstance(RequestBean.class).touch();
+
+        ((CheckpointAware) getLifecycle()).beforeCheckpoint();
+        assertTrue(RequestBean.destroyed.get());
+        assertNull(getWebBeansContext().getContextsService().getCurrentContext(RequestScoped.class));
+    }
+
+    @Test
+    public void asyncObserversGetDrained() throws Exception
+    {
+        startContainer(AsyncObserver.class, AsyncFirer.class);
+        AsyncObserver.observed.set(0);
+
+        AsyncFirer firer = getInstance(AsyncFirer.class);
+        firer.fire();
+
+        CheckpointAware lifecycle = (CheckpointAware) getLifecycle();
+        lifecycle.beforeCheckpoint();
+        assertEquals(1, AsyncObserver.observed.get());
+
+        lifecycle.afterRestore();
+        firer.fire().toCompletableFuture().get(1, TimeUnit.MINUTES);
+        assertEquals(2, AsyncObserver.observed.get());
+    }
+
+    @Test
+    public void conversationTimeoutsGetReinitialized() throws Exception
+    {
+        startContainer(RequestBean.class);
+        ConversationManager conversationManager = getWebBeansContext().getConversationManager();
+
+        ConversationImpl conversation = new ConversationImpl(getWebBeansContext());
+        conversation.setTimeout(50);
+        conversation.updateLastAccessTime();
+        Thread.sleep(100);
+        assertTrue(conversationManager.conversationTimedOut(conversation));
+
+        ((CheckpointAware) getLifecycle()).afterRestore();
+        assertFalse(conversationManager.conversationTimedOut(conversation));
+    }
+
+    public static class RecordingService implements CheckpointAware
+    {
+        private final AtomicInteger checkpoints = new AtomicInteger();
+        private final AtomicInteger restores = new AtomicInteger();
+
+        @Override
+        public void beforeCheckpoint()
+        {
+            checkpoints.incrementAndGet();
+        }
+
+        @Override
+        public void afterRestore()
+        {
+            restores.incrementAndGet();
+        }
+    }
+
+    @RequestScoped
+    public static class RequestBean
+    {
+        static final AtomicBoolean destroyed = new AtomicBoolean();
+
+        public void touch()
+        {
+            // just to create the instance
+        }
+
+        @PreDestroy
+        public void destroy()
+        {
+            destroyed.set(true);
+        }
+    }
+
+    @ApplicationScoped
+    public static class AsyncFirer
+    {
+        @Inject
+        private Event<String> event;
+
+        public CompletionStage<String> fire()
+        {
+            return event.fireAsync("checkpoint");
+        }
+    }
+
+    @ApplicationScoped
+    public static class AsyncObserver
+    {
+        static final AtomicInteger observed = new AtomicInteger();
+
+        public void observe(@ObservesAsync String payload) throws InterruptedException
+        {
+            Thread.sleep(200);
+            observed.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.lifecycle;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.inject.Stereotype;
+import javax.inject.Inject;
+import javax.inject.Qualifier;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The metadata caches must not keep the WebBeansContext of a stopped application alive.
+ */
+public class RedeployTest extends AbstractUnitTest
+{
+    @Test
+    public void testStoppedContextGetsCollected() throws InterruptedException
+    {
+        WeakReference<WebBeansContext> firstDeployment = deploy();
+        shutDownContainer();
+
+        // redeploy, this also replaces the WebBeansContext held by AbstractUnitTest
+        WeakReference<WebBeansContext> secondDeployment = deploy();
+
+        List<byte[]> garbage = new ArrayList<>();
+        for (int i = 0; i < 100 && firstDeployment.get() != null; i++)
+        {
+            garbage.add(new byte[1024 * 1024]);
+            if (garbage.size() > 10)
+            {
+                garbage.clear();
+            }
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        Assert.assertNull("the WebBeansContext of the stopped application is still referenced", firstDeployment.get());
+        Assert.assertNotNull(secondDeployment.get());
+    }
+
+    private WeakReference<WebBeansContext> deploy()
+    {
+        startContainer(Service.class, Consumer.class);
+        Assert.assertEquals("service", getInstance(Consumer.class).call());
+        return new WeakReference<>(getWebBeansContext());
+    }
+
+    @Qualifier
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Special
+    {
+    }
+
+    @Stereotype
+    @RequestScoped
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Model
+    {
+    }
+
+    @Model
+    @Special
+    public static class Service
+    {
+        public String name()
+        {
+            return "service";
+        }
+    }
+
+    @ApplicationScoped
+    public static class Consumer
+    {
+        @Inject
+        @Special
+        private Service service;
+
+        public String call()
+        {
+            return service.name();
+        }
+    }
+}
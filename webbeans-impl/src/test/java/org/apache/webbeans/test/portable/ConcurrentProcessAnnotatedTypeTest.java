@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.portable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.Extension;
+import javax.enterprise.inject.spi.ProcessAnnotatedType;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class ConcurrentProcessAnnotatedTypeTest extends AbstractUnitTest
+{
+    @Test
+    public void concurrentDispatch()
+    {
+        addConfiguration(OpenWebBeansConfiguration.CONCURRENT_PAT_EXTENSIONS, ThreadSafeExtension.class.getName());
+        ThreadSafeExtension threadSafe = new ThreadSafeExtension();
+        addExtension(threadSafe);
+        LockedExtension locked = new LockedExtension();
+        addExtension(locked);
+        VetoExtension veto = new VetoExtension();
+        addExtension(veto);
+        startContainer(BeanA.class, BeanB.class, BeanC.class, BeanD.class, VetoedBean.class);
+
+        assertTrue(getWebBeansContext().getNotificationManager().isConcurrentProcessAnnotatedType());
+        assertTrue(threadSafe.seen.contains(BeanA.class));
+        assertTrue(threadSafe.seen.contains(BeanD.class));
+        assertNotNull(getBean(BeanA.class));
+        assertNotNull(getBean(BeanD.class));
+        assertNull(getBean(VetoedBean.class));
+        assertEquals(1, veto.count);
+
+        // extensions which are not listed as thread safe only ever see one thread at a time
+        assertEquals(5, locked.concurrency.invocations.get());
+        assertTrue(locked.concurrency.max.get() <= 1);
+    }
+
+    @Test
+    public void threadSafeExtensionSeesConcurrentEvents()
+    {
+        // PATs only get fired concurrently if there is more than one CPU
+        Assume.assumeTrue(Runtime.getRuntime().availableProcessors() > 1);
+
+        addConfiguration(OpenWebBeansConfiguration.CONCURRENT_PAT_EXTENSIONS, ThreadSafeExtension.class.getName());
+        ThreadSafeExtension threadSafe = new ThreadSafeExtension();
+        addExtension(threadSafe);
+        startContainer(BeanA.class, BeanB.class, BeanC.class, BeanD.class);
+
+        assertEquals(4, threadSafe.concurrency.invocations.get());
+        assertTrue(threadSafe.concurrency.max.get() > 1);
+    }
+
+    @Test
+    public void sequentialByDefault()
+    {
+        addExtension(new VetoExtension());
+        startContainer(BeanA.class, VetoedBean.class);
+
+        assertFalse(getWebBeansContext().getNotificationManager().isConcurrentProcessAnnotatedType());
+        assertNotNull(getBean(BeanA.class));
+        assertNull(getBean(VetoedBean.class));
+        assertEquals(0, getBeanManager().getBeans(VetoedBean.class).size());
+    }
+
+    /**
+     * Tracks how many threads are inside an observer at the same time.
+     */
+    private static class Concurrency
+    {
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger max = new AtomicInteger();
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        private void enter()
+        {
+            invocations.incrementAndGet();
+            int current = active.incrementAndGet();
+            max.accumulateAndGet(current, Math::max);
+        }
+
+        private void exit()
+        {
+            active.decrementAndGet();
+        }
+    }
+
+    public static class ThreadSafeExtension implements Extension
+    {
+        private final Set<Class<?>> seen = ConcurrentHashMap.newKeySet();
+        private final Concurrency concurrency = new Concurrency();
+
+        // the first two events wait for each other if they get fired concurrently
+        private final CountDownLatch overlap = new CountDownLatch(2);
+
+        void pat(@Observes ProcessAnnotatedType<?> pat) throws InterruptedException
+        {
+            concurrency.enter();
+            try
+            {
+                seen.add(pat.getAnnotatedType().getJavaClass());
+                overlap.countDown();
+                overlap.await(1, TimeUnit.SECONDS);
+            }
+            finally
+            {
+                concurrency.exit();
+            }
+        }
+    }
+
+    public static class LockedExtension implements Extension
+    {
+        private final Concurrency concurrency = new Concurrency();
+
+        void pat(@Observes ProcessAnnotatedType<?> pat) throws InterruptedException
+        {
+            concurrency.enter();
+            try
+            {
+                // give other threads the chance to enter as well
+                Thread.sleep(20);
+            }
+            finally
+            {
+                concurrency.exit();
+            }
+        }
+    }
+
+    public static class VetoExtension implements Extension
+    {
+        // not listed as thread safe, so this counter is only ever touched by one thread at a time
+        private int count;
+
+        void pat(@Observes ProcessAnnotatedType<VetoedBean> pat)
+        {
+            count++;
+            pat.veto();
+        }
+    }
+
+    public static class BeanA
+    {
+    }
+
+    public static class BeanB
+    {
+    }
+
+    public static class BeanC
+    {
+    }
+
+    public static class BeanD
+    {
+    }
+
+    public static class VetoedBean
+    {
+    }
+}
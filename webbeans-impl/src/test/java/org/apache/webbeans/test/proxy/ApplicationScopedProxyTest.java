@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.proxy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.RequestScoped;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.intercept.NormalScopedBeanInterceptorHandler;
+import org.apache.webbeans.proxy.NormalScopeProxyFactory;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+/**
+ * Test the proxies which cache the Contextual Instance of &#064;ApplicationScoped beans.
+ */
+public class ApplicationScopedProxyTest extends AbstractUnitTest
+{
+    @Test
+    public void testCachedInstance() throws Exception
+    {
+        startContainer(Counter.class, RequestCounter.class);
+
+        Counter counter = getInstance(Counter.class);
+        assertTrue(counter.getClass().getName().contains("$$OwbApplicationScopeProxy"));
+
+        Field cachedInstance = counter.getClass().getDeclaredField(NormalScopeProxyFactory.FIELD_CACHED_INSTANCE);
+        cachedInstance.setAccessible(true);
+        assertNull(cachedInstance.get(counter));
+
+        assertEquals(1, counter.increment());
+        assertEquals(2, counter.increment());
+        assertEquals(3, counter.incrementProtected());
+
+        Object instance = cachedInstance.get(counter);
+        assertNotNull(instance);
+        assertSame(NormalScopeProxyFactory.unwrapInstance(counter), instance);
+
+        NormalScopeProxyFactory.resetCachedInstance(counter);
+        assertNull(cachedInstance.get(counter));
+        assertEquals(4, counter.increment());
+        assertSame(instance, cachedInstance.get(counter));
+    }
+
+    @Test
+    public void testResetOnApplicationContextEnd() throws Exception
+    {
+        startContainer(Counter.class);
+
+        Counter counter = getInstance(Counter.class);
+        assertEquals(1, counter.increment());
+
+        getWebBeansContext().getContextsService().endContext(ApplicationScoped.class, null);
+        getWebBeansContext().getContextsService().startContext(ApplicationScoped.class, null);
+
+        // the old proxy must not keep the destroyed instance
+        assertEquals(1, counter.increment());
+    }
+
+    @Test
+    public void testNoCachingForOtherScopes() throws Exception
+    {
+        startContainer(RequestCounter.class);
+
+        RequestCounter counter = getInstance(RequestCounter.class);
+        assertEquals(1, counter.increment());
+        assertNoCachedInstanceField(counter);
+    }
+
+    @Test
+    public void testNoCachingWithDefaultHandler() throws Exception
+    {
+        addConfiguration(OpenWebBeansConfiguration.PROXY_MAPPING_PREFIX + ApplicationScoped.class.getName(),
+                NormalScopedBeanInterceptorHandler.class.getName());
+        startContainer(Counter.class);
+
+        Counter counter = getInstance(Counter.class);
+        assertEquals(1, counter.increment());
+        assertNoCachedInstanceField(counter);
+    }
+
+    private void assertNoCachedInstanceField(Object proxy)
+    {
+        try
+        {
+            proxy.getClass().getDeclaredField(NormalScopeProxyFactory.FIELD_CACHED_INSTANCE);
+        }
+        catch (NoSuchFieldException e)
+        {
+            return;
+        }
+        throw new AssertionError("proxy must not cache the contextual instance: " + proxy.getClass());
+    }
+
+    @ApplicationScoped
+    public static class Counter
+    {
+        private int count;
+
+        public int increment()
+        {
+            return ++count;
+        }
+
+        protected int incrementProtected()
+        {
+            return ++count;
+        }
+    }
+
+    @RequestScoped
+    public static class RequestCounter
+    {
+        private int count;
+
+        public int increment()
+        {
+            return ++count;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.proxy;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Properties;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.inject.spi.Bean;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.proxy.NormalScopeProxyFactory;
+import org.apache.webbeans.service.ClassLoaderProxyService;
+import org.apache.webbeans.spi.DefiningClassService;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EagerProxyGenerationTest extends AbstractUnitTest
+{
+    @Rule
+    public final TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void proxiesGetGeneratedAtBoot() throws Exception
+    {
+        File cacheDir = temp.newFolder();
+        addConfiguration(OpenWebBeansConfiguration.PROXY_EAGER_GENERATION, "true");
+        addConfiguration(OpenWebBeansConfiguration.PROXY_CACHE_DIRECTORY, cacheDir.getAbsolutePath());
+        startContainer(AppService.class, RequestService.class);
+
+        // no reference got requested yet, still both proxies are there
+        assertEquals(1, listCachedProxies(cacheDir, AppService.class).length);
+        assertEquals(1, listCachedProxies(cacheDir, RequestService.class).length);
+
+        Bean<AppService> bean = getBean(AppService.class);
+        NormalScopeProxyFactory proxyFactory = getWebBeansContext().getNormalScopeProxyFactory();
+        AppService appService = getInstance(AppService.class);
+        assertSame(proxyFactory.createProxyClass(bean), appService.getClass());
+        assertEquals("app", appService.name());
+        assertEquals("request", getInstance(RequestService.class).name());
+    }
+
+    @Test
+    public void proxyBytecodeGetsReused() throws Exception
+    {
+        File cacheDir = temp.newFolder();
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+
+        Class<AppService> first = createProxyFactory(cacheDir).createProxyClass(loader, AppService.class);
+        File[] cached = listCachedProxies(cacheDir, AppService.class);
+        assertEquals(1, cached.length);
+        long lastModified = cached[0].lastModified();
+
+        Class<AppService> second = createProxyFactory(cacheDir).createProxyClass(loader, AppService.class);
+        assertEquals(first.getName(), second.getName());
+        cached = listCachedProxies(cacheDir, AppService.class);
+        assertEquals(1, cached.length);
+        assertEquals(lastModified, cached[0].lastModified());
+        assertNotNull(second.getMethod("name"));
+    }
+
+    @Test
+    public void pregeneratedProxiesGetLoaded() throws Exception
+    {
+        File outputDir = temp.newFolder();
+        ClassLoader parent = Thread.currentThread().getContextClassLoader();
+
+        // generate the proxy in a throwaway ClassLoader and write it to the output directory
+        try (URLClassLoader generationLoader = new URLClassLoader(new URL[0], parent))
+        {
+            Class<PregeneratedService> generated = createOutputProxyFactory(outputDir).createProxyClass(generationLoader, PregeneratedService.class);
+            assertTrue(new File(outputDir, generated.getName().replace('.', '/') + ".class").isFile());
+        }
+
+        // a ClassLoader which has the written proxy on its classpath loads it instead of generating it again
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{outputDir.toURI().toURL()}, parent))
+        {
+            Class<PregeneratedService> proxyClass = createOutputProxyFactory(temp.newFolder()).createProxyClass(loader, PregeneratedService.class);
+            assertSame(loader, proxyClass.getClassLoader());
+            assertEquals(outputDir.toURI().toURL(), proxyClass.getProtectionDomain().getCodeSource().getLocation());
+        }
+    }
+
+    private NormalScopeProxyFactory createOutputProxyFactory(File outputDir)
+    {
+        Properties config = new Properties();
+        config.setProperty(OpenWebBeansConfiguration.PROXY_OUTPUT_DIRECTORY, outputDir.getAbsolutePath());
+        return new NormalScopeProxyFactory(new WebBeansContext(emptyMap(), config));
+    }
+
+    private NormalScopeProxyFactory createProxyFactory(File cacheDir)
+    {
+        Properties config = new Properties();
+        config.setProperty(DefiningClassService.class.getName(), ClassLoaderProxyService.class.getName());
+        config.setProperty(OpenWebBeansConfiguration.PROXY_CACHE_DIRECTORY, cacheDir.getAbsolutePath());
+        return new NormalScopeProxyFactory(new WebBeansContext(emptyMap(), config));
+    }
+
+    private File[] listCachedProxies(File cacheDir, Class<?> proxiedClass)
+    {
+        File[] files = cacheDir.listFiles((dir, name) -> name.startsWith(proxiedClass.getName() + "$$") && name.endsWith(".class"));
+        return files == null ? new File[0] : files;
+    }
+
+    @ApplicationScoped
+    public static class AppService
+    {
+        public String name()
+        {
+            return "app";
+        }
+    }
+
+    @RequestScoped
+    public static class PregeneratedService
+    {
+        public String name()
+        {
+            return "pregenerated";
+        }
+    }
+
+    @RequestScoped
+    public static class RequestService
+    {
+        public String name()
+        {
+            return "request";
+        }
+    }
+}
@@ -22,6 +22,10 @@ package org.apache.webbeans.test.xml;
 import javax.enterprise.inject.spi.DeploymentException;
 import java.io.File;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.webbeans.spi.BeanArchiveService;
 import org.apache.webbeans.spi.BeanArchiveService.BeanArchiveInformation;
@@ -176,6 +180,58 @@ public class BeanArchiveServiceTest
 
 
 
+    @Test
+    public void testMarkerBeansXml() throws Exception
+    {
+        Assert.assertEquals(BeanDiscoveryMode.ALL, scanBeansXmlContent("<beans/>").getBeanDiscoveryMode());
+        Assert.assertEquals(BeanDiscoveryMode.ALL,
+            scanBeansXmlContent("<?xml version=\"1.0\"?>\n<!-- marker -->\n<beans>\n</beans>\n").getBeanDiscoveryMode());
+
+        BeanArchiveInformation bai = scanBeansXmlContent(
+            "<beans xmlns=\"http://xmlns.jcp.org/xml/ns/javaee\"\n" +
+            "       xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
+            "       xsi:schemaLocation=\"http://xmlns.jcp.org/xml/ns/javaee http://xmlns.jcp.org/xml/ns/javaee/beans_1_1.xsd\"\n" +
+            "       version=\"1.1\" bean-discovery-mode=\"annotated\"/>");
+        Assert.assertEquals(BeanDiscoveryMode.ANNOTATED, bai.getBeanDiscoveryMode());
+        Assert.assertEquals("1.1", bai.getVersion());
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testMarkerBeansXmlWithoutDiscoveryMode() throws Exception
+    {
+        scanBeansXmlContent("<beans version=\"2.0\"></beans>");
+    }
+
+    @Test
+    public void testParallelParsing() throws Exception
+    {
+        List<URL> urls = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+        {
+            File beansXml = new File(tempFolder.newFolder(), "beans.xml");
+            Files.write(beansXml.toPath(), ("<beans><interceptors><class>org.foo.Interceptor" + i + "</class></interceptors></beans>")
+                .getBytes(StandardCharsets.UTF_8));
+            urls.add(beansXml.toURI().toURL());
+        }
+
+        DefaultBeanArchiveService bas = new DefaultBeanArchiveService();
+        bas.parseBeansXmls(urls);
+        for (int i = 0; i < urls.size(); i++)
+        {
+            BeanArchiveInformation bai = bas.getBeanArchiveInformation(urls.get(i));
+            Assert.assertEquals(BeanDiscoveryMode.ALL, bai.getBeanDiscoveryMode());
+            Assert.assertEquals(1, bai.getInterceptors().size());
+            Assert.assertEquals("org.foo.Interceptor" + i, bai.getInterceptors().get(0));
+        }
+    }
+
+    private BeanArchiveInformation scanBeansXmlContent(String content) throws Exception
+    {
+        File beansXml = new File(tempFolder.newFolder(), "beans.xml");
+        Files.write(beansXml.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return new DefaultBeanArchiveService().getBeanArchiveInformation(beansXml.toURI().toURL());
+    }
+
     private BeanArchiveInformation scanBeansXml(String name)
     {
         URL url = getClass().getClassLoader().getResource("org/apache/webbeans/test/xml/strict/" + name);
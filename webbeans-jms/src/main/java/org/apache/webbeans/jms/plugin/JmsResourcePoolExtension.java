@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jms.plugin;
+
+import javax.enterprise.context.Destroyed;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.Extension;
+
+import org.apache.webbeans.config.WebBeansContext;
+
+/**
+ * Returns the pooled JMS sessions checked out during a request
+ * once the request ends.
+ */
+public class JmsResourcePoolExtension implements Extension
+{
+    public void releasePooledResources(@Observes @Destroyed(RequestScoped.class) Object event)
+    {
+        OpenWebBeansJmsPlugin jmsPlugin = (OpenWebBeansJmsPlugin) WebBeansContext.currentInstance().getPluginLoader().getJmsPlugin();
+        if (jmsPlugin != null)
+        {
+            jmsPlugin.getResourcePools().releaseLeases();
+        }
+    }
+}
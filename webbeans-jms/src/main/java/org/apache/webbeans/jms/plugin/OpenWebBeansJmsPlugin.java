@@ -26,7 +26,9 @@ import org.apache.webbeans.jms.JMSModel;
 import org.apache.webbeans.jms.component.JmsComponentFactory;
 import org.apache.webbeans.jms.component.JmsBean;
 import org.apache.webbeans.jms.util.JmsProxyHandler;
+import org.apache.webbeans.jms.util.JmsResourcePools;
 import org.apache.webbeans.jms.util.JmsUtil;
+import org.apache.webbeans.spi.CheckpointAware;
 import org.apache.webbeans.spi.plugins.AbstractOwbPlugin;
 
 /**
@@ -34,10 +36,20 @@ import org.apache.webbeans.spi.plugins.AbstractOwbPlugin;
  * 
  * @version $Rev$ $Date$
  */
-public class OpenWebBeansJmsPlugin extends AbstractOwbPlugin implements org.apache.webbeans.plugins.OpenWebBeansJmsPlugin
+public class OpenWebBeansJmsPlugin extends AbstractOwbPlugin implements org.apache.webbeans.plugins.OpenWebBeansJmsPlugin, CheckpointAware
 {
     private WebBeansContext webBeansContext;
 
+    private final JmsResourcePools resourcePools = new JmsResourcePools();
+
+    /**
+     * Used by the {@link java.util.ServiceLoader} of the PluginLoader.
+     */
+    public OpenWebBeansJmsPlugin()
+    {
+        this(WebBeansContext.getInstance());
+    }
+
     public OpenWebBeansJmsPlugin(WebBeansContext webBeansContext)
     {
         super();
@@ -56,9 +68,34 @@ public class OpenWebBeansJmsPlugin extends AbstractOwbPlugin implements org.apac
     @Override
     public void shutDown() throws WebBeansConfigurationException
     {
+        resourcePools.close();
+        JmsProxyHandler.clearConnections();
+    }
+
+    /**
+     * Open JMS connections cannot survive a checkpoint, they get re-created on the next use.
+     */
+    @Override
+    public void beforeCheckpoint()
+    {
+        resourcePools.close();
         JmsProxyHandler.clearConnections();
     }
 
+    @Override
+    public void afterRestore()
+    {
+        // connections and pools get created lazily
+    }
+
+    /**
+     * @return the pooled JMS resources of this application
+     */
+    public JmsResourcePools getResourcePools()
+    {
+        return resourcePools;
+    }
+
     @Override
     public Object getJmsBeanProxy(Bean<?> bean, Class<?> iface)
     {
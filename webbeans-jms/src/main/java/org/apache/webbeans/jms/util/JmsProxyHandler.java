@@ -22,7 +22,6 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
@@ -30,10 +29,8 @@ import javax.jms.Destination;
 import javax.jms.JMSException;
 import javax.jms.MessageConsumer;
 import javax.jms.MessageProducer;
-import javax.jms.QueueConnection;
 import javax.jms.QueueConnectionFactory;
 import javax.jms.Session;
-import javax.jms.TopicConnection;
 import javax.jms.TopicConnectionFactory;
 
 import org.apache.webbeans.exception.WebBeansException;
@@ -49,8 +46,6 @@ public class JmsProxyHandler implements InvocationHandler
 
     private static volatile ConnectionFactory connectionFactory;
 
-    private AtomicBoolean cfSet = new AtomicBoolean(false);
-
     private static Map<JMSType, Connection> connections = new ConcurrentHashMap<>();
 
     private static Map<String, Destination> dests = new ConcurrentHashMap<>();
@@ -131,31 +126,35 @@ public class JmsProxyHandler implements InvocationHandler
                 cf = this.jmsObject;
             }
 
+            // this handler serves any JMS interface, thus it has to stay reflective.
+            // The pooled resources of JmsUtil#createNewJmsProxy call their delegates directly.
             return method.invoke(cf, arguments);
         }
-        else
+        else if (method.getName().equals("equals"))
         {
-            return method.invoke(instance, arguments);
+            return instance == arguments[0];
         }
-    }
-
-    private Object createOrReturnConnectionFactory()
-    {
-        if (connectionFactory != null)
+        else if (method.getName().equals("hashCode"))
         {
-            return connectionFactory;
+            return System.identityHashCode(instance);
         }
         else
         {
-            if (cfSet.compareAndSet(false, true))
-            {
-                connectionFactory = JmsUtil.getConnectionFactory();
+            // invoking the method on the proxy itself would end up in this handler again
+            return "JmsProxy[" + injectionClazz.getName() + "]";
+        }
+    }
 
-                return connectionFactory;
-            }
+    private static ConnectionFactory createOrReturnConnectionFactory()
+    {
+        ConnectionFactory cf = connectionFactory;
+        if (cf == null)
+        {
+            cf = JmsUtil.getConnectionFactory();
+            connectionFactory = cf;
         }
 
-        return null;
+        return cf;
     }
 
     private Session createSession()
@@ -228,49 +227,50 @@ public class JmsProxyHandler implements InvocationHandler
 
     private Connection createOrReturnQueueOrTopicConnection()
     {
-        JMSModel jmsModel = this.jmsComponent.getJmsModel();
+        return getConnection(this.jmsComponent.getJmsModel().getJmsType());
+    }
 
+    /**
+     * @return the shared connection for the given JMS type
+     */
+    static Connection getConnection(JMSType jmsType)
+    {
         try
         {
-            if (jmsModel.getJmsType() == JMSType.QUEUE)
+            Connection connection = connections.get(jmsType);
+            if (connection != null)
             {
-                if (connections.containsKey(JMSType.QUEUE))
-                {
-                    return connections.get(JMSType.QUEUE);
-                }
-                else
-                {
-                    QueueConnectionFactory ccf = (QueueConnectionFactory) createOrReturnConnectionFactory();
-                    QueueConnection qc = ccf.createQueueConnection();
-                    connections.put(JMSType.QUEUE, qc);
-
-                    return qc;
-                }
+                return connection;
             }
-            else if (jmsModel.getJmsType() == JMSType.TOPIC)
+
+            synchronized (connections)
             {
-                if (connections.containsKey(JMSType.TOPIC))
-                {
-                    return connections.get(JMSType.TOPIC);
-                }
-                else
+                connection = connections.get(jmsType);
+                if (connection == null)
                 {
-                    TopicConnectionFactory ccf = (TopicConnectionFactory) createOrReturnConnectionFactory();
-                    TopicConnection qc = ccf.createTopicConnection();
-                    connections.put(JMSType.TOPIC, qc);
-
-                    return qc;
+                    if (jmsType == JMSType.QUEUE)
+                    {
+                        QueueConnectionFactory ccf = (QueueConnectionFactory) createOrReturnConnectionFactory();
+                        connection = ccf.createQueueConnection();
+                    }
+                    else if (jmsType == JMSType.TOPIC)
+                    {
+                        TopicConnectionFactory ccf = (TopicConnectionFactory) createOrReturnConnectionFactory();
+                        connection = ccf.createTopicConnection();
+                    }
+                    else
+                    {
+                        return null;
+                    }
+                    connections.put(jmsType, connection);
                 }
-
+                return connection;
             }
-
         }
         catch (JMSException e)
         {
             throw new WebBeansException("Unable to create jms connection", e);
         }
-
-        return null;
     }
     
     private void close()
@@ -299,15 +299,23 @@ public class JmsProxyHandler implements InvocationHandler
 
     private Destination createOrReturnQueueOrTopic()
     {
-        JMSModel jmsModel = this.jmsComponent.getJmsModel();
+        return getDestination(this.jmsComponent.getJmsModel(), this.injectionClazz);
+    }
+
+    /**
+     * @return the cached destination of the given JMS model
+     */
+    static Destination getDestination(JMSModel jmsModel, Class<?> destinationClazz)
+    {
         String jndiName = jmsModel.isJndiNameDefined() ? jmsModel.getJndiName() : jmsModel.getMappedName();
 
-        if (dests.get(jndiName) != null)
+        Destination res = dests.get(jndiName);
+        if (res != null)
         {
-            return dests.get(jndiName);
+            return res;
         }
 
-        Destination res = (Destination) JmsUtil.getInstanceFromJndi(this.jmsComponent.getJmsModel(), this.injectionClazz);
+        res = (Destination) JmsUtil.getInstanceFromJndi(jmsModel, destinationClazz);
 
         dests.put(jndiName, res);
 
@@ -326,10 +334,9 @@ public class JmsProxyHandler implements InvocationHandler
                 connection.close();
             }
 
-            connections = null;
+            connections.clear();
 
             dests.clear();
-            dests = null;
 
         }
         catch (Exception e)
@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jms.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.spi.Context;
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.QueueConnection;
+import javax.jms.QueueSession;
+import javax.jms.Session;
+import javax.jms.TopicConnection;
+import javax.jms.TopicSession;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.jms.JMSModel;
+import org.apache.webbeans.jms.JMSModel.JMSType;
+import org.apache.webbeans.jms.component.JmsBean;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+
+/**
+ * A bounded pool of JMS sessions, optionally together with a
+ * MessageProducer for a single destination.
+ *
+ * <p>Inside an active request a thread checks out one resource per pool
+ * on first use and keeps it until the end of the request.
+ * Outside of a request each invocation borrows a resource and
+ * immediately returns it afterwards.</p>
+ */
+public class JmsResourcePool
+{
+    /**
+     * If true then injected JMS sessions and message producers get served from
+     * bounded pools instead of creating a new session for each injection.
+     */
+    public static final String POOLED = "org.apache.webbeans.jms.pooled";
+
+    /**
+     * The maximum number of sessions of each pool.
+     */
+    public static final String POOL_MAX_SIZE = "org.apache.webbeans.jms.pool.maxSize";
+
+    /**
+     * How many milliseconds to wait for a free session if a pool is exhausted.
+     */
+    public static final String POOL_MAX_WAIT = "org.apache.webbeans.jms.pool.maxWait";
+
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(JmsResourcePool.class);
+
+    private static final ThreadLocal<Map<JmsResourcePool, PooledResource>> leaseThreadLocal = new ThreadLocal<>();
+
+    private final WebBeansContext webBeansContext;
+    private final JMSModel jmsModel;
+    private final boolean withProducer;
+
+    private final Semaphore permits;
+    private final long maxWait;
+    private final Queue<PooledResource> idle = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean closed;
+
+    JmsResourcePool(JmsBean<?> jmsBean, boolean withProducer)
+    {
+        webBeansContext = jmsBean.getWebBeansContext();
+        jmsModel = jmsBean.getJmsModel();
+        this.withProducer = withProducer;
+
+        permits = new Semaphore(getIntProperty(webBeansContext, POOL_MAX_SIZE, 16), true);
+        maxWait = getIntProperty(webBeansContext, POOL_MAX_WAIT, 5000);
+    }
+
+    public static boolean isPooled(WebBeansContext webBeansContext)
+    {
+        return Boolean.parseBoolean(webBeansContext.getOpenWebBeansConfiguration().getProperty(POOLED));
+    }
+
+    /**
+     * Runs the given call with a pooled resource.
+     */
+    public <R> R execute(JmsCall<R> call) throws JMSException
+    {
+        if (isRequestActive())
+        {
+            return call.call(lease());
+        }
+
+        PooledResource resource = borrow();
+        try
+        {
+            return call.call(resource);
+        }
+        finally
+        {
+            giveBack(resource);
+        }
+    }
+
+    /**
+     * Returns the resource the current thread checked out from this pool, if any.
+     */
+    public void release()
+    {
+        Map<JmsResourcePool, PooledResource> threadLeases = leaseThreadLocal.get();
+        if (threadLeases != null)
+        {
+            PooledResource resource = threadLeases.remove(this);
+            if (resource != null)
+            {
+                giveBack(resource);
+            }
+            if (threadLeases.isEmpty())
+            {
+                leaseThreadLocal.remove();
+            }
+        }
+    }
+
+    /**
+     * Creates a session which does not belong to the pool.
+     * It is used by injected sessions which hand out objects bound to their session.
+     */
+    public Session createDedicatedSession() throws JMSException
+    {
+        return createSession();
+    }
+
+    private PooledResource lease() throws JMSException
+    {
+        Map<JmsResourcePool, PooledResource> threadLeases = leaseThreadLocal.get();
+        if (threadLeases == null)
+        {
+            threadLeases = new HashMap<>();
+            leaseThreadLocal.set(threadLeases);
+        }
+
+        PooledResource resource = threadLeases.get(this);
+        if (resource == null)
+        {
+            resource = borrow();
+            threadLeases.put(this, resource);
+        }
+        return resource;
+    }
+
+    private PooledResource borrow() throws JMSException
+    {
+        try
+        {
+            if (!permits.tryAcquire(maxWait, TimeUnit.MILLISECONDS))
+            {
+                throw new JMSException("No pooled JMS session available for " + jmsModel.getJmsType()
+                        + " within " + maxWait + "ms");
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new JMSException("Interrupted while waiting for a pooled JMS session");
+        }
+
+        PooledResource resource = idle.poll();
+        if (resource == null)
+        {
+            try
+            {
+                resource = create();
+            }
+            catch (JMSException | RuntimeException e)
+            {
+                permits.release();
+                throw e;
+            }
+        }
+        return resource;
+    }
+
+    private void giveBack(PooledResource resource)
+    {
+        if (closed)
+        {
+            resource.close();
+        }
+        else
+        {
+            idle.offer(resource);
+        }
+        permits.release();
+    }
+
+    /**
+     * Closes all idle sessions. Sessions which are still checked out get closed once they are returned.
+     */
+    void close()
+    {
+        closed = true;
+
+        PooledResource resource;
+        while ((resource = idle.poll()) != null)
+        {
+            resource.close();
+        }
+    }
+
+    private PooledResource create() throws JMSException
+    {
+        Session session = createSession();
+        if (!withProducer)
+        {
+            return new PooledResource(session, null);
+        }
+
+        try
+        {
+            if (jmsModel.getJmsType() == JMSType.QUEUE)
+            {
+                return new PooledResource(session,
+                        ((QueueSession) session).createSender((javax.jms.Queue) getDestination(javax.jms.Queue.class)));
+            }
+            return new PooledResource(session,
+                    ((TopicSession) session).createPublisher((javax.jms.Topic) getDestination(javax.jms.Topic.class)));
+        }
+        catch (JMSException | RuntimeException e)
+        {
+            session.close();
+            throw e;
+        }
+    }
+
+    private Session createSession() throws JMSException
+    {
+        Connection connection = JmsProxyHandler.getConnection(jmsModel.getJmsType());
+
+        if (jmsModel.getJmsType() == JMSType.QUEUE)
+        {
+            return ((QueueConnection) connection).createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
+        }
+        return ((TopicConnection) connection).createTopicSession(false, Session.AUTO_ACKNOWLEDGE);
+    }
+
+    private Destination getDestination(Class<? extends Destination> destinationType)
+    {
+        return JmsProxyHandler.getDestination(jmsModel, destinationType);
+    }
+
+    private boolean isRequestActive()
+    {
+        Context requestContext = webBeansContext.getContextsService().getCurrentContext(RequestScoped.class);
+        return requestContext != null && requestContext.isActive();
+    }
+
+    static String getDestinationName(JMSModel jmsModel)
+    {
+        return jmsModel.isJndiNameDefined() ? jmsModel.getJndiName() : jmsModel.getMappedName();
+    }
+
+    private static int getIntProperty(WebBeansContext webBeansContext, String key, int defaultValue)
+    {
+        String value = webBeansContext.getOpenWebBeansConfiguration().getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * A call against a pooled JMS resource.
+     */
+    public interface JmsCall<R>
+    {
+        R call(PooledResource resource) throws JMSException;
+    }
+
+    /**
+     * A pooled session and the MessageProducer created from it.
+     */
+    public static final class PooledResource
+    {
+        private final Session session;
+        private final MessageProducer producer;
+
+        private PooledResource(Session session, MessageProducer producer)
+        {
+            this.session = session;
+            this.producer = producer;
+        }
+
+        public Session getSession()
+        {
+            return session;
+        }
+
+        public MessageProducer getProducer()
+        {
+            return producer;
+        }
+
+        private void close()
+        {
+            try
+            {
+                session.close();
+            }
+            catch (JMSException e)
+            {
+                logger.log(Level.FINE, "Cannot close pooled JMS session", e);
+            }
+        }
+    }
+}
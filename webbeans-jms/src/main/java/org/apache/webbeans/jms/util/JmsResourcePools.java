@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jms.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.webbeans.jms.JMSModel;
+import org.apache.webbeans.jms.component.JmsBean;
+
+/**
+ * All {@link JmsResourcePool}s of a single application.
+ * Each {@link org.apache.webbeans.jms.plugin.OpenWebBeansJmsPlugin} owns one instance,
+ * thus the pools always use the configuration and contexts of their own application.
+ */
+public class JmsResourcePools
+{
+    private final Map<String, JmsResourcePool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * @return the pool of plain sessions for the connection type of the given JMS bean
+     */
+    public JmsResourcePool getSessionPool(JmsBean<?> jmsBean)
+    {
+        String key = jmsBean.getJmsModel().getJmsType().name();
+        return pools.computeIfAbsent(key, k -> new JmsResourcePool(jmsBean, false));
+    }
+
+    /**
+     * @return the pool of sessions with a MessageProducer for the destination of the given JMS bean
+     */
+    public JmsResourcePool getProducerPool(JmsBean<?> jmsBean)
+    {
+        JMSModel jmsModel = jmsBean.getJmsModel();
+        String key = jmsModel.getJmsType().name() + ':' + JmsResourcePool.getDestinationName(jmsModel);
+        return pools.computeIfAbsent(key, k -> new JmsResourcePool(jmsBean, true));
+    }
+
+    /**
+     * Returns all resources the current thread checked out from these pools.
+     * This gets invoked at the end of each request.
+     */
+    public void releaseLeases()
+    {
+        for (JmsResourcePool pool : pools.values())
+        {
+            pool.release();
+        }
+    }
+
+    /**
+     * Closes all idle sessions of all pools.
+     */
+    public void close()
+    {
+        for (JmsResourcePool pool : pools.values())
+        {
+            pool.close();
+        }
+        pools.clear();
+    }
+}
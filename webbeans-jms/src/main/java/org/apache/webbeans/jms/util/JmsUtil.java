@@ -43,6 +43,7 @@ import org.apache.webbeans.exception.WebBeansCreationException;
 import org.apache.webbeans.exception.WebBeansException;
 import org.apache.webbeans.jms.JMSModel;
 import org.apache.webbeans.jms.component.JmsBean;
+import org.apache.webbeans.jms.plugin.OpenWebBeansJmsPlugin;
 import org.apache.webbeans.spi.JNDIService;
 import org.apache.webbeans.util.Asserts;
 
@@ -164,6 +165,15 @@ public final class JmsUtil
      */
     public static Object createNewJmsProxy(JmsBean<?> jmsComponent, Class<?> intf)
     {
+        if (JmsResourcePool.isPooled(jmsComponent.getWebBeansContext()))
+        {
+            Object pooledResource = createPooledJmsResource(jmsComponent, intf);
+            if (pooledResource != null)
+            {
+                return pooledResource;
+            }
+        }
+
         try
         {
             Class<?>[] interfaces = {Closable.class, Serializable.class, intf};
@@ -178,4 +188,29 @@ public final class JmsUtil
         }
     }
 
+    /**
+     * @return a session or message producer backed by a {@link JmsResourcePool}
+     *         or {@code null} if the injected type cannot get pooled
+     */
+    private static Object createPooledJmsResource(JmsBean<?> jmsComponent, Class<?> intf)
+    {
+        boolean queue = jmsComponent.getJmsModel().getJmsType() == JMSModel.JMSType.QUEUE;
+        JmsResourcePools pools = ((OpenWebBeansJmsPlugin) jmsComponent.getWebBeansContext().getPluginLoader().getJmsPlugin())
+                .getResourcePools();
+
+        if (MessageProducer.class.isAssignableFrom(intf))
+        {
+            JmsResourcePool pool = pools.getProducerPool(jmsComponent);
+            return queue ? new PooledQueueSender(pool) : new PooledTopicPublisher(pool);
+        }
+
+        if (Session.class.isAssignableFrom(intf))
+        {
+            JmsResourcePool pool = pools.getSessionPool(jmsComponent);
+            return queue ? new PooledQueueSession(pool) : new PooledTopicSession(pool);
+        }
+
+        return null;
+    }
+
 }
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jms.util;
+
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+
+/**
+ * Injected MessageProducer which sends via a pooled producer
+ * of its {@link JmsResourcePool}.
+ *
+ * The delivery settings are kept per injected instance and
+ * passed explicitly on each send, thus they never leak into
+ * the shared producers.
+ */
+public class PooledMessageProducer implements MessageProducer, Closable
+{
+    protected final JmsResourcePool pool;
+
+    private volatile boolean disableMessageID;
+    private volatile boolean disableMessageTimestamp;
+    private volatile int deliveryMode = Message.DEFAULT_DELIVERY_MODE;
+    private volatile int priority = Message.DEFAULT_PRIORITY;
+    private volatile long timeToLive = Message.DEFAULT_TIME_TO_LIVE;
+
+    public PooledMessageProducer(JmsResourcePool pool)
+    {
+        this.pool = pool;
+    }
+
+    @Override
+    public void setDisableMessageID(boolean value)
+    {
+        disableMessageID = value;
+    }
+
+    @Override
+    public boolean getDisableMessageID()
+    {
+        return disableMessageID;
+    }
+
+    @Override
+    public void setDisableMessageTimestamp(boolean value)
+    {
+        disableMessageTimestamp = value;
+    }
+
+    @Override
+    public boolean getDisableMessageTimestamp()
+    {
+        return disableMessageTimestamp;
+    }
+
+    @Override
+    public void setDeliveryMode(int deliveryMode)
+    {
+        this.deliveryMode = deliveryMode;
+    }
+
+    @Override
+    public int getDeliveryMode()
+    {
+        return deliveryMode;
+    }
+
+    @Override
+    public void setPriority(int priority)
+    {
+        this.priority = priority;
+    }
+
+    @Override
+    public int getPriority()
+    {
+        return priority;
+    }
+
+    @Override
+    public void setTimeToLive(long timeToLive)
+    {
+        this.timeToLive = timeToLive;
+    }
+
+    @Override
+    public long getTimeToLive()
+    {
+        return timeToLive;
+    }
+
+    @Override
+    public Destination getDestination() throws JMSException
+    {
+        return pool.execute(resource -> resource.getProducer().getDestination());
+    }
+
+    /**
+     * Returns the checked out producer to the pool.
+     */
+    @Override
+    public void close()
+    {
+        closeJMSObject();
+    }
+
+    @Override
+    public void closeJMSObject()
+    {
+        pool.release();
+    }
+
+    @Override
+    public void send(Message message) throws JMSException
+    {
+        send(message, deliveryMode, priority, timeToLive);
+    }
+
+    @Override
+    public void send(Message message, int deliveryMode, int priority, long timeToLive) throws JMSException
+    {
+        pool.execute(resource ->
+        {
+            MessageProducer producer = prepare(resource.getProducer());
+            producer.send(message, deliveryMode, priority, timeToLive);
+            return null;
+        });
+    }
+
+    @Override
+    public void send(Destination destination, Message message) throws JMSException
+    {
+        send(destination, message, deliveryMode, priority, timeToLive);
+    }
+
+    @Override
+    public void send(Destination destination, Message message, int deliveryMode, int priority, long timeToLive)
+        throws JMSException
+    {
+        pool.execute(resource ->
+        {
+            MessageProducer producer = prepare(resource.getProducer());
+            producer.send(destination, message, deliveryMode, priority, timeToLive);
+            return null;
+        });
+    }
+
+    protected MessageProducer prepare(MessageProducer producer) throws JMSException
+    {
+        producer.setDisableMessageID(disableMessageID);
+        producer.setDisableMessageTimestamp(disableMessageTimestamp);
+        return producer;
+    }
+}
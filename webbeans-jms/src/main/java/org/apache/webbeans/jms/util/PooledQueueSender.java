@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jms.util;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Queue;
+import javax.jms.QueueSender;
+
+/**
+ * Pooled {@link QueueSender}.
+ */
+public class PooledQueueSender extends PooledMessageProducer implements QueueSender
+{
+    public PooledQueueSender(JmsResourcePool pool)
+    {
+        super(pool);
+    }
+
+    @Override
+    public Queue getQueue() throws JMSException
+    {
+        return (Queue) getDestination();
+    }
+
+    @Override
+    public void send(Queue queue, Message message) throws JMSException
+    {
+        send(queue, message, getDeliveryMode(), getPriority(), getTimeToLive());
+    }
+
+    @Override
+    public void send(Queue queue, Message message, int deliveryMode, int priority, long timeToLive) throws JMSException
+    {
+        pool.execute(resource ->
+        {
+            QueueSender sender = (QueueSender) prepare(resource.getProducer());
+            sender.send(queue, message, deliveryMode, priority, timeToLive);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jms.util;
+
+import javax.jms.JMSException;
+import javax.jms.Queue;
+import javax.jms.QueueReceiver;
+import javax.jms.QueueSender;
+import javax.jms.QueueSession;
+
+/**
+ * Pooled {@link QueueSession}.
+ */
+public class PooledQueueSession extends PooledSession implements QueueSession
+{
+    public PooledQueueSession(JmsResourcePool pool)
+    {
+        super(pool);
+    }
+
+    @Override
+    public QueueReceiver createReceiver(Queue queue) throws JMSException
+    {
+        return executeDedicated(session -> ((QueueSession) session).createReceiver(queue));
+    }
+
+    @Override
+    public QueueReceiver createReceiver(Queue queue, String messageSelector) throws JMSException
+    {
+        return executeDedicated(session -> ((QueueSession) session).createReceiver(queue, messageSelector));
+    }
+
+    @Override
+    public QueueSender createSender(Queue queue) throws JMSException
+    {
+        return executeDedicated(session -> ((QueueSession) session).createSender(queue));
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jms.util;
+
+import java.io.Serializable;
+
+import javax.jms.BytesMessage;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.MessageProducer;
+import javax.jms.ObjectMessage;
+import javax.jms.Queue;
+import javax.jms.QueueBrowser;
+import javax.jms.Session;
+import javax.jms.StreamMessage;
+import javax.jms.TemporaryQueue;
+import javax.jms.TemporaryTopic;
+import javax.jms.TextMessage;
+import javax.jms.Topic;
+import javax.jms.TopicSubscriber;
+
+import org.apache.webbeans.exception.WebBeansException;
+
+/**
+ * Injected Session which delegates to a pooled session
+ * of its {@link JmsResourcePool}.
+ *
+ * The pooled sessions are non-transacted and use AUTO_ACKNOWLEDGE.
+ * They are intended for creating and sending messages.
+ *
+ * <p>Producers, consumers, browsers, temporary destinations and MessageListeners
+ * are bound to the session which created them. Such calls pin a dedicated session
+ * which does not belong to the pool. From then on all calls of this instance use
+ * the dedicated session until it gets closed.</p>
+ */
+public class PooledSession implements Session, Closable
+{
+    protected final JmsResourcePool pool;
+
+    private Session dedicatedSession;
+
+    public PooledSession(JmsResourcePool pool)
+    {
+        this.pool = pool;
+    }
+
+    /**
+     * Runs the given call with the dedicated session if one got pinned, otherwise with a pooled session.
+     */
+    protected <R> R execute(SessionCall<R> call) throws JMSException
+    {
+        Session session = getDedicatedSession();
+        if (session != null)
+        {
+            return call.call(session);
+        }
+        return pool.execute(resource -> call.call(resource.getSession()));
+    }
+
+    /**
+     * Runs the given call with the dedicated session of this instance, it gets created on first use.
+     */
+    protected synchronized <R> R executeDedicated(SessionCall<R> call) throws JMSException
+    {
+        if (dedicatedSession == null)
+        {
+            dedicatedSession = pool.createDedicatedSession();
+        }
+        return call.call(dedicatedSession);
+    }
+
+    private synchronized Session getDedicatedSession()
+    {
+        return dedicatedSession;
+    }
+
+    @Override
+    public BytesMessage createBytesMessage() throws JMSException
+    {
+        return execute(session -> session.createBytesMessage());
+    }
+
+    @Override
+    public MapMessage createMapMessage() throws JMSException
+    {
+        return execute(session -> session.createMapMessage());
+    }
+
+    @Override
+    public Message createMessage() throws JMSException
+    {
+        return execute(session -> session.createMessage());
+    }
+
+    @Override
+    public ObjectMessage createObjectMessage() throws JMSException
+    {
+        return execute(session -> session.createObjectMessage());
+    }
+
+    @Override
+    public ObjectMessage createObjectMessage(Serializable object) throws JMSException
+    {
+        return execute(session -> session.createObjectMessage(object));
+    }
+
+    @Override
+    public StreamMessage createStreamMessage() throws JMSException
+    {
+        return execute(session -> session.createStreamMessage());
+    }
+
+    @Override
+    public TextMessage createTextMessage() throws JMSException
+    {
+        return execute(session -> session.createTextMessage());
+    }
+
+    @Override
+    public TextMessage createTextMessage(String text) throws JMSException
+    {
+        return execute(session -> session.createTextMessage(text));
+    }
+
+    @Override
+    public boolean getTransacted() throws JMSException
+    {
+        return false;
+    }
+
+    @Override
+    public int getAcknowledgeMode() throws JMSException
+    {
+        return AUTO_ACKNOWLEDGE;
+    }
+
+    @Override
+    public void commit() throws JMSException
+    {
+        execute(session ->
+        {
+            session.commit();
+            return null;
+        });
+    }
+
+    @Override
+    public void rollback() throws JMSException
+    {
+        execute(session ->
+        {
+            session.rollback();
+            return null;
+        });
+    }
+
+    /**
+     * Returns the checked out session to the pool.
+     */
+    @Override
+    public void close()
+    {
+        closeJMSObject();
+    }
+
+    @Override
+    public void closeJMSObject()
+    {
+        Session session;
+        synchronized (this)
+        {
+            session = dedicatedSession;
+            dedicatedSession = null;
+        }
+
+        try
+        {
+            if (session != null)
+            {
+                session.close();
+            }
+        }
+        catch (JMSException e)
+        {
+            throw new WebBeansException(e);
+        }
+        finally
+        {
+            pool.release();
+        }
+    }
+
+    @Override
+    public void recover() throws JMSException
+    {
+        execute(session ->
+        {
+            session.recover();
+            return null;
+        });
+    }
+
+    @Override
+    public MessageListener getMessageListener() throws JMSException
+    {
+        return execute(session -> session.getMessageListener());
+    }
+
+    @Override
+    public void setMessageListener(MessageListener listener) throws JMSException
+    {
+        executeDedicated(session ->
+        {
+            session.setMessageListener(listener);
+            return null;
+        });
+    }
+
+    @Override
+    public void run()
+    {
+        try
+        {
+            execute(session ->
+            {
+                session.run();
+                return null;
+            });
+        }
+        catch (JMSException e)
+        {
+            throw new WebBeansException(e);
+        }
+    }
+
+    @Override
+    public MessageProducer createProducer(Destination destination) throws JMSException
+    {
+        return executeDedicated(session -> session.createProducer(destination));
+    }
+
+    @Override
+    public MessageConsumer createConsumer(Destination destination) throws JMSException
+    {
+        return executeDedicated(session -> session.createConsumer(destination));
+    }
+
+    @Override
+    public MessageConsumer createConsumer(Destination destination, String messageSelector) throws JMSException
+    {
+        return executeDedicated(session -> session.createConsumer(destination, messageSelector));
+    }
+
+    @Override
+    public MessageConsumer createConsumer(Destination destination, String messageSelector, boolean noLocal)
+        throws JMSException
+    {
+        return executeDedicated(session -> session.createConsumer(destination, messageSelector, noLocal));
+    }
+
+    @Override
+    public Queue createQueue(String queueName) throws JMSException
+    {
+        return execute(session -> session.createQueue(queueName));
+    }
+
+    @Override
+    public Topic createTopic(String topicName) throws JMSException
+    {
+        return execute(session -> session.createTopic(topicName));
+    }
+
+    @Override
+    public TopicSubscriber createDurableSubscriber(Topic topic, String name) throws JMSException
+    {
+        return executeDedicated(session -> session.createDurableSubscriber(topic, name));
+    }
+
+    @Override
+    public TopicSubscriber createDurableSubscriber(Topic topic, String name, String messageSelector, boolean noLocal)
+        throws JMSException
+    {
+        return executeDedicated(session -> session.createDurableSubscriber(topic, name, messageSelector, noLocal));
+    }
+
+    @Override
+    public QueueBrowser createBrowser(Queue queue) throws JMSException
+    {
+        return executeDedicated(session -> session.createBrowser(queue));
+    }
+
+    @Override
+    public QueueBrowser createBrowser(Queue queue, String messageSelector) throws JMSException
+    {
+        return executeDedicated(session -> session.createBrowser(queue, messageSelector));
+    }
+
+    @Override
+    public TemporaryQueue createTemporaryQueue() throws JMSException
+    {
+        return executeDedicated(session -> session.createTemporaryQueue());
+    }
+
+    @Override
+    public TemporaryTopic createTemporaryTopic() throws JMSException
+    {
+        return executeDedicated(session -> session.createTemporaryTopic());
+    }
+
+    @Override
+    public void unsubscribe(String name) throws JMSException
+    {
+        execute(session ->
+        {
+            session.unsubscribe(name);
+            return null;
+        });
+    }
+
+    /**
+     * A call against a JMS session.
+     */
+    protected interface SessionCall<R>
+    {
+        R call(Session session) throws JMSException;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jms.util;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Topic;
+import javax.jms.TopicPublisher;
+
+/**
+ * Pooled {@link TopicPublisher}.
+ */
+public class PooledTopicPublisher extends PooledMessageProducer implements TopicPublisher
+{
+    public PooledTopicPublisher(JmsResourcePool pool)
+    {
+        super(pool);
+    }
+
+    @Override
+    public Topic getTopic() throws JMSException
+    {
+        return (Topic) getDestination();
+    }
+
+    @Override
+    public void publish(Message message) throws JMSException
+    {
+        publish(message, getDeliveryMode(), getPriority(), getTimeToLive());
+    }
+
+    @Override
+    public void publish(Message message, int deliveryMode, int priority, long timeToLive) throws JMSException
+    {
+        pool.execute(resource ->
+        {
+            TopicPublisher publisher = (TopicPublisher) prepare(resource.getProducer());
+            publisher.publish(message, deliveryMode, priority, timeToLive);
+            return null;
+        });
+    }
+
+    @Override
+    public void publish(Topic topic, Message message) throws JMSException
+    {
+        publish(topic, message, getDeliveryMode(), getPriority(), getTimeToLive());
+    }
+
+    @Override
+    public void publish(Topic topic, Message message, int deliveryMode, int priority, long timeToLive) throws JMSException
+    {
+        pool.execute(resource ->
+        {
+            TopicPublisher publisher = (TopicPublisher) prepare(resource.getProducer());
+            publisher.publish(topic, message, deliveryMode, priority, timeToLive);
+            return null;
+        });
+    }
+}
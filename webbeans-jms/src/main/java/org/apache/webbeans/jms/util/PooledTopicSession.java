@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jms.util;
+
+import javax.jms.JMSException;
+import javax.jms.Topic;
+import javax.jms.TopicPublisher;
+import javax.jms.TopicSession;
+import javax.jms.TopicSubscriber;
+
+/**
+ * Pooled {@link TopicSession}.
+ */
+public class PooledTopicSession extends PooledSession implements TopicSession
+{
+    public PooledTopicSession(JmsResourcePool pool)
+    {
+        super(pool);
+    }
+
+    @Override
+    public TopicSubscriber createSubscriber(Topic topic) throws JMSException
+    {
+        return executeDedicated(session -> ((TopicSession) session).createSubscriber(topic));
+    }
+
+    @Override
+    public TopicSubscriber createSubscriber(Topic topic, String messageSelector, boolean noLocal) throws JMSException
+    {
+        return executeDedicated(session -> ((TopicSession) session).createSubscriber(topic, messageSelector, noLocal));
+    }
+
+    @Override
+    public TopicPublisher createPublisher(Topic topic) throws JMSException
+    {
+        return executeDedicated(session -> ((TopicSession) session).createPublisher(topic));
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jms.test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Queue;
+import javax.jms.QueueConnection;
+import javax.jms.QueueConnectionFactory;
+import javax.jms.QueueSender;
+import javax.jms.QueueSession;
+import javax.jms.TextMessage;
+
+import org.apache.webbeans.spi.JNDIService;
+
+/**
+ * A minimal in-memory JMS provider which records the created sessions
+ * and the session each message got sent with.
+ */
+public class FakeJmsProvider implements JNDIService
+{
+    public static final String QUEUE_NAME = "jms/Orders";
+
+    private final AtomicInteger createdSessions = new AtomicInteger();
+    private final AtomicInteger closedSessions = new AtomicInteger();
+    private final List<Object> sendingSessions = new CopyOnWriteArrayList<>();
+    private final List<MessageListener> messageListeners = new CopyOnWriteArrayList<>();
+
+    private final Queue queue = proxy(Queue.class, (proxy, method, args) -> handleObjectMethod(proxy, method.getName(), args));
+
+    private final QueueConnectionFactory connectionFactory = proxy(QueueConnectionFactory.class, (proxy, method, args) ->
+    {
+        if ("createQueueConnection".equals(method.getName()))
+        {
+            return createConnection();
+        }
+        return handleObjectMethod(proxy, method.getName(), args);
+    });
+
+    public Queue getQueue()
+    {
+        return queue;
+    }
+
+    public TextMessage createMessage()
+    {
+        return proxy(TextMessage.class, (proxy, method, args) -> handleObjectMethod(proxy, method.getName(), args));
+    }
+
+    public int getCreatedSessions()
+    {
+        return createdSessions.get();
+    }
+
+    public int getClosedSessions()
+    {
+        return closedSessions.get();
+    }
+
+    public List<Object> getSendingSessions()
+    {
+        return sendingSessions;
+    }
+
+    public List<MessageListener> getMessageListeners()
+    {
+        return messageListeners;
+    }
+
+    @Override
+    public void bind(String name, Object object)
+    {
+        // i.e. the BeanManager, not needed
+    }
+
+    @Override
+    public void unbind(String name)
+    {
+        // nothing got bound
+    }
+
+    @Override
+    public <T> T lookup(String name, Class<? extends T> expectedClass)
+    {
+        if (QUEUE_NAME.equals(name))
+        {
+            return expectedClass.cast(queue);
+        }
+        if (JMS_CONNECTION_FACTORY_JNDI_DEFAULT_VALUE.equals(name))
+        {
+            return expectedClass.cast(connectionFactory);
+        }
+        return null;
+    }
+
+    private QueueConnection createConnection()
+    {
+        return proxy(QueueConnection.class, (proxy, method, args) ->
+        {
+            if ("createQueueSession".equals(method.getName()))
+            {
+                createdSessions.incrementAndGet();
+                return createSession();
+            }
+            return handleObjectMethod(proxy, method.getName(), args);
+        });
+    }
+
+    private QueueSession createSession()
+    {
+        return proxy(QueueSession.class, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(Object session, Method method, Object[] args)
+            {
+                switch (method.getName())
+                {
+                    case "createSender":
+                        return createSender(session);
+                    case "createConsumer":
+                        return proxy(MessageConsumer.class, (proxy, m, a) -> handleObjectMethod(proxy, m.getName(), a));
+                    case "createTextMessage":
+                        return createMessage();
+                    case "setMessageListener":
+                        messageListeners.add((MessageListener) args[0]);
+                        return null;
+                    case "close":
+                        closedSessions.incrementAndGet();
+                        return null;
+                    default:
+                        return handleObjectMethod(session, method.getName(), args);
+                }
+            }
+        });
+    }
+
+    private QueueSender createSender(Object session)
+    {
+        return proxy(QueueSender.class, (proxy, method, args) ->
+        {
+            if ("send".equals(method.getName()))
+            {
+                sendingSessions.add(session);
+                return null;
+            }
+            return handleObjectMethod(proxy, method.getName(), args);
+        });
+    }
+
+    private static Object handleObjectMethod(Object proxy, String methodName, Object[] args)
+    {
+        switch (methodName)
+        {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Fake" + proxy.getClass().getInterfaces()[0].getSimpleName();
+            default:
+                // setters, close and the like
+                return null;
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler)
+    {
+        return type.cast(Proxy.newProxyInstance(FakeJmsProvider.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
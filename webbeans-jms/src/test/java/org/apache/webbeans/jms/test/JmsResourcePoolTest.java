@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jms.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.inject.spi.Bean;
+import javax.jms.JMSException;
+import javax.jms.MessageListener;
+import javax.jms.QueueSender;
+import javax.jms.QueueSession;
+
+import org.apache.webbeans.jms.JMSModel;
+import org.apache.webbeans.jms.plugin.OpenWebBeansJmsPlugin;
+import org.apache.webbeans.jms.util.Closable;
+import org.apache.webbeans.jms.util.JmsProxyHandler;
+import org.apache.webbeans.jms.util.JmsResourcePool;
+import org.apache.webbeans.spi.JNDIService;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JmsResourcePoolTest extends AbstractUnitTest
+{
+    private FakeJmsProvider jms;
+
+    @Before
+    public void configure()
+    {
+        jms = new FakeJmsProvider();
+        addService(JNDIService.class, jms);
+        addConfiguration(JmsResourcePool.POOLED, "true");
+    }
+
+    @After
+    public void clearConnections()
+    {
+        JmsProxyHandler.clearConnections();
+    }
+
+    @Test
+    public void sessionIsLeasedForTheWholeRequest() throws Exception
+    {
+        startContainer();
+        QueueSender sender = createSender();
+
+        startContext(RequestScoped.class);
+        sender.send(jms.createMessage());
+        sender.send(jms.createMessage());
+        endContext(RequestScoped.class);
+
+        assertEquals(1, jms.getCreatedSessions());
+        assertEquals(2, jms.getSendingSessions().size());
+        assertSame(jms.getSendingSessions().get(0), jms.getSendingSessions().get(1));
+    }
+
+    @Test
+    public void sessionsGetReusedOutsideOfRequests() throws Exception
+    {
+        startContainer();
+        QueueSender sender = createSender();
+
+        sender.send(jms.createMessage());
+        sender.send(jms.createMessage());
+        createSender().send(jms.createMessage());
+
+        assertEquals(1, jms.getCreatedSessions());
+        assertEquals(0, jms.getClosedSessions());
+    }
+
+    @Test
+    public void exhaustedPoolWaitsAtMostMaxWait() throws Exception
+    {
+        addConfiguration(JmsResourcePool.POOL_MAX_SIZE, "1");
+        addConfiguration(JmsResourcePool.POOL_MAX_WAIT, "50");
+        startContainer();
+        QueueSender sender = createSender();
+
+        startContext(RequestScoped.class);
+        sender.send(jms.createMessage());
+
+        // the only session is leased by this request
+        try
+        {
+            sendFromOtherThread(sender);
+            fail("the pool is exhausted");
+        }
+        catch (ExecutionException e)
+        {
+            assertTrue(e.getCause().getCause() instanceof JMSException);
+        }
+        assertEquals(1, jms.getCreatedSessions());
+    }
+
+    @Test
+    public void sessionGetsReleasedWhenTheRequestEnds() throws Exception
+    {
+        addConfiguration(JmsResourcePool.POOL_MAX_SIZE, "1");
+        addConfiguration(JmsResourcePool.POOL_MAX_WAIT, "50");
+        startContainer();
+        QueueSender sender = createSender();
+
+        startContext(RequestScoped.class);
+        sender.send(jms.createMessage());
+        endContext(RequestScoped.class);
+
+        sendFromOtherThread(sender);
+        assertEquals(1, jms.getCreatedSessions());
+        assertEquals(2, jms.getSendingSessions().size());
+    }
+
+    @Test
+    public void sessionBoundObjectsUseDedicatedSession() throws Exception
+    {
+        startContainer();
+        QueueSession session = createSession();
+        session.createTextMessage();
+        assertEquals(1, jms.getCreatedSessions());
+
+        MessageListener listener = message -> { };
+        session.setMessageListener(listener);
+        session.createConsumer(jms.getQueue());
+        assertEquals(2, jms.getCreatedSessions());
+        assertSame(listener, jms.getMessageListeners().get(0));
+
+        // further calls stick to the dedicated session while the pooled one is free for others
+        session.createTextMessage();
+        createSession().createTextMessage();
+        assertEquals(2, jms.getCreatedSessions());
+
+        ((Closable) session).closeJMSObject();
+        assertEquals(1, jms.getClosedSessions());
+    }
+
+    private void sendFromOtherThread(QueueSender sender) throws Exception
+    {
+        CompletableFuture.runAsync(() ->
+        {
+            try
+            {
+                sender.send(jms.createMessage());
+            }
+            catch (JMSException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    private QueueSender createSender()
+    {
+        return (QueueSender) createJmsResource(QueueSender.class);
+    }
+
+    private QueueSession createSession()
+    {
+        return (QueueSession) createJmsResource(QueueSession.class);
+    }
+
+    private Object createJmsResource(Class<?> type)
+    {
+        OpenWebBeansJmsPlugin jmsPlugin = (OpenWebBeansJmsPlugin) getWebBeansContext().getPluginLoader().getJmsPlugin();
+        Bean<?> bean = jmsPlugin.getJmsBean(new JMSModel(JMSModel.JMSType.QUEUE, FakeJmsProvider.QUEUE_NAME, null));
+        return jmsPlugin.getJmsBeanProxy(bean, type);
+    }
+}
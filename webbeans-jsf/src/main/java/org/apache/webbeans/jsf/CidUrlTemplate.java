@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jsf;
+
+import org.apache.webbeans.util.Asserts;
+
+/**
+ * A URL with a pre-computed insertion point for the conversation id.
+ * Applying a cid only needs a single pre-sized StringBuilder.
+ *
+ * The cid gets added as first query parameter of the last path segment,
+ * in front of a fragment if there is no query.
+ */
+public final class CidUrlTemplate
+{
+    private final String url;
+
+    /**
+     * Everything up to and including <code>cid=</code>
+     */
+    private final String head;
+
+    /**
+     * Everything following the cid value
+     */
+    private final String tail;
+
+    public CidUrlTemplate(String url)
+    {
+        Asserts.assertNotNull(url, "url");
+        this.url = url;
+
+        int lastSegment = url.lastIndexOf('/') + 1;
+        int indexOfQuery = url.indexOf('?', lastSegment);
+        if (indexOfQuery != -1)
+        {
+            head = url.substring(0, indexOfQuery + 1) + "cid=";
+            tail = '&' + url.substring(indexOfQuery + 1);
+        }
+        else
+        {
+            int indexOfFragment = url.indexOf('#', lastSegment);
+            if (indexOfFragment == -1)
+            {
+                head = url + "?cid=";
+                tail = "";
+            }
+            else
+            {
+                head = url.substring(0, indexOfFragment) + "?cid=";
+                tail = url.substring(indexOfFragment);
+            }
+        }
+    }
+
+    /**
+     * @return whether this template got created for the given URL
+     */
+    public boolean matches(String url)
+    {
+        return this.url.equals(url);
+    }
+
+    public String apply(String cid)
+    {
+        return new StringBuilder(head.length() + cid.length() + tail.length())
+            .append(head)
+            .append(cid)
+            .append(tail)
+            .toString();
+    }
+}
@@ -20,21 +20,34 @@ package org.apache.webbeans.jsf;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.enterprise.context.ContextNotActiveException;
 
 import javax.enterprise.context.Conversation;
 import javax.faces.application.ViewHandler;
 import javax.faces.application.ViewHandlerWrapper;
 import javax.faces.context.FacesContext;
+import javax.faces.event.PhaseId;
 
 import org.apache.webbeans.config.WebBeansContext;
 
 public class ConversationAwareViewHandler extends ViewHandlerWrapper
 {
+    /**
+     * FacesContext attribute which holds the Conversation reference during the render response phase.
+     */
+    private static final String CONVERSATION_ATTRIBUTE = ConversationAwareViewHandler.class.getName() + ".conversation";
+
     private final ViewHandler delegate;
 
     private Boolean owbApplication;
 
+    /**
+     * The action URL of each viewId with its cid insertion point.
+     */
+    private final ConcurrentMap<String, CidUrlTemplate> actionUrlTemplates = new ConcurrentHashMap<>();
+
     public ConversationAwareViewHandler(ViewHandler delegate)
     {
         this.delegate = delegate;
@@ -53,25 +66,25 @@ public class ConversationAwareViewHandler extends ViewHandlerWrapper
         
         String url = delegate.getActionURL(context, viewId);
 
-        try
+        String cid = getConversationId(context);
+        if (cid == null)
         {
-            Object session = context.getExternalContext().getSession(false);
-            if (session != null)
-            {
-                WebBeansContext webBeansContext = WebBeansContext.currentInstance();
-                Conversation conversation = webBeansContext.getConversationManager().getConversationBeanReference();
-                if (conversation != null && !conversation.isTransient())
-                {
-                    url = JSFUtil.getRedirectViewIdWithCid(url, conversation.getId());
-                }
-            }
+            return url;
         }
-        catch (ContextNotActiveException e)
+
+        if (viewId == null)
         {
-            // ignore
+            return JSFUtil.getRedirectViewIdWithCid(url, cid);
         }
 
-        return url;
+        CidUrlTemplate template = actionUrlTemplates.get(viewId);
+        if (template == null || !template.matches(url))
+        {
+            template = new CidUrlTemplate(url);
+            actionUrlTemplates.put(viewId, template);
+        }
+
+        return template.apply(cid);
     }
 
     private boolean isOwbApplication()
@@ -101,25 +114,38 @@ public class ConversationAwareViewHandler extends ViewHandlerWrapper
         int indexOfQuery = url.indexOf('?');
         if (indexOfQuery > 0) 
         {
-            String queryString = url.substring(indexOfQuery);
             // If the query string already has a cid parameter, return url directly.
-            if (queryString.contains("?cid=") || queryString.contains("&cid="))
+            if (url.indexOf("?cid=", indexOfQuery) != -1 || url.indexOf("&cid=", indexOfQuery) != -1)
             {
                 return url;
             }
         }
-        
+
+        String cid = getConversationId(context);
+        if (cid != null)
+        {
+            url = JSFUtil.getRedirectViewIdWithCid(url, cid);
+        }
+
+        return url;
+    }
+
+    /**
+     * During the render response phase the Conversation reference gets resolved only once and
+     * then cached in the FacesContext attributes, as a page might render hundreds of URLs.
+     * Its state and id still get read on each call, so a begin() or end() while rendering
+     * is reflected by the following URLs.
+     *
+     * @return the id of the current long running conversation or {@code null}
+     */
+    private String getConversationId(FacesContext context)
+    {
         try
         {
-            Object session = context.getExternalContext().getSession(false);
-            if (session != null)
+            Conversation conversation = getConversation(context);
+            if (conversation != null && !conversation.isTransient())
             {
-                WebBeansContext webBeansContext = WebBeansContext.currentInstance();
-                Conversation conversation = webBeansContext.getConversationManager().getConversationBeanReference();
-                if (conversation != null && !conversation.isTransient())
-                {
-                    url = JSFUtil.getRedirectViewIdWithCid(url, conversation.getId());
-                }
+                return conversation.getId();
             }
         }
         catch (ContextNotActiveException e)
@@ -127,9 +153,37 @@ public class ConversationAwareViewHandler extends ViewHandlerWrapper
             // ignore
         }
 
-        return url;
+        return null;
     }
-    
+
+    private Conversation getConversation(FacesContext context)
+    {
+        boolean renderResponse = context.getCurrentPhaseId() == PhaseId.RENDER_RESPONSE;
+        if (renderResponse)
+        {
+            Conversation conversation = (Conversation) context.getAttributes().get(CONVERSATION_ATTRIBUTE);
+            if (conversation != null)
+            {
+                return conversation;
+            }
+        }
+
+        Object session = context.getExternalContext().getSession(false);
+        if (session == null)
+        {
+            // not cached, a conversation which gets started later on creates the session
+            return null;
+        }
+
+        WebBeansContext webBeansContext = WebBeansContext.currentInstance();
+        Conversation conversation = webBeansContext.getConversationManager().getConversationBeanReference();
+        if (renderResponse && conversation != null)
+        {
+            context.getAttributes().put(CONVERSATION_ATTRIBUTE, conversation);
+        }
+        return conversation;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -66,51 +66,7 @@ public final class JSFUtil
     {
         Asserts.assertNotNull(redirectId, "redirectId");
 
-        StringBuilder buffer = new StringBuilder(redirectId);
-        int index = buffer.lastIndexOf("/");        
-        
-        String remainder = buffer.substring(index+1, buffer.length());
-        int indexOfQuery = remainder.indexOf('?');
-        
-        StringBuilder result = new StringBuilder();
-        if(indexOfQuery != -1)
-        {
-            result.append(buffer.substring(0,index+1));
-            result.append(remainder.substring(0,indexOfQuery+1));
-            result.append("cid");
-            result.append("=");
-            result.append(cid);
-            result.append("&");
-            result.append(remainder.substring(indexOfQuery+1, remainder.length()));            
-        }
-        else
-        {
-            int pathIndex = remainder.indexOf("#");
-            
-            if(pathIndex == -1)
-            {
-                result.append(buffer.substring(0,index+1));
-                result.append(remainder);
-                result.append("?");
-                result.append("cid");
-                result.append("=");
-                result.append(cid);
-            }
-            else
-            {
-                result.append(buffer.substring(0,index+1));
-                result.append(remainder.substring(0,pathIndex));
-                result.append("?");
-                result.append("cid");
-                result.append("=");
-                result.append(cid);
-                result.append(remainder.substring(pathIndex,remainder.length()));
-            }            
-        }
-        
-        
-        return result.toString();
-            
+        return new CidUrlTemplate(redirectId).apply(cid);
     }
 
     public static UIViewRoot getViewRoot()
@@ -18,6 +18,7 @@
  */
 package org.apache.webbeans.jsf.test;
 
+import org.apache.webbeans.jsf.CidUrlTemplate;
 import org.apache.webbeans.jsf.JSFUtil;
 
 import org.junit.Assert;
@@ -65,4 +66,13 @@ public class JSFUtilTest extends TestCase
         Assert.assertEquals("/context?cid=1&hiho=hi#same", path);
     }
 
+    @Test
+    public void testCidUrlTemplate()
+    {
+        CidUrlTemplate template = new CidUrlTemplate("/context/file.get?name=hipo#same");
+        Assert.assertTrue(template.matches("/context/file.get?name=hipo#same"));
+        Assert.assertFalse(template.matches("/context/file.get"));
+        Assert.assertEquals("/context/file.get?cid=1&name=hipo#same", template.apply("1"));
+        Assert.assertEquals("/context/file.get?cid=42&name=hipo#same", template.apply("42"));
+    }
 }
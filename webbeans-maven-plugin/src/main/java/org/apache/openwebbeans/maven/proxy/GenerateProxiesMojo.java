@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openwebbeans.maven.proxy;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.config.WebBeansFinder;
+import org.apache.webbeans.corespi.DefaultSingletonService;
+import org.apache.webbeans.spi.ContainerLifecycle;
+import org.apache.webbeans.spi.ScannerService;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Boots the container on the compiled classes of the project and writes the proxy classes
+ * of all normal-scoped, intercepted and decorated beans into the output directory.
+ * Proxy class names are deterministic, thus at runtime those proxies simply get loaded
+ * instead of generated.
+ *
+ * Only proxies of classes of the project itself get written, not the ones of dependencies.
+ */
+@Mojo(name = "generate-proxies", defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+      requiresDependencyResolution = ResolutionScope.COMPILE, threadSafe = true)
+public class GenerateProxiesMojo extends AbstractMojo
+{
+    private static final String PROXY_SEPARATOR = "$$";
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /**
+     * The compiled classes to generate the proxies for, the proxies get written there as well.
+     */
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File classesDirectory;
+
+    /**
+     * Additional OpenWebBeans configuration used to boot the container.
+     */
+    @Parameter
+    private Map<String, String> properties;
+
+    @Parameter(property = "openwebbeans.proxies.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException
+    {
+        if (skip)
+        {
+            getLog().info("Skipping the proxy generation");
+            return;
+        }
+        if (!classesDirectory.isDirectory())
+        {
+            getLog().info("No classes found in " + classesDirectory + ", skipping the proxy generation");
+            return;
+        }
+
+        Path generated;
+        try
+        {
+            generated = Files.createTempDirectory("openwebbeans-proxies");
+        }
+        catch (IOException e)
+        {
+            throw new MojoExecutionException("Cannot create a temporary directory", e);
+        }
+
+        try
+        {
+            generateProxies(generated.toFile());
+            int count = copyProjectProxies(generated);
+            getLog().info("Generated " + count + " proxy classes in " + classesDirectory);
+        }
+        catch (IOException e)
+        {
+            throw new MojoExecutionException("Cannot copy the generated proxies", e);
+        }
+        finally
+        {
+            delete(generated);
+        }
+    }
+
+    private void generateProxies(File outputDirectory) throws MojoExecutionException
+    {
+        List<URL> urls = getClasspath();
+
+        Thread thread = Thread.currentThread();
+        ClassLoader old = thread.getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(urls.toArray(new URL[urls.size()]), getClass().getClassLoader()))
+        {
+            thread.setContextClassLoader(loader);
+
+            Properties configuration = new Properties();
+            if (properties != null)
+            {
+                configuration.putAll(properties);
+            }
+            configuration.setProperty(OpenWebBeansConfiguration.PROXY_EAGER_GENERATION, "true");
+            configuration.setProperty(OpenWebBeansConfiguration.PROXY_OUTPUT_DIRECTORY, outputDirectory.getAbsolutePath());
+
+            Map<Class<?>, Object> services = new HashMap<>();
+            services.put(ScannerService.class, new ProjectScannerService(loader, urls));
+
+            WebBeansContext context = new WebBeansContext(services, configuration);
+            DefaultSingletonService singletonService = DefaultSingletonService.class.cast(WebBeansFinder.getSingletonService());
+            singletonService.register(loader, context);
+            try
+            {
+                ContainerLifecycle lifecycle = context.getService(ContainerLifecycle.class);
+                lifecycle.startApplication(null);
+                lifecycle.stopApplication(null);
+            }
+            catch (RuntimeException e)
+            {
+                throw new MojoExecutionException("Cannot boot the container to generate the proxies", e);
+            }
+            finally
+            {
+                singletonService.clear(loader);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new MojoExecutionException("Cannot close the project ClassLoader", e);
+        }
+        finally
+        {
+            thread.setContextClassLoader(old);
+        }
+    }
+
+    private List<URL> getClasspath() throws MojoExecutionException
+    {
+        try
+        {
+            List<URL> urls = new ArrayList<>();
+            urls.add(classesDirectory.toURI().toURL());
+            for (String element : project.getCompileClasspathElements())
+            {
+                File file = new File(element);
+                if (!file.equals(classesDirectory) && file.exists())
+                {
+                    urls.add(file.toURI().toURL());
+                }
+            }
+            return urls;
+        }
+        catch (DependencyResolutionRequiredException | IOException e)
+        {
+            throw new MojoExecutionException("Cannot determine the project classpath", e);
+        }
+    }
+
+    /**
+     * Copies the proxies whose proxied class belongs to the project.
+     * @return the number of copied proxy classes
+     */
+    private int copyProjectProxies(Path generated) throws IOException
+    {
+        int count = 0;
+        List<Path> classFiles;
+        try (Stream<Path> files = Files.walk(generated))
+        {
+            classFiles = files.filter(it -> it.getFileName().toString().endsWith(".class")).collect(toList());
+        }
+
+        for (Path classFile : classFiles)
+        {
+            String relativePath = generated.relativize(classFile).toString();
+            int separator = relativePath.indexOf(PROXY_SEPARATOR);
+            if (separator < 0 || !new File(classesDirectory, relativePath.substring(0, separator) + ".class").isFile())
+            {
+                continue;
+            }
+
+            Path target = classesDirectory.toPath().resolve(relativePath);
+            Files.createDirectories(target.getParent());
+            Files.copy(classFile, target, StandardCopyOption.REPLACE_EXISTING);
+            count++;
+        }
+        return count;
+    }
+
+    private void delete(Path directory)
+    {
+        try (Stream<Path> files = Files.walk(directory))
+        {
+            files.sorted(Comparator.reverseOrder()).forEach(it -> it.toFile().delete());
+        }
+        catch (IOException e)
+        {
+            getLog().debug("Cannot delete " + directory, e);
+        }
+    }
+}
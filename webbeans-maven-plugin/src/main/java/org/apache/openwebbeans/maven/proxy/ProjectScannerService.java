@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openwebbeans.maven.proxy;
+
+import org.apache.webbeans.corespi.scanner.AbstractMetaDataDiscovery;
+import org.apache.xbean.finder.util.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.jar.JarFile;
+
+/**
+ * Only scans the given classpath entries of the project
+ * and not the classpath of the plugin itself.
+ */
+class ProjectScannerService extends AbstractMetaDataDiscovery
+{
+    private final Collection<URL> urls;
+
+    ProjectScannerService(ClassLoader loader, Collection<URL> urls)
+    {
+        this.loader = loader;
+        this.urls = urls;
+    }
+
+    @Override
+    protected void configure()
+    {
+        try
+        {
+            Set<URL> implicitBeanArchives = new LinkedHashSet<>();
+            for (URL url : urls)
+            {
+                URL beansXml = findBeansXml(url);
+                if (beansXml != null)
+                {
+                    addWebBeansXmlLocation(beansXml);
+                    addDeploymentUrl(beansXml.toExternalForm(), url);
+                }
+                else
+                {
+                    implicitBeanArchives.add(url);
+                }
+            }
+
+            if (!webBeansContext().getOpenWebBeansConfiguration().scanOnlyBeansXmlJars())
+            {
+                filterExcludedJars(implicitBeanArchives);
+                for (URL url : implicitBeanArchives)
+                {
+                    addWebBeansXmlLocation(url);
+                    addDeploymentUrl(url.toExternalForm(), url);
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private URL findBeansXml(URL url) throws IOException
+    {
+        File file = Files.toFile(url);
+        if (file.isDirectory())
+        {
+            File beansXml = new File(file, META_INF_BEANS_XML);
+            return beansXml.isFile() ? beansXml.toURI().toURL() : null;
+        }
+        if (!file.isFile())
+        {
+            return null;
+        }
+
+        try (JarFile jar = new JarFile(file))
+        {
+            return jar.getEntry(META_INF_BEANS_XML) != null
+                    ? new URL("jar:" + file.toURI().toURL().toExternalForm() + "!/" + META_INF_BEANS_XML) : null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openwebbeans.maven.proxy;
+
+import org.apache.maven.project.MavenProject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.enterprise.context.RequestScoped;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class GenerateProxiesMojoTest
+{
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File classes;
+    private File serviceClass;
+
+    @Before
+    public void createClassesDirectory() throws IOException
+    {
+        classes = temporaryFolder.newFolder("classes");
+
+        File beansXml = new File(classes, "META-INF/beans.xml");
+        beansXml.getParentFile().mkdirs();
+        Files.write(beansXml.toPath(), "<beans bean-discovery-mode=\"all\" />".getBytes(StandardCharsets.UTF_8));
+
+        String classFile = Service.class.getName().replace('.', '/') + ".class";
+        serviceClass = new File(classes, classFile);
+        serviceClass.getParentFile().mkdirs();
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(classFile))
+        {
+            Files.copy(in, serviceClass.toPath());
+        }
+    }
+
+    @Test
+    public void writesTheProxiesOfTheProjectClasses() throws Exception
+    {
+        newMojo(false).execute();
+
+        File[] proxies = listProxies();
+        assertNotNull(proxies);
+        assertEquals(1, proxies.length);
+        assertTrue(proxies[0].getName(), proxies[0].getName().contains("OwbNormalScopeProxy"));
+    }
+
+    @Test
+    public void skip() throws Exception
+    {
+        newMojo(true).execute();
+
+        assertEquals(0, listProxies().length);
+    }
+
+    private File[] listProxies()
+    {
+        String prefix = serviceClass.getName().replace(".class", "$$");
+        return serviceClass.getParentFile().listFiles((dir, name) -> name.startsWith(prefix));
+    }
+
+    private GenerateProxiesMojo newMojo(boolean skip) throws Exception
+    {
+        GenerateProxiesMojo mojo = new GenerateProxiesMojo();
+        set(mojo, "project", new MavenProject()
+        {
+            @Override
+            public List<String> getCompileClasspathElements()
+            {
+                return Collections.emptyList();
+            }
+        });
+        set(mojo, "classesDirectory", classes);
+        set(mojo, "skip", skip);
+        return mojo;
+    }
+
+    private static void set(GenerateProxiesMojo mojo, String name, Object value) throws Exception
+    {
+        Field field = GenerateProxiesMojo.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(mojo, value);
+    }
+
+    @RequestScoped
+    public static class Service
+    {
+        public String hello()
+        {
+            return "hello";
+        }
+    }
+}
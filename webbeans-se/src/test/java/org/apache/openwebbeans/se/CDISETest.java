@@ -18,17 +18,29 @@
  */
 package org.apache.openwebbeans.se;
 
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.spi.ScannerService;
+import org.apache.xbean.finder.AnnotationFinder;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.se.SeContainer;
 import javax.enterprise.inject.se.SeContainerInitializer;
 
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 public class CDISETest
 {
+    @Rule
+    public final TemporaryFolder temp = new TemporaryFolder();
+
     @Test
     public void scanning()
     {
@@ -74,6 +86,54 @@ public class CDISETest
         }
     }
 
+    @Test
+    public void bootImage() throws Exception
+    {
+        final File image = new File(temp.newFolder(), "boot.image");
+        final AtomicInteger scans = new AtomicInteger();
+
+        // first boot scans and writes the image
+        try (final SeContainer container = newBootImageInitializer(image, scans).initialize())
+        {
+            assertTrue(container.select(Scanned.class).isResolvable());
+        }
+        assertEquals(1, scans.get());
+        assertTrue(image.isFile());
+
+        // unchanged deployment, no scanning needed
+        try (final SeContainer container = newBootImageInitializer(image, scans).initialize())
+        {
+            assertTrue(container.select(Scanned.class).isResolvable());
+        }
+        assertEquals(1, scans.get());
+
+        // changed configuration, the image does not match anymore
+        try (final SeContainer container = newBootImageInitializer(image, scans)
+                .addProperty("org.apache.openwebbeans.se.test", "changed")
+                .initialize())
+        {
+            assertTrue(container.select(Scanned.class).isResolvable());
+        }
+        assertEquals(2, scans.get());
+    }
+
+    private SeContainerInitializer newBootImageInitializer(final File image, final AtomicInteger scans)
+    {
+        final CDISeScannerService scannerService = new CDISeScannerService()
+        {
+            @Override
+            protected AnnotationFinder initFinder()
+            {
+                scans.incrementAndGet();
+                return super.initFinder();
+            }
+        };
+        scannerService.loader(Thread.currentThread().getContextClassLoader());
+        return SeContainerInitializer.newInstance()
+                .addProperty(OpenWebBeansConfiguration.BOOT_IMAGE_FILE, image.getAbsolutePath())
+                .addProperty(ScannerService.class.getName(), scannerService);
+    }
+
     @Test // main for OWB-1260 and enable java 11 testing
     public void fire() {
         try (final SeContainer container = SeContainerInitializer.newInstance()
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.spi;
+
+/**
+ * Can be implemented by SPI services and plugins which hold resources
+ * which must not end up in a checkpoint of the JVM, e.g. open connections,
+ * running tasks or clock based state.
+ *
+ * The callbacks get invoked by the container lifecycle, e.g. from a
+ * CRaC {@code Resource} registered by the integration.
+ */
+public interface CheckpointAware
+{
+    /**
+     * Invoked before a checkpoint of the JVM gets taken.
+     * Implementations should release all resources which cannot be restored.
+     * The callback runs on a single thread, thus state bound to other threads,
+     * e.g. in ThreadLocals, cannot get released here.
+     */
+    void beforeCheckpoint();
+
+    /**
+     * Invoked after the JVM got restored from a checkpoint.
+     * Implementations should re-initialize the state released in {@link #beforeCheckpoint()}.
+     */
+    void afterRestore();
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.spi;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * SPI for writing the state of contextual instances when a passivating
+ * context like the session or conversation context gets serialized.
+ *
+ * The container itself only writes the passivation ids of the beans
+ * and the structure of their dependent instances. Everything else
+ * goes through this codec, e.g. to plug in a more compact serializer
+ * for session replication.
+ */
+public interface PassivationCodec
+{
+    /**
+     * Write the given contextual or dependent instance.
+     * @param out the stream of the passivating context
+     * @param instance the instance, might be {@code null}
+     */
+    void writeInstance(ObjectOutput out, Object instance) throws IOException;
+
+    /**
+     * Read an instance previously written via {@link #writeInstance(ObjectOutput, Object)}.
+     * @param in the stream of the passivating context
+     * @return the instance or {@code null}
+     */
+    Object readInstance(ObjectInput in) throws IOException, ClassNotFoundException;
+}
@@ -19,6 +19,7 @@
 package org.apache.webbeans.spi;
 
 import javax.enterprise.event.TransactionPhase;
+import javax.enterprise.inject.spi.EventMetadata;
 import javax.enterprise.inject.spi.ObserverMethod;
 import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
@@ -57,4 +58,22 @@ public interface TransactionService
     void registerTransactionSynchronization(TransactionPhase phase,
                                             ObserverMethod<? super Object> observer,
                                             Object event) throws Exception;
+
+    /**
+     * Register transaction synch.
+     * Gets invoked by the container for transactional observers.
+     * Implementations should override it if they need the {@link EventMetadata},
+     * e.g. to pass it to the TransactionalEventNotifier of openwebbeans-ee.
+     * @param phase transaction phase
+     * @param observer observer
+     * @param event event
+     * @param metadata metadata of the fired event
+     */
+    default void registerTransactionSynchronization(TransactionPhase phase,
+                                                    ObserverMethod<? super Object> observer,
+                                                    Object event,
+                                                    EventMetadata metadata) throws Exception
+    {
+        registerTransactionSynchronization(phase, observer, event);
+    }
 }
\ No newline at end of file
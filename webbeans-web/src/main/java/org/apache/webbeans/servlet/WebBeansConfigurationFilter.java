@@ -182,11 +182,7 @@ public class WebBeansConfigurationFilter implements Filter
         }
 
         // clean up the EL caches after each request
-        ELContextStore elStore = ELContextStore.getInstance(false);
-        if (elStore != null)
-        {
-            elStore.destroyELContextStore();
-        }
+        ELContextStore.endRequest();
 
         this.lifeCycle.getContextService().endContext(RequestScoped.class,
                 new ServletRequestEvent(this.servletContext, request));
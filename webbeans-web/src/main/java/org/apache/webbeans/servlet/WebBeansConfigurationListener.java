@@ -161,11 +161,7 @@ public class WebBeansConfigurationListener implements ServletContextListener, Se
         }
 
         // clean up the EL caches after each request
-        ELContextStore elStore = ELContextStore.getInstance(false);
-        if (elStore != null)
-        {
-            elStore.destroyELContextStore();
-        }
+        ELContextStore.endRequest();
 
         this.lifeCycle.getContextService().endContext(RequestScoped.class, event);
 
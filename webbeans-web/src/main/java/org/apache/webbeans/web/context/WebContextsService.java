@@ -450,11 +450,7 @@ public class WebContextsService extends AbstractContextsService
         context.destroy();
 
         // clean up the EL caches after each request
-        ELContextStore elStore = ELContextStore.getInstance(false);
-        if (elStore != null)
-        {
-            elStore.destroyELContextStore();
-        }
+        ELContextStore.endRequest();
 
         if (shouldFireRequestLifecycleEvents())
         {
@@ -168,11 +168,7 @@ public class WebContainerLifecycle extends AbstractLifeCycle
         webBeansContext.getContextsService().endContext(Singleton.class, null);
 
         // clean up the EL caches after each request
-        ELContextStore elStore = ELContextStore.getInstance(false);
-        if (elStore != null)
-        {
-            elStore.destroyELContextStore();
-        }
+        ELContextStore.endRequest();
     }
 
     /**
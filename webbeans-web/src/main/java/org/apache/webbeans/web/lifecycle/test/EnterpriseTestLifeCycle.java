@@ -80,11 +80,7 @@ public class EnterpriseTestLifeCycle extends StandaloneLifeCycle
         //ContextFactory.cleanUpContextFactory();
 
         // clean up the EL caches after each request
-        ELContextStore elStore = ELContextStore.getInstance(false);
-        if (elStore != null)
-        {
-            elStore.destroyELContextStore();
-        }
+        ELContextStore.endRequest();
     }
 
 }